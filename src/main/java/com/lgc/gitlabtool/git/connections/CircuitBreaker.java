@@ -0,0 +1,116 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Circuit breaker of a GitLab server.
+ *
+ * After several failures in a row the server is considered unavailable and requests are rejected at once
+ * instead of waiting for timeouts. When the open timeout is over, one trial request is allowed: if it succeeds
+ * the server is available again, otherwise it is unavailable for the next timeout.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final Logger _logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private static final int DEFAULT_FAILURES_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_TIMEOUT = 30_000;
+
+    private final String _serverName;
+    private final int _failuresThreshold;
+    private final long _openTimeout;
+    private final LongSupplier _clock;
+
+    private State _state = State.CLOSED;
+    private int _failuresInRow;
+    private long _openedTime;
+    private boolean _isTrialRequestSent;
+
+    CircuitBreaker(String serverName) {
+        this(serverName, DEFAULT_FAILURES_THRESHOLD, DEFAULT_OPEN_TIMEOUT, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates the closed circuit breaker
+     *
+     * @param serverName        the name of the server (for logging)
+     * @param failuresThreshold the count of failures in a row after which requests are rejected
+     * @param openTimeout       the time in milliseconds during which requests are rejected
+     * @param clock             the source of the current time in milliseconds
+     */
+    CircuitBreaker(String serverName, int failuresThreshold, long openTimeout, LongSupplier clock) {
+        _serverName = serverName;
+        _failuresThreshold = failuresThreshold;
+        _openTimeout = openTimeout;
+        _clock = clock;
+    }
+
+    /**
+     * Checks that a request to the server can be sent.
+     *
+     * @return <code>true</code> if the request can be sent, <code>false</code> if it should be rejected
+     */
+    synchronized boolean allowRequest() {
+        if (_state == State.OPEN && _clock.getAsLong() - _openedTime >= _openTimeout) {
+            _state = State.HALF_OPEN;
+            _isTrialRequestSent = false;
+        }
+        if (_state == State.HALF_OPEN) {
+            if (_isTrialRequestSent) {
+                return false;
+            }
+            _isTrialRequestSent = true;
+            return true;
+        }
+        return _state == State.CLOSED;
+    }
+
+    /**
+     * Registers the successful request (the server answered).
+     */
+    synchronized void onSuccess() {
+        if (_state != State.CLOSED) {
+            _logger.info("GitLab server " + _serverName + " is available again");
+        }
+        _state = State.CLOSED;
+        _failuresInRow = 0;
+    }
+
+    /**
+     * Registers the failed request (the server didn't answer or is temporarily unavailable).
+     */
+    synchronized void onFailure() {
+        _failuresInRow++;
+        if (_state == State.HALF_OPEN || _failuresInRow >= _failuresThreshold) {
+            if (_state != State.OPEN) {
+                _logger.error("GitLab server " + _serverName + " is unavailable, requests are rejected for "
+                        + _openTimeout + " ms");
+            }
+            _state = State.OPEN;
+            _openedTime = _clock.getAsLong();
+        }
+    }
+
+    /**
+     * Registers the request which was cancelled before the server answered (the thread was interrupted).
+     * It is neither a success nor a failure of the server, only the trial request can be sent again.
+     */
+    synchronized void onCancel() {
+        if (_state == State.HALF_OPEN) {
+            _isTrialRequestSent = false;
+        }
+    }
+
+    synchronized State getState() {
+        return _state;
+    }
+}
@@ -38,6 +38,25 @@ public class HttpResponseHolder {
         return _headerLines;
     }
 
+    /**
+     * Returns the first value of the header. Names of headers are case-insensitive
+     * (servers and proxies can change their case).
+     *
+     * @param name - the name of the header
+     * @return the value of the header or <code>null</code> if the response doesn't have it
+     */
+    public String getHeaderValue(String name) {
+        if (_headerLines == null || name == null) {
+            return null;
+        }
+        for (Map.Entry<String, List<String>> header : _headerLines.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
     /**
      * Sets the header lines of HTTP response from server
      * 
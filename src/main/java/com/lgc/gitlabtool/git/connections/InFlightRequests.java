@@ -0,0 +1,70 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical requests which are in progress at the same time.
+ * The first caller starts the request, all callers which come before it is finished get the same result.
+ * Finished requests aren't cached: the next caller starts a new request.
+ *
+ * @param <T> the type of the request result
+ */
+public class InFlightRequests<T> {
+
+    private final ConcurrentMap<String, CompletableFuture<T>> _requests = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the request with the key if it is in progress, otherwise starts a new one.
+     *
+     * @param  key     the key of the request (see {@link #getKey(String, Map)})
+     * @param  request the starter of the request. It is called only if there is no request with the key.
+     * @return the future which is completed by the result of the request
+     */
+    public CompletableFuture<T> getOrStart(String key, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> newRequest = new CompletableFuture<>();
+        CompletableFuture<T> inFlightRequest = _requests.putIfAbsent(key, newRequest);
+        if (inFlightRequest != null) {
+            return inFlightRequest;
+        }
+        try {
+            request.get().whenComplete((result, error) -> {
+                // the request should be removed before completion, so the next callers start a new one
+                _requests.remove(key, newRequest);
+                if (error != null) {
+                    newRequest.completeExceptionally(error);
+                } else {
+                    newRequest.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            _requests.remove(key, newRequest);
+            newRequest.completeExceptionally(e);
+        }
+        return newRequest;
+    }
+
+    /**
+     * Gets count of requests in progress.
+     *
+     * @return count of requests
+     */
+    public int size() {
+        return _requests.size();
+    }
+
+    /**
+     * Builds the key of the request. Requests of different users have different keys.
+     *
+     * @param  url    the URL of the request
+     * @param  header the header of the request with the authorization data (can be <code>null</code>)
+     * @return the key
+     */
+    public static String getKey(String url, Map<String, String> header) {
+        return header == null ? url : url + "\n" + new TreeMap<>(header);
+    }
+}
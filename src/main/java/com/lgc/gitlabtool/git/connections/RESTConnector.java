@@ -1,6 +1,7 @@
 package com.lgc.gitlabtool.git.connections;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface RESTConnector {
     String URL_MAIN_PART = "https://gitlab.com/api/v3";
@@ -29,6 +30,61 @@ public interface RESTConnector {
      */
     HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header);
 
+    /**
+     * Sends get request and passes the response body to the handler while the connection is open.
+     * The body isn't stored in the returned holder.
+     *
+     * @param suffixForUrl suffix for adding to main URL
+     * @param params for request
+     * @param header the data to be added to header of request.
+     *               if the header is not needed then pass null
+     * @param bodyHandler the handler of the response body. It is called only for successful responses.
+     * @return {@link HttpResponseHolder} instance which contains response code and header lines
+     */
+    HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header,
+                               ResponseBodyHandler bodyHandler);
+
+    /**
+     * Sends post request on the I/O threads of the connector.
+     * The request has the {@link RequestPriority} of the calling thread.
+     *
+     * @param suffixForUrl suffix for adding to main URL
+     * @param params for request
+     * @param header the data to be added to header of request.
+     *               if the header is not needed then pass null
+     * @return the future which is completed by the response (see {@link #sendPost(String, Map, Map)})
+     */
+    CompletableFuture<HttpResponseHolder> sendPostAsync(String suffixForUrl, Map<String, String> params,
+                                                        Map<String, String> header);
+
+    /**
+     * Sends get request on the I/O threads of the connector.
+     * The request has the {@link RequestPriority} of the calling thread.
+     *
+     * @param suffixForUrl suffix for adding to main URL
+     * @param params for request
+     * @param header the data to be added to header of request.
+     *               if the header is not needed then pass null
+     * @return the future which is completed by the response (see {@link #sendGet(String, Map, Map)})
+     */
+    CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                       Map<String, String> header);
+
+    /**
+     * Sends get request on the I/O threads of the connector and passes the response body to the handler.
+     * The request has the {@link RequestPriority} of the calling thread.
+     *
+     * @param suffixForUrl suffix for adding to main URL
+     * @param params for request
+     * @param header the data to be added to header of request.
+     *               if the header is not needed then pass null
+     * @param bodyHandler the handler of the response body. It is called on an I/O thread.
+     * @return the future which is completed by the response
+     *         (see {@link #sendGet(String, Map, Map, ResponseBodyHandler)})
+     */
+    CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                       Map<String, String> header, ResponseBodyHandler bodyHandler);
+
     /**
      * Sets the main part of server URL to the <code>RESTConnector</code>
      *
@@ -43,4 +99,11 @@ public interface RESTConnector {
      */
     String getUrlMainPart();
 
+    /**
+     * Returns metrics of requests which were sent by the connector (grouped by endpoints)
+     *
+     * @return the metrics
+     */
+    RequestMetrics getMetrics();
+
 }
@@ -1,23 +1,71 @@
 package com.lgc.gitlabtool.git.connections;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.lgc.gitlabtool.git.util.URLManager;
+
+/**
+ * Factory of connectors to GitLab servers.
+ *
+ * Every server has its own session connector with a fixed base URL and its own I/O threads, caches,
+ * rate limiter and metrics. The services share the connector of the current session, so they work with
+ * one server at a time: switching the server doesn't change the base URL of requests which were started
+ * before, but the projects of two servers aren't loaded at the same time.
+ */
 public class RESTConnectorFactory {
 
+    /** Only the recently used sessions are kept, connectors of other sessions are released */
+    private static final int MAX_SESSIONS_COUNT = 4;
+
     private static RESTConnectorFactory _instance;
 
+    private final Map<String, RESTConnector> _sessions = new LinkedHashMap<String, RESTConnector>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RESTConnector> eldest) {
+            return size() > MAX_SESSIONS_COUNT;
+        }
+    };
     private final RESTConnector _restConnector;
 
     private RESTConnectorFactory() {
-        _restConnector = new RESTConnectorImpl();
+        _restConnector = new SessionRESTConnector(this::getRESTConnector);
     }
 
-    public static RESTConnectorFactory getInstance() {
+    public static synchronized RESTConnectorFactory getInstance() {
         if (_instance == null) {
             _instance = new RESTConnectorFactory();
         }
         return _instance;
     }
 
+    /**
+     * Gets the connector of the current server session.
+     * The session is switched by {@link RESTConnector#setUrlMainPart(String)}, every request is sent
+     * by the connector of the session which was current when the request was started.
+     *
+     * @return the connector of the current session
+     */
     public RESTConnector getRESTConnector() {
         return _restConnector;
     }
+
+    /**
+     * Gets the connector of the server session. The connector is created on the first call for the server.
+     * A released connector finishes its started requests and its I/O threads are stopped when they are idle.
+     *
+     * @param  urlMainPart the main part of the server URL
+     * @return the connector which sends requests only to the server
+     *         or <code>null</code> if the URL isn't valid
+     */
+    public RESTConnector getRESTConnector(String urlMainPart) {
+        if (urlMainPart == null || !URLManager.isURLValid(urlMainPart)) {
+            return null;
+        }
+        synchronized (_sessions) {
+            return _sessions.computeIfAbsent(urlMainPart, RESTConnectorImpl::new);
+        }
+    }
 }
@@ -1,27 +1,71 @@
 package com.lgc.gitlabtool.git.connections;
 
-import java.io.BufferedReader;
 import java.io.DataOutputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
-import javax.net.ssl.HttpsURLConnection;
-
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import com.lgc.gitlabtool.git.util.RequestType;
-import com.lgc.gitlabtool.git.util.URLManager;
 
 class RESTConnectorImpl implements RESTConnector {
 
     private static final Logger _logger = LogManager.getLogger(RESTConnectorImpl.class);
-    private String _urlMainPart;
+    private static final int IO_THREADS_COUNT = 4;
+    /** I/O threads are stopped after this idle time, so a released session doesn't keep them */
+    private static final long IO_THREADS_KEEP_ALIVE_SECONDS = 60;
+    private static final int CONNECT_TIMEOUT = 15_000;
+    private static final int READ_TIMEOUT = 60_000;
+    private static final String SERVER_UNAVAILABLE_MESSAGE = "Server is unavailable";
+    /** Bodies of responses are logged only on the debug level and if they aren't longer */
+    private static final int MAX_LOGGED_BODY_LENGTH = 4096;
+    private final String _urlMainPart;
+    private final RetryPolicy _retryPolicy;
+    private final CircuitBreaker _circuitBreaker;
+    private final RequestScheduler _requestScheduler = new RequestScheduler();
+    private final ExecutorService _ioExecutor = createIOExecutor();
+    private final InFlightRequests<HttpResponseHolder> _inFlightGetRequests = new InFlightRequests<>();
+    private final RequestMetrics _metrics = new RequestMetrics();
 
-    public RESTConnectorImpl() {}
+    /**
+     * Creates the connector of the server session
+     *
+     * @param urlMainPart the main part of the server URL
+     */
+    RESTConnectorImpl(String urlMainPart) {
+        this(urlMainPart, RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * Creates the connector of the server session with the retry policy
+     *
+     * @param urlMainPart the main part of the server URL
+     * @param retryPolicy the policy of repeating failed requests
+     */
+    RESTConnectorImpl(String urlMainPart, RetryPolicy retryPolicy) {
+        _urlMainPart = urlMainPart;
+        _retryPolicy = retryPolicy;
+        _circuitBreaker = new CircuitBreaker(urlMainPart);
+    }
 
     /**
      * Opens the HTTP connection to the defined URL
@@ -30,38 +74,164 @@ class RESTConnectorImpl implements RESTConnector {
      * @return created connection for defined URL
      * @throws Exception if URL isn't valid
      */
-    private HttpsURLConnection getConnection(URL url) throws Exception {
-        return (HttpsURLConnection) url.openConnection();
+    private HttpURLConnection getConnection(URL url) throws Exception {
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private ExecutorService createIOExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(IO_THREADS_COUNT, IO_THREADS_COUNT,
+                IO_THREADS_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), getIOThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private ThreadFactory getIOThreadFactory() {
+        final AtomicLong counter = new AtomicLong(0);
+        final ThreadFactory factory = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = factory.newThread(runnable);
+            thread.setName(String.format("rest-connector-io-%d", counter.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+        };
     }
 
     @Override
     public HttpResponseHolder sendPost(String suffixForUrl, Map<String, String> params, Map<String, String> header) {
-        return sendRequest(suffixForUrl, params,header, RequestType.POST);
+        return sendRequest(suffixForUrl, params,header, RequestType.POST, null, RequestPriority.current());
     }
 
     @Override
     public HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header) {
-        return sendRequest(suffixForUrl, params,header, RequestType.GET);
+        RequestPriority priority = RequestPriority.current();
+        // the request is sent from the current thread, identical requests wait for its response
+        return _inFlightGetRequests.getOrStart(getGetRequestKey(suffixForUrl, params, header),
+                () -> CompletableFuture.completedFuture(
+                        sendRequest(suffixForUrl, params, header, RequestType.GET, null, priority)))
+                .join();
+    }
+
+    @Override
+    public HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header,
+                                      ResponseBodyHandler bodyHandler) {
+        return sendRequest(suffixForUrl, params, header, RequestType.GET, bodyHandler, RequestPriority.current());
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseHolder> sendPostAsync(String suffixForUrl, Map<String, String> params,
+                                                               Map<String, String> header) {
+        return sendRequestAsync(suffixForUrl, params, header, RequestType.POST, null);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                              Map<String, String> header) {
+        return _inFlightGetRequests.getOrStart(getGetRequestKey(suffixForUrl, params, header),
+                () -> sendRequestAsync(suffixForUrl, params, header, RequestType.GET, null));
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                              Map<String, String> header, ResponseBodyHandler bodyHandler) {
+        return sendRequestAsync(suffixForUrl, params, header, RequestType.GET, bodyHandler);
     }
 
     /**
-     * Sends request
+     * Identical GET requests (the same URL, parameters and authorization) which are sent at the same time
+     * share one response. Requests with a body handler aren't coalesced because the body is read by the handler.
+     */
+    private String getGetRequestKey(String suffixForUrl, Map<String, String> params, Map<String, String> header) {
+        String url = params == null ? suffixForUrl : suffixForUrl + "?" + formParameters(params);
+        return InFlightRequests.getKey(url, header);
+    }
+
+    private CompletableFuture<HttpResponseHolder> sendRequestAsync(String suffixForUrl, Map<String, String> params,
+                                                                   Map<String, String> header, RequestType request,
+                                                                   ResponseBodyHandler bodyHandler) {
+        // the priority is bound to the calling thread, so we should take it before switching to the I/O thread
+        RequestPriority priority = RequestPriority.current();
+        return CompletableFuture.supplyAsync(
+                () -> sendRequest(suffixForUrl, params, header, request, bodyHandler, priority), _ioExecutor);
+    }
+
+    /**
+     * Sends request. Idempotent requests are repeated according to the retry policy if the server is temporarily
+     * unavailable. If the server is unavailable for a long time requests are rejected at once by its circuit breaker.
      *
      * @param suffixForUrl suffix for adding to main URL
      * @param params for request
      * @param header the data to be added to header of request.
      *               if the header is not needed then pass null
      * @param request - for example: RequestType.GET or RequestType.POST etc.
+     * @param bodyHandler the handler of the response body or <code>null</code> if the body should be
+     *                    stored in the response holder as a string
+     * @param priority the priority of the request
      *
      * @return {@link HttpResponseHolder} instance which contains response body, response code and header lines
      *         or <code>null</code>, if an error occurred in the request
      */
-    private HttpResponseHolder sendRequest(String suffixForUrl, Map<String, String> params, Map<String, String> header, RequestType request) {
-        HttpsURLConnection connection = null;
+    private HttpResponseHolder sendRequest(String suffixForUrl, Map<String, String> params, Map<String, String> header,
+                                           RequestType request, ResponseBodyHandler bodyHandler,
+                                           RequestPriority priority) {
+        String urlMainPart = _urlMainPart;
+        boolean isIdempotent = request == RequestType.GET;
+        AtomicBoolean isBodyHandled = new AtomicBoolean();
+        ResponseBodyHandler trackedBodyHandler = bodyHandler == null ? null : body -> {
+            isBodyHandled.set(true);
+            bodyHandler.handle(body);
+        };
+        for (int attempt = 1; ; attempt++) {
+            if (!_circuitBreaker.allowRequest()) {
+                _logger.error("Request is rejected, the server is unavailable: " + urlMainPart + suffixForUrl);
+                HttpResponseHolder rejectedResponse = new HttpResponseHolder();
+                rejectedResponse.setResponseMessage(SERVER_UNAVAILABLE_MESSAGE);
+                return rejectedResponse;
+            }
+            HttpResponseHolder responseHolder = sendRequestOnce(urlMainPart, suffixForUrl, params, header, request,
+                    trackedBodyHandler, priority);
+            int responseCode = responseHolder.getResponseCode();
+            if (responseCode == 0 && Thread.currentThread().isInterrupted()) {
+                // the request was stopped by the interruption, it says nothing about the server
+                _circuitBreaker.onCancel();
+                return responseHolder;
+            }
+            if (RetryPolicy.isServerFailure(responseCode)) {
+                _circuitBreaker.onFailure();
+            } else {
+                _circuitBreaker.onSuccess();
+            }
+            // the body handler can't read the body again, so we don't repeat requests after it has been called
+            if (!isIdempotent || isBodyHandled.get() || Thread.currentThread().isInterrupted()
+                    || !_retryPolicy.shouldRetry(attempt, responseCode)) {
+                return responseHolder;
+            }
+            _metrics.recordRetry(request.toString(), suffixForUrl);
+            long delay = _retryPolicy.getDelay(attempt);
+            _logger.info("Request will be repeated in " + delay + " ms (response code " + responseCode + ")");
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return responseHolder;
+            }
+        }
+    }
+
+    private HttpResponseHolder sendRequestOnce(String urlMainPart, String suffixForUrl, Map<String, String> params,
+                                               Map<String, String> header, RequestType request,
+                                               ResponseBodyHandler bodyHandler, RequestPriority priority) {
+        HttpURLConnection connection = null;
         HttpResponseHolder responseHolder = new HttpResponseHolder();
+        CountingInputStream responseStream = null;
+        long bytesOut = 0;
+        long startTime = 0;
         try {
-            URL url = new URL(_urlMainPart + suffixForUrl);
+            URL url = new URL(urlMainPart + suffixForUrl);
+            _requestScheduler.acquire(priority);
+            startTime = System.currentTimeMillis();
             connection = getConnection(url);
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
 
             setHTTPRequestHeader(header, connection);
             connection.setRequestMethod(request.toString());
@@ -73,44 +243,68 @@ class RESTConnectorImpl implements RESTConnector {
 
                 DataOutputStream wr = new DataOutputStream(connection.getOutputStream());
                 wr.writeBytes(urlParameters);
+                bytesOut = wr.size();
                 wr.flush();
                 wr.close();
             }
 
             final int RESPONSE_CODE = connection.getResponseCode();
             final String RESPONSE_MESSAGE = connection.getResponseMessage();
-            _logger.info("Sending '" + request +"' request to URL : " + url.toString());
-            _logger.info("Response Code : " + RESPONSE_CODE);
-            _logger.info("Response Message : " + RESPONSE_MESSAGE);
+            _logger.info("Sending '" + request +"' request to URL : " + url.toString()
+                    + ", response : " + RESPONSE_CODE + " " + RESPONSE_MESSAGE);
             responseHolder.setResponseCode(RESPONSE_CODE);
             responseHolder.setResponseMessage(RESPONSE_MESSAGE);
 
-            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-
-            String inputLine;
-            while ((inputLine = in.readLine()) != null) {
-                response.append(inputLine);
+            responseHolder.setHeaderLines(connection.getHeaderFields());
+            _requestScheduler.onResponse(RESPONSE_CODE, connection.getHeaderFields());
+            responseStream = new CountingInputStream(connection.getInputStream());
+            if (bodyHandler != null) {
+                try (Reader in = new InputStreamReader(responseStream, StandardCharsets.UTF_8)) {
+                    bodyHandler.handle(in);
+                }
+                return responseHolder;
             }
-            in.close();
 
-            responseHolder.setHeaderLines(connection.getHeaderFields());
-            responseHolder.setBody(response.toString());
-            String responseString = response.toString();
-            if (!responseString.contains("token")) {
-                _logger.info(response.toString());
+            String responseString;
+            try (InputStream in = responseStream) {
+                responseString = IOUtils.toString(in, StandardCharsets.UTF_8);
             }
+            responseHolder.setBody(responseString);
+            logResponseBody(responseString);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            _logger.error("Request was interrupted: " + e.getMessage());
         } catch (Exception e) {
             _logger.error("Error sending request: " + e.getMessage());
         } finally {
             if (connection != null && connection.getExpiration() == 0) {
                 connection.disconnect();
             }
+            if (startTime > 0) {
+                _metrics.recordRequest(request.toString(), suffixForUrl, responseHolder.getResponseCode(),
+                        System.currentTimeMillis() - startTime,
+                        responseStream == null ? 0 : responseStream.getByteCount(), bytesOut);
+            }
         }
         return responseHolder;
     }
 
-    private void setHTTPRequestHeader(Map<String, String> header, HttpsURLConnection con) {
+    /**
+     * Logs the body of the response. Large bodies (e.g. lists of projects) aren't logged because it takes
+     * a lot of time and memory, bodies with tokens aren't logged at all.
+     */
+    private void logResponseBody(String responseString) {
+        if (!_logger.isDebugEnabled()) {
+            return;
+        }
+        if (responseString.length() > MAX_LOGGED_BODY_LENGTH) {
+            _logger.debug("Response body : " + responseString.length() + " characters");
+        } else if (!responseString.contains("token")) {
+            _logger.debug("Response body : " + responseString);
+        }
+    }
+
+    private void setHTTPRequestHeader(Map<String, String> header, HttpURLConnection con) {
         if (header != null) {
             header.entrySet().forEach(e -> con.setRequestProperty(e.getKey(), e.getValue()));
         }
@@ -139,11 +333,14 @@ class RESTConnectorImpl implements RESTConnector {
         }
     }
 
+    /**
+     * The server of the session connector is fixed when the connector is created.
+     *
+     * @throws UnsupportedOperationException always
+     */
     @Override
     public void setUrlMainPart(String urlMainPart) {
-        if (urlMainPart != null && URLManager.isURLValid(urlMainPart)) {
-            this._urlMainPart = urlMainPart;
-        }
+        throw new UnsupportedOperationException("The server of the session connector can't be changed");
     }
 
     @Override
@@ -151,4 +348,9 @@ class RESTConnectorImpl implements RESTConnector {
         return _urlMainPart;
     }
 
+    @Override
+    public RequestMetrics getMetrics() {
+        return _metrics;
+    }
+
 }
@@ -0,0 +1,302 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of requests to the GitLab grouped by endpoints.
+ *
+ * Requests are grouped by the method and the template of the URL, in which ids and encoded paths are replaced
+ * by placeholders (e.g. <code>GET /groups/{id}/projects</code>). For every endpoint we keep the count of requests,
+ * errors and retries, sizes of requests and responses, codes of responses and the histogram of latencies.
+ */
+public class RequestMetrics {
+
+    /** Upper bounds (in milliseconds) of the latency histogram buckets, the last bucket has no bound */
+    static final long[] LATENCY_BUCKETS = {50, 100, 250, 500, 1000, 2500, 5000, 10_000};
+
+    private static final String ID_PLACEHOLDER = "{id}";
+    private static final String PATH_PLACEHOLDER = "{path}";
+    private static final String ENCODED_SLASH = "%2F";
+    private static final String CSV_HEADER = "endpoint,count,errors,retries,avg_ms,p50_ms,p95_ms,max_ms,bytes_in,"
+            + "bytes_out,status_codes";
+
+    private final ConcurrentMap<String, EndpointMetrics> _endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Records the finished request.
+     *
+     * @param method       the method of the request (GET, POST etc.)
+     * @param suffixForUrl the suffix of the request URL
+     * @param responseCode the code of the response or 0 if the response wasn't received
+     * @param latency      the time of the request in milliseconds
+     * @param bytesIn      the size of the response body
+     * @param bytesOut     the size of the request body
+     */
+    void recordRequest(String method, String suffixForUrl, int responseCode, long latency, long bytesIn,
+                       long bytesOut) {
+        getEndpointMetrics(method, suffixForUrl).record(responseCode, latency, bytesIn, bytesOut);
+    }
+
+    /**
+     * Records the repeat of the failed request.
+     *
+     * @param method       the method of the request (GET, POST etc.)
+     * @param suffixForUrl the suffix of the request URL
+     */
+    void recordRetry(String method, String suffixForUrl) {
+        getEndpointMetrics(method, suffixForUrl)._retries.increment();
+    }
+
+    /**
+     * Gets metrics of all endpoints which were requested.
+     *
+     * @return the list of metrics sorted by endpoints
+     */
+    public List<EndpointMetrics> getEndpoints() {
+        List<EndpointMetrics> endpoints = new ArrayList<>(_endpoints.values());
+        endpoints.sort(Comparator.comparing(EndpointMetrics::getEndpoint));
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * Removes metrics of all endpoints.
+     */
+    public void reset() {
+        _endpoints.clear();
+    }
+
+    /**
+     * Gets metrics as a text table for showing to an user.
+     *
+     * @return the text table
+     */
+    public String toText() {
+        StringBuilder builder = new StringBuilder(String.format("%-40s %7s %6s %7s %7s %7s %7s %7s %10s%n",
+                "Endpoint", "Count", "Errors", "Retries", "Avg ms", "p50 ms", "p95 ms", "Max ms", "KB in"));
+        for (EndpointMetrics endpoint : getEndpoints()) {
+            builder.append(String.format("%-40s %7d %6d %7d %7d %7d %7d %7d %10d%n", endpoint.getEndpoint(),
+                    endpoint.getCount(), endpoint.getErrorsCount(), endpoint.getRetriesCount(),
+                    endpoint.getAverageLatency(), endpoint.getLatencyPercentile(0.5),
+                    endpoint.getLatencyPercentile(0.95), endpoint.getMaxLatency(), endpoint.getBytesIn() / 1024));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets metrics in the CSV format for exporting.
+     *
+     * @return the CSV text with the header line
+     */
+    public String toCsv() {
+        StringBuilder builder = new StringBuilder(CSV_HEADER).append(System.lineSeparator());
+        for (EndpointMetrics endpoint : getEndpoints()) {
+            StringBuilder statusCodes = new StringBuilder();
+            endpoint.getStatusCodes().forEach((code, count) -> statusCodes.append(statusCodes.length() > 0 ? " " : "")
+                                                                          .append(code).append(':').append(count));
+            builder.append('"').append(endpoint.getEndpoint()).append('"').append(',')
+                   .append(endpoint.getCount()).append(',')
+                   .append(endpoint.getErrorsCount()).append(',')
+                   .append(endpoint.getRetriesCount()).append(',')
+                   .append(endpoint.getAverageLatency()).append(',')
+                   .append(endpoint.getLatencyPercentile(0.5)).append(',')
+                   .append(endpoint.getLatencyPercentile(0.95)).append(',')
+                   .append(endpoint.getMaxLatency()).append(',')
+                   .append(endpoint.getBytesIn()).append(',')
+                   .append(endpoint.getBytesOut()).append(',')
+                   .append(statusCodes)
+                   .append(System.lineSeparator());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the template of the URL: the query is removed, numeric ids and encoded paths are replaced
+     * by placeholders (e.g. <code>/groups/{id}/projects</code> for <code>/groups/7/projects?page=2</code>).
+     *
+     * @param  suffixForUrl the suffix of the request URL
+     * @return the template
+     */
+    static String getEndpointTemplate(String suffixForUrl) {
+        if (suffixForUrl == null) {
+            return "";
+        }
+        int queryIndex = suffixForUrl.indexOf('?');
+        String path = queryIndex < 0 ? suffixForUrl : suffixForUrl.substring(0, queryIndex);
+        StringBuilder template = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/');
+            if (isNumber(segment)) {
+                template.append(ID_PLACEHOLDER);
+            } else if (segment.toUpperCase().contains(ENCODED_SLASH)) {
+                template.append(PATH_PLACEHOLDER);
+            } else {
+                template.append(segment);
+            }
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    private static boolean isNumber(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private EndpointMetrics getEndpointMetrics(String method, String suffixForUrl) {
+        String endpoint = method + " " + getEndpointTemplate(suffixForUrl);
+        return _endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+    }
+
+    /**
+     * Metrics of one endpoint. The metrics are updated by I/O threads, so getters return the current values
+     * which can be a little inconsistent with each other.
+     */
+    public static class EndpointMetrics {
+        private final String _endpoint;
+        private final LongAdder _count = new LongAdder();
+        private final LongAdder _errors = new LongAdder();
+        private final LongAdder _retries = new LongAdder();
+        private final LongAdder _bytesIn = new LongAdder();
+        private final LongAdder _bytesOut = new LongAdder();
+        private final LongAdder _totalLatency = new LongAdder();
+        private final AtomicLong _maxLatency = new AtomicLong();
+        private final AtomicLongArray _latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS.length + 1);
+        private final ConcurrentMap<Integer, LongAdder> _statusCodes = new ConcurrentHashMap<>();
+
+        EndpointMetrics(String endpoint) {
+            _endpoint = endpoint;
+        }
+
+        private void record(int responseCode, long latency, long bytesIn, long bytesOut) {
+            _count.increment();
+            if (responseCode == 0 || responseCode >= 400) {
+                _errors.increment();
+            }
+            _bytesIn.add(bytesIn);
+            _bytesOut.add(bytesOut);
+            _totalLatency.add(latency);
+            _maxLatency.accumulateAndGet(latency, Math::max);
+            _latencyHistogram.incrementAndGet(getBucket(latency));
+            _statusCodes.computeIfAbsent(responseCode, code -> new LongAdder()).increment();
+        }
+
+        private int getBucket(long latency) {
+            for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+                if (latency <= LATENCY_BUCKETS[i]) {
+                    return i;
+                }
+            }
+            return LATENCY_BUCKETS.length;
+        }
+
+        /**
+         * Gets the endpoint: the method and the template of the URL (e.g. <code>GET /groups/{id}/projects</code>).
+         *
+         * @return the endpoint
+         */
+        public String getEndpoint() {
+            return _endpoint;
+        }
+
+        public long getCount() {
+            return _count.sum();
+        }
+
+        /**
+         * Gets count of requests which weren't answered or got the error code (4xx, 5xx).
+         *
+         * @return count of errors
+         */
+        public long getErrorsCount() {
+            return _errors.sum();
+        }
+
+        public long getRetriesCount() {
+            return _retries.sum();
+        }
+
+        public long getBytesIn() {
+            return _bytesIn.sum();
+        }
+
+        public long getBytesOut() {
+            return _bytesOut.sum();
+        }
+
+        public long getAverageLatency() {
+            long count = getCount();
+            return count == 0 ? 0 : _totalLatency.sum() / count;
+        }
+
+        public long getMaxLatency() {
+            return _maxLatency.get();
+        }
+
+        /**
+         * Gets the approximate percentile of latencies: the upper bound of the histogram bucket which contains it.
+         * For the last bucket the max latency is returned.
+         *
+         * @param  percentile the percentile from 0 to 1 (e.g. 0.95)
+         * @return the latency in milliseconds
+         */
+        public long getLatencyPercentile(double percentile) {
+            long[] histogram = getLatencyHistogram();
+            long total = 0;
+            for (long count : histogram) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long current = 0;
+            for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+                current += histogram[i];
+                if (current >= rank) {
+                    return Math.min(LATENCY_BUCKETS[i], getMaxLatency());
+                }
+            }
+            return getMaxLatency();
+        }
+
+        /**
+         * Gets counts of requests in the latency buckets (see {@link RequestMetrics#LATENCY_BUCKETS}).
+         *
+         * @return the copy of the histogram
+         */
+        public long[] getLatencyHistogram() {
+            long[] histogram = new long[_latencyHistogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = _latencyHistogram.get(i);
+            }
+            return histogram;
+        }
+
+        /**
+         * Gets counts of responses by their codes (0 if the response wasn't received).
+         *
+         * @return the sorted map
+         */
+        public Map<Integer, Long> getStatusCodes() {
+            Map<Integer, Long> statusCodes = new TreeMap<>();
+            _statusCodes.forEach((code, count) -> statusCodes.put(code, count.sum()));
+            return statusCodes;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.lgc.gitlabtool.git.connections;
+
+/**
+ * Priority of requests to the GitLab.
+ * Interactive requests are started by the user and are sent before background ones (e.g. revalidation of caches).
+ *
+ * The priority is bound to the current thread, so services don't need to pass it through their methods:
+ * <pre>
+ *     RequestPriority.BACKGROUND.runAs(this::refreshLoadProjects);
+ * </pre>
+ */
+public enum RequestPriority {
+
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> _currentPriority = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    /**
+     * Runs the task in the current thread. All requests sent by the task have this priority.
+     *
+     * @param task the task for running
+     */
+    public void runAs(Runnable task) {
+        RequestPriority previous = _currentPriority.get();
+        _currentPriority.set(this);
+        try {
+            task.run();
+        } finally {
+            _currentPriority.set(previous);
+        }
+    }
+
+    /**
+     * Gets priority of requests sent from the current thread.
+     *
+     * @return the priority (by default {@link #INTERACTIVE})
+     */
+    public static RequestPriority current() {
+        return _currentPriority.get();
+    }
+
+}
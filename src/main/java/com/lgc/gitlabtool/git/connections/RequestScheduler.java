@@ -0,0 +1,179 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Schedules requests to the GitLab according to its rate limits.
+ *
+ * It is a token bucket: every request takes a token and tokens are refilled with the rate allowed by the server.
+ * The rate is adapted after every response using the <code>RateLimit-Remaining</code> and <code>RateLimit-Reset</code>
+ * headers. All requests are paused if the server asks it by the <code>Retry-After</code> header or answers 429.
+ *
+ * Background requests don't take the tokens reserved for interactive requests and wait while interactive requests
+ * are waiting.
+ */
+class RequestScheduler {
+
+    static final String RATE_LIMIT_REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET_HEADER = "RateLimit-Reset";
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+    static final int TOO_MANY_REQUESTS_CODE = 429;
+
+    private static final Logger _logger = LogManager.getLogger(RequestScheduler.class);
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final double DEFAULT_RATE_PER_SECOND = 10;
+    private static final long DEFAULT_RETRY_DELAY = 1000;
+    private static final long MAX_WAITING_STEP = 1000;
+    private static final double INTERACTIVE_RESERVE = 0.25; // part of the bucket which is kept for interactive requests
+
+    private final LongSupplier _clock;
+    private final double _capacity;
+    private double _tokens;
+    private double _ratePerMillisecond;
+    private long _lastRefillTime;
+    private long _pausedUntil;
+    private int _waitingInteractiveRequests;
+
+    RequestScheduler() {
+        this(DEFAULT_CAPACITY, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates the scheduler with full bucket
+     *
+     * @param capacity the max count of requests which can be sent without waiting
+     * @param clock    the source of the current time in milliseconds
+     */
+    RequestScheduler(int capacity, LongSupplier clock) {
+        _clock = clock;
+        _capacity = capacity;
+        _tokens = capacity;
+        _ratePerMillisecond = DEFAULT_RATE_PER_SECOND / 1000;
+        _lastRefillTime = clock.getAsLong();
+    }
+
+    /**
+     * Waits until the request with the priority can be sent.
+     *
+     * @param  priority the priority of the request
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    synchronized void acquire(RequestPriority priority) throws InterruptedException {
+        boolean isInteractive = priority != RequestPriority.BACKGROUND;
+        if (isInteractive) {
+            _waitingInteractiveRequests++;
+        }
+        try {
+            long delay;
+            while ((delay = tryAcquire(priority)) > 0) {
+                wait(Math.min(delay, MAX_WAITING_STEP));
+            }
+        } finally {
+            if (isInteractive) {
+                _waitingInteractiveRequests--;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Takes a token for the request if it is available.
+     *
+     * @param  priority the priority of the request
+     * @return 0 if the request can be sent, otherwise the time in milliseconds after which it makes sense to try again
+     */
+    synchronized long tryAcquire(RequestPriority priority) {
+        long now = _clock.getAsLong();
+        refill(now);
+        if (now < _pausedUntil) {
+            return _pausedUntil - now;
+        }
+        double requiredTokens = 1;
+        if (priority == RequestPriority.BACKGROUND) {
+            if (_waitingInteractiveRequests > 0) {
+                return MAX_WAITING_STEP;
+            }
+            requiredTokens = Math.min(_capacity, requiredTokens + _capacity * INTERACTIVE_RESERVE);
+        }
+        if (_tokens >= requiredTokens) {
+            _tokens--;
+            return 0;
+        }
+        return getTimeForTokens(requiredTokens - _tokens);
+    }
+
+    /**
+     * Adapts the scheduler to the rate limit headers of the response.
+     *
+     * @param responseCode the code of the response
+     * @param headers      the header lines of the response
+     */
+    synchronized void onResponse(int responseCode, Map<String, List<String>> headers) {
+        long now = _clock.getAsLong();
+        refill(now);
+        Long remaining = getHeaderValue(headers, RATE_LIMIT_REMAINING_HEADER);
+        Long reset = getHeaderValue(headers, RATE_LIMIT_RESET_HEADER);
+        if (remaining != null) {
+            _tokens = Math.min(_tokens, remaining);
+            if (reset != null) {
+                long resetTime = reset * 1000;
+                if (remaining <= 0) {
+                    pause(resetTime, now);
+                } else if (resetTime > now) {
+                    _ratePerMillisecond = (double) remaining / (resetTime - now);
+                }
+            }
+        }
+        Long retryAfter = getHeaderValue(headers, RETRY_AFTER_HEADER);
+        if (retryAfter != null) {
+            pause(now + retryAfter * 1000, now);
+        } else if (responseCode == TOO_MANY_REQUESTS_CODE && _pausedUntil <= now) {
+            pause(now + DEFAULT_RETRY_DELAY, now);
+        }
+        notifyAll();
+    }
+
+    private void pause(long pausedUntil, long now) {
+        if (pausedUntil > now && pausedUntil > _pausedUntil) {
+            _pausedUntil = pausedUntil;
+            _tokens = 0;
+            _logger.info("Requests to the GitLab are paused for " + (pausedUntil - now) + " ms");
+        }
+    }
+
+    private void refill(long now) {
+        if (now > _lastRefillTime) {
+            _tokens = Math.min(_capacity, _tokens + (now - _lastRefillTime) * _ratePerMillisecond);
+            _lastRefillTime = now;
+        }
+    }
+
+    private long getTimeForTokens(double tokens) {
+        if (_ratePerMillisecond <= 0) {
+            return MAX_WAITING_STEP;
+        }
+        return Math.max(1, (long) Math.ceil(tokens / _ratePerMillisecond));
+    }
+
+    private Long getHeaderValue(Map<String, List<String>> headers, String name) {
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null && !entry.getValue().isEmpty()) {
+                try {
+                    return Long.parseLong(entry.getValue().get(0).trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Handler which consumes the body of a response directly from the connection.
+ * It allows processing big responses without reading all body into a string.
+ */
+@FunctionalInterface
+public interface ResponseBodyHandler {
+
+    /**
+     * Reads the body of the response. The reader is closed after the method returns.
+     *
+     * @param  body the reader of the response body (UTF-8)
+     * @throws IOException if an I/O error occurs while reading the body
+     */
+    void handle(Reader body) throws IOException;
+
+}
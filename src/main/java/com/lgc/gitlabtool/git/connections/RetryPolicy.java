@@ -0,0 +1,90 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy of repeating failed idempotent requests to the GitLab.
+ *
+ * A request is repeated if the server is temporarily unavailable (502, 503, 504), asks to slow down (429)
+ * or the response wasn't received at all (e.g. read timeout). Delays grow exponentially and have a random
+ * jitter ("full jitter"), so requests of different clients don't come back at the same moment.
+ */
+public class RetryPolicy {
+
+    /** 3 attempts, delays up to 0.5 s and 1 s, but not more than 10 s */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 500, 10_000);
+
+    /** Requests aren't repeated */
+    public static final RetryPolicy NO_RETRIES = new RetryPolicy(1, 0, 0);
+
+    private static final int NO_RESPONSE_CODE = 0;
+    private static final int TOO_MANY_REQUESTS_CODE = 429;
+    private static final int BAD_GATEWAY_CODE = 502;
+    private static final int SERVICE_UNAVAILABLE_CODE = 503;
+    private static final int GATEWAY_TIMEOUT_CODE = 504;
+
+    private final int _maxAttempts;
+    private final long _initialDelay;
+    private final long _maxDelay;
+
+    /**
+     * Creates the policy
+     *
+     * @param maxAttempts  the max count of attempts (including the first one), must be positive
+     * @param initialDelay the max delay in milliseconds before the second attempt
+     * @param maxDelay     the max delay in milliseconds between attempts
+     */
+    public RetryPolicy(int maxAttempts, long initialDelay, long maxDelay) {
+        if (maxAttempts < 1 || initialDelay < 0 || maxDelay < initialDelay) {
+            throw new IllegalArgumentException("Invalid parameters of the retry policy");
+        }
+        _maxAttempts = maxAttempts;
+        _initialDelay = initialDelay;
+        _maxDelay = maxDelay;
+    }
+
+    public int getMaxAttempts() {
+        return _maxAttempts;
+    }
+
+    /**
+     * Checks that the request with the response code can be repeated.
+     *
+     * @param  attempt      the number of the finished attempt (from 1)
+     * @param  responseCode the code of the response or 0 if the response wasn't received
+     * @return <code>true</code> if the request should be repeated, otherwise <code>false</code>
+     */
+    public boolean shouldRetry(int attempt, int responseCode) {
+        return attempt < _maxAttempts && isTemporaryFailure(responseCode);
+    }
+
+    /**
+     * Gets the random delay before the next attempt.
+     *
+     * @param  attempt the number of the finished attempt (from 1)
+     * @return the delay in milliseconds
+     */
+    public long getDelay(int attempt) {
+        long maxDelay = _initialDelay;
+        for (int i = 1; i < attempt && maxDelay < _maxDelay; i++) {
+            maxDelay *= 2;
+        }
+        maxDelay = Math.min(maxDelay, _maxDelay);
+        return maxDelay <= 0 ? 0 : ThreadLocalRandom.current().nextLong(maxDelay + 1);
+    }
+
+    /**
+     * Checks that the code means temporary unavailability of the server.
+     *
+     * @param  responseCode the code of the response or 0 if the response wasn't received
+     * @return <code>true</code> if the server is temporarily unavailable, otherwise <code>false</code>
+     */
+    public static boolean isServerFailure(int responseCode) {
+        return responseCode == NO_RESPONSE_CODE || responseCode == BAD_GATEWAY_CODE
+                || responseCode == SERVICE_UNAVAILABLE_CODE || responseCode == GATEWAY_TIMEOUT_CODE;
+    }
+
+    private boolean isTemporaryFailure(int responseCode) {
+        return isServerFailure(responseCode) || responseCode == TOO_MANY_REQUESTS_CODE;
+    }
+}
@@ -0,0 +1,149 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Connector which sends requests by the connector of the current server session.
+ *
+ * The session is taken once for every request, so a request which was started before switching the server
+ * is completed by the connector of its own server.
+ */
+class SessionRESTConnector implements RESTConnector {
+
+    /** Connector without the server, it is used until the first session is opened */
+    private static final RESTConnector NO_SESSION = new NoSessionRESTConnector();
+
+    private final Function<String, RESTConnector> _sessionProvider;
+    private volatile RESTConnector _currentSession = NO_SESSION;
+
+    SessionRESTConnector(Function<String, RESTConnector> sessionProvider) {
+        _sessionProvider = sessionProvider;
+    }
+
+    @Override
+    public HttpResponseHolder sendPost(String suffixForUrl, Map<String, String> params, Map<String, String> header) {
+        return _currentSession.sendPost(suffixForUrl, params, header);
+    }
+
+    @Override
+    public HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header) {
+        return _currentSession.sendGet(suffixForUrl, params, header);
+    }
+
+    @Override
+    public HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header,
+                                      ResponseBodyHandler bodyHandler) {
+        return _currentSession.sendGet(suffixForUrl, params, header, bodyHandler);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseHolder> sendPostAsync(String suffixForUrl, Map<String, String> params,
+                                                               Map<String, String> header) {
+        return _currentSession.sendPostAsync(suffixForUrl, params, header);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                              Map<String, String> header) {
+        return _currentSession.sendGetAsync(suffixForUrl, params, header);
+    }
+
+    @Override
+    public CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                              Map<String, String> header,
+                                                              ResponseBodyHandler bodyHandler) {
+        return _currentSession.sendGetAsync(suffixForUrl, params, header, bodyHandler);
+    }
+
+    /**
+     * Switches the current session to the server. Other sessions aren't changed.
+     *
+     * @param urlMainPart the main part of the server URL
+     */
+    @Override
+    public void setUrlMainPart(String urlMainPart) {
+        RESTConnector session = _sessionProvider.apply(urlMainPart);
+        if (session != null) {
+            _currentSession = session;
+        }
+    }
+
+    @Override
+    public String getUrlMainPart() {
+        return _currentSession.getUrlMainPart();
+    }
+
+    @Override
+    public RequestMetrics getMetrics() {
+        return _currentSession.getMetrics();
+    }
+
+    /**
+     * Connector which doesn't send requests: every request is failed at once with an empty response.
+     * It doesn't have I/O threads, so it costs nothing until a session is opened.
+     */
+    private static class NoSessionRESTConnector implements RESTConnector {
+
+        private static final String NO_SESSION_MESSAGE = "Server session is not opened";
+
+        private final RequestMetrics _metrics = new RequestMetrics();
+
+        @Override
+        public HttpResponseHolder sendPost(String suffixForUrl, Map<String, String> params,
+                                           Map<String, String> header) {
+            return getResponse();
+        }
+
+        @Override
+        public HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params,
+                                          Map<String, String> header) {
+            return getResponse();
+        }
+
+        @Override
+        public HttpResponseHolder sendGet(String suffixForUrl, Map<String, String> params, Map<String, String> header,
+                                          ResponseBodyHandler bodyHandler) {
+            return getResponse();
+        }
+
+        @Override
+        public CompletableFuture<HttpResponseHolder> sendPostAsync(String suffixForUrl, Map<String, String> params,
+                                                                   Map<String, String> header) {
+            return CompletableFuture.completedFuture(getResponse());
+        }
+
+        @Override
+        public CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                                  Map<String, String> header) {
+            return CompletableFuture.completedFuture(getResponse());
+        }
+
+        @Override
+        public CompletableFuture<HttpResponseHolder> sendGetAsync(String suffixForUrl, Map<String, String> params,
+                                                                  Map<String, String> header,
+                                                                  ResponseBodyHandler bodyHandler) {
+            return CompletableFuture.completedFuture(getResponse());
+        }
+
+        @Override
+        public void setUrlMainPart(String urlMainPart) {}
+
+        @Override
+        public String getUrlMainPart() {
+            return null;
+        }
+
+        @Override
+        public RequestMetrics getMetrics() {
+            return _metrics;
+        }
+
+        private HttpResponseHolder getResponse() {
+            HttpResponseHolder responseHolder = new HttpResponseHolder();
+            responseHolder.setResponseMessage(NO_SESSION_MESSAGE);
+            return responseHolder;
+        }
+    }
+}
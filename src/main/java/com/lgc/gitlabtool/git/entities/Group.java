@@ -50,6 +50,21 @@ public class Group {
 
     public Group(){}
 
+    /**
+     * Creates a copy of the group. The copy shares subgroups with the original group.
+     *
+     * @param group the group to copy
+     */
+    public Group(Group group) {
+        _id = group._id;
+        _parentId = group._parentId;
+        _name = group._name;
+        _fullPath = group._fullPath;
+        _path = group._path;
+        _isCloned = group._isCloned;
+        _subGroups.addAll(group._subGroups);
+    }
+
     /**
      * Gets status of clone
      *
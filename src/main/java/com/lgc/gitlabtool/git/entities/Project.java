@@ -33,11 +33,29 @@ public class Project implements Serializable {
     @SerializedName("path_with_namespace")
     private String _pathWithNamespace;
 
+    // local data is updated by background threads and read by the UI thread
     /** Path to the cloned project **/
-    private String _path;
-    private boolean _isCloned;
-    private ProjectType _type;
-    private ProjectStatus _projectStatus = new ProjectStatus();
+    private volatile String _path;
+    private volatile boolean _isCloned;
+    private volatile ProjectType _type;
+    private volatile ProjectStatus _projectStatus = new ProjectStatus();
+
+    public Project() {}
+
+    /**
+     * Creates the project with data from the GitLab
+     *
+     * @param id                the id of the project
+     * @param name              the name of the project
+     * @param httpUrlToRepo     the URL of the repository
+     * @param pathWithNamespace the path with namespace (path includes all parent groups)
+     */
+    public Project(int id, String name, String httpUrlToRepo, String pathWithNamespace) {
+        _id = id;
+        _name = name;
+        _httpUrlToRepo = httpUrlToRepo;
+        _pathWithNamespace = pathWithNamespace;
+    }
 
     /**
      * Sets a project type
@@ -133,6 +151,15 @@ public class Project implements Serializable {
         return _name;
     }
 
+    /**
+     * Gets project name as it is on the GitLab (see {@link #getName()}).
+     *
+     * @return project name
+     */
+    public String getOriginalName() {
+        return _name;
+    }
+
     public String getHttpUrlToRepo() {
         return _httpUrlToRepo;
     }
@@ -3,11 +3,16 @@ package com.lgc.gitlabtool.git.entities;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
 import com.lgc.gitlabtool.git.listeners.stateListeners.ApplicationState;
 import com.lgc.gitlabtool.git.services.GroupService;
+import com.lgc.gitlabtool.git.services.ProgressListener;
 import com.lgc.gitlabtool.git.services.ProjectService;
 import com.lgc.gitlabtool.git.services.ServiceProvider;
 import com.lgc.gitlabtool.git.services.StateService;
@@ -16,10 +21,16 @@ import com.lgc.gitlabtool.git.services.StateService;
  * Keeps data about projects of current group in the main window.
  * Allows reloading projects and getting them or their ids.
  *
+ * The data is published as immutable {@link ProjectListSnapshot} snapshots through an atomic reference.
+ * Readers (for example, the FX thread) get a consistent view without locks, loading and refreshing build
+ * the next version in the background and publish it only if the list wasn't changed (or reset) meanwhile.
+ *
  * @author Lyudmila Lyska
  */
 public class ProjectList {
 
+    private static final Logger _logger = LogManager.getLogger(ProjectList.class);
+
     private static final GroupService _groupService = ServiceProvider.getInstance().getService(GroupService.class);
     private static final ProjectService _projectService = ServiceProvider.getInstance().getService(ProjectService.class);
     private static final StateService _stateService = ServiceProvider.getInstance().getService(StateService.class);
@@ -28,9 +39,9 @@ public class ProjectList {
      * We lock create new instance if _isLockCreating is <code>true</code>, we return exist instance.
      * We can use one ProjectList for current group.
      */
-    private static boolean _isLockCreating = false;
-    private static Group _currentGroup;
-    private static List<Project> _projects = new ArrayList<>();
+    private static final AtomicBoolean _isLockCreating = new AtomicBoolean();
+    private static final AtomicReference<ProjectListSnapshot> _snapshot =
+            new AtomicReference<>(ProjectListSnapshot.EMPTY);
     private static ProjectList _instance;
 
     static {
@@ -45,14 +56,57 @@ public class ProjectList {
      * @return instance
      */
     public static ProjectList get(Group group) {
-        if (!_isLockCreating && group != null) {
-            _isLockCreating = true;
-            _currentGroup = group;
-            _projects = loadProjects();
+        return get(group, null);
+    }
+
+    /**
+     * Gets instance of ProjectList.
+     *
+     * If projects are loaded from the GitLab the method returns as soon as the list of projects is got,
+     * types and statuses of cloned projects are computed in the background.
+     *
+     * @param group the current group.
+     *        The group can be null if ProjectList have already created and _isLockCreating is <code>true</code>.
+     * @param loadingListener the listener which gets <code>onSuccess(project)</code> when the status of a project
+     *        is computed and <code>onFinish(projects, message)</code> when all projects are loaded.
+     *        If it is <code>null</code> the method waits for statuses of all projects.
+     * @return instance
+     */
+    public static ProjectList get(Group group, ProgressListener loadingListener) {
+        if (group != null && _isLockCreating.compareAndSet(false, true)) {
+            ProjectListSnapshot groupSnapshot = publish(_snapshot.get(), null, group, null, false);
+            List<Project> cachedProjects = (List<Project>) _projectService.loadCachedProjects(group);
+            if (cachedProjects != null) {
+                publish(groupSnapshot, "loading", group, cachedProjects, true);
+            } else {
+                Group reloadedGroup = _groupService.reloadGroup(group);
+                List<Project> projects = loadProjects(reloadedGroup, loadingListener);
+                publish(groupSnapshot, "loading", reloadedGroup, projects, false);
+            }
         }
         return _instance;
     }
 
+    /**
+     * Gets the current snapshot of the list. All data of the snapshot is consistent.
+     *
+     * @return the snapshot
+     */
+    public ProjectListSnapshot getSnapshot() {
+        return _snapshot.get();
+    }
+
+    /**
+     * Checks that projects were loaded from the local metadata cache.
+     * In this case projects must be revalidated by the {@link #refreshLoadProjects()} method.
+     *
+     * @return <code>true</code> if projects were loaded from the cache and weren't refreshed yet,
+     *         otherwise <code>false</code>.
+     */
+    public boolean isLoadedFromCache() {
+        return _snapshot.get().isLoadedFromCache();
+    }
+
     /**
      * Gets current group
      *
@@ -60,7 +114,7 @@ public class ProjectList {
      * If current group is <code>null</code> then a group isn't loaded (an user is on the group window).
      */
     public Group getCurrentGroup() {
-        return _currentGroup;
+        return _snapshot.get().getGroup();
     }
 
     /**
@@ -69,19 +123,34 @@ public class ProjectList {
      * @return a unmodifiable list of project or <code>null</code> if projects weren't loaded.
      */
     public List<Project> getProjects() {
-        return _projects == null ? null : Collections.unmodifiableList(_projects);
+        return _snapshot.get().getProjects();
     }
 
     /**
      * Refreshes projects. Activates and deactivates ApplicationState.REFRESH_PROJECTS.
+     *
+     * The list of projects is requested from the GitLab and merged into the loaded list,
+     * so unchanged projects keep their statuses and types. All projects are reloaded if they were loaded
+     * from the cache.
      */
     public void refreshLoadProjects() {
-        if (_currentGroup != null) {
-            List<Project> loadedProject = loadProjects();
-            // If we cannot refresh projects we'll work with projects which were loaded at last time.
-            if (_projects != null && loadedProject != null) {
-                _projects = loadedProject;
-            }
+        ProjectListSnapshot snapshot = _snapshot.get();
+        Group group = snapshot.getGroup();
+        if (group == null) {
+            return;
+        }
+        _groupService.invalidateGroups();
+        Group reloadedGroup = _groupService.reloadGroup(group);
+        List<Project> projects = snapshot.getProjects();
+        // projects of the cache don't have actual data, so they are loaded again instead of merging
+        List<Project> loadedProject = (List<Project>) (snapshot.isLoadedFromCache()
+                ? _projectService.loadProjects(reloadedGroup)
+                : _projectService.refreshProjects(reloadedGroup, projects));
+        // If we cannot refresh projects we'll work with projects which were loaded at last time.
+        if (projects != null && loadedProject != null) {
+            publish(snapshot, "refreshing", reloadedGroup, loadedProject, false);
+        } else {
+            publish(snapshot, "refreshing", reloadedGroup, projects, snapshot.isLoadedFromCache());
         }
     }
 
@@ -96,35 +165,51 @@ public class ProjectList {
             return Collections.emptyList();
         }
 
-        List<Project> newList = new ArrayList<>();
+        ProjectListSnapshot snapshot = _snapshot.get();
+        List<Project> newList = new ArrayList<>(ids.size());
         for (Integer id : ids) {
-            Optional<Project> pr = _projects.parallelStream()
-                                            .filter(project -> project.getId() == id)
-                                            .findFirst();
-            pr.ifPresent(newList::add);
+            Project project = id == null ? null : snapshot.getProjectById(id);
+            if (project != null) {
+                newList.add(project);
+            }
         }
 
         return Collections.unmodifiableList(newList);
     }
 
+    /**
+     * Gets project by id.
+     *
+     * @param id the id of project
+     * @return the project or <code>null</code> if the current group doesn't have the project
+     */
+    public Project getProjectById(int id) {
+        return _snapshot.get().getProjectById(id);
+    }
+
     /**
      * Gets cloned projects
      * @return projects
      */
     public List<Project> getClonedProjects() {
-        return _projects.stream()
-                        .filter(Project::isCloned)
-                        .collect(Collectors.toList());
+        List<Project> projects = _snapshot.get().getProjects();
+        if (projects == null) {
+            return Collections.emptyList();
+        }
+        return projects.stream()
+                       .filter(Project::isCloned)
+                       .collect(Collectors.toList());
     }
 
     /**
      * Resets ProjectList data. After this method _isLockCreating is <code>false</code>.
      * This allows create new instance of ProjectList for another group.
+     *
+     * Loading and refreshing which are in progress don't publish their results after the reset.
      */
     public void reset() {
-        _isLockCreating = false;
-        _currentGroup = null;
-        _projects = null;
+        ProjectListSnapshot.publishEmpty(_snapshot);
+        _isLockCreating.set(false);
     }
 
     /**
@@ -133,25 +218,57 @@ public class ProjectList {
      * @param projects projects to update statuses
      */
     public void updateProjectStatuses(List<Project> projects) {
+        List<Project> currentProjects = _snapshot.get().getProjects();
+        if (currentProjects == null) {
+            return;
+        }
         try {
             _stateService.stateON(ApplicationState.UPDATE_PROJECT_STATUSES);
-            _projects.parallelStream()
-                     .filter(projects::contains)
-                     .forEach(_projectService::updateProjectStatus);
+            currentProjects.parallelStream()
+                           .filter(projects::contains)
+                           .forEach(_projectService::updateProjectStatus);
         } finally {
             _stateService.stateOFF(ApplicationState.UPDATE_PROJECT_STATUSES);
         }
     }
 
     /**
-     * Updates project statuses for all projects.
+     * Marks statuses of all projects as outdated. Statuses are computed in the background,
+     * statuses of visible and selected projects are requested by the UI and are computed first.
+     *
+     * @param statusListener the listener which gets <code>onSuccess(project)</code> when the status
+     *                       of a project is computed
      */
-    public void updateProjectStatuses() {
-        _projectService.updateProjectStatuses(_projects);
+    public void updateProjectStatuses(ProgressListener statusListener) {
+        List<Project> projects = _snapshot.get().getProjects();
+        if (projects != null) {
+            _projectService.invalidateProjectStatuses(projects, statusListener);
+        }
+    }
+
+    /**
+     * Publishes the next version of the list if the current version is the expected one.
+     *
+     * @param  expected  the snapshot which the next version is built from
+     * @param  operation the name of the operation for the log (<code>null</code> if it isn't logged)
+     * @return the published snapshot or the current snapshot if the list was changed by another thread
+     */
+    private static ProjectListSnapshot publish(ProjectListSnapshot expected, String operation, Group group,
+                                               List<Project> projects, boolean isLoadedFromCache) {
+        ProjectListSnapshot next = ProjectListSnapshot.publishNext(_snapshot, expected, group, projects,
+                isLoadedFromCache);
+        if (next != null) {
+            return next;
+        }
+        if (operation != null) {
+            _logger.info("Projects were changed while " + operation + ", the result of "
+                    + operation + " is skipped (version " + expected.getVersion() + ")");
+        }
+        return _snapshot.get();
     }
 
-    private static List<Project> loadProjects() {
-        _currentGroup = _groupService.reloadGroup(_currentGroup);
-        return (List<Project>) _projectService.loadProjects(_currentGroup);
+    private static List<Project> loadProjects(Group group, ProgressListener loadingListener) {
+        return (List<Project>) (loadingListener == null ? _projectService.loadProjects(group)
+                                                        : _projectService.loadProjects(group, loadingListener));
     }
 }
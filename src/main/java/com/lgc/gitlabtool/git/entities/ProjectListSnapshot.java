@@ -0,0 +1,124 @@
+package com.lgc.gitlabtool.git.entities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable version of the {@link ProjectList} data: the current group, its projects and the index of projects.
+ *
+ * Every change of the list publishes a new snapshot with the next version number, so readers get a consistent
+ * view without locks. Projects themselves aren't copied: their local data (path, type and status) is updated
+ * in place and published by volatile fields of {@link Project}.
+ */
+public final class ProjectListSnapshot {
+
+    static final ProjectListSnapshot EMPTY = new ProjectListSnapshot(0, null, null, false);
+
+    private final long _version;
+    private final Group _group;
+    private final List<Project> _projects;
+    private final ProjectsIdIndex _projectsById;
+    private final boolean _isLoadedFromCache;
+
+    private ProjectListSnapshot(long version, Group group, List<Project> projects, boolean isLoadedFromCache) {
+        _version = version;
+        _group = group;
+        _projects = projects == null ? null : Collections.unmodifiableList(new ArrayList<>(projects));
+        _projectsById = projects == null ? ProjectsIdIndex.empty() : new ProjectsIdIndex(_projects);
+        _isLoadedFromCache = isLoadedFromCache;
+    }
+
+    /**
+     * Builds the next version of the snapshot
+     *
+     * @param  group             the current group
+     * @param  projects          the projects of the group (<code>null</code> if projects weren't loaded)
+     * @param  isLoadedFromCache <code>true</code> if projects were loaded from the local metadata cache
+     * @return the new snapshot
+     */
+    ProjectListSnapshot next(Group group, List<Project> projects, boolean isLoadedFromCache) {
+        return new ProjectListSnapshot(_version + 1, group, projects, isLoadedFromCache);
+    }
+
+    /**
+     * Publishes the next version of the snapshot if the current snapshot is the expected one.
+     * So a loading or refreshing which was started from the expected snapshot doesn't overwrite changes
+     * (for example, a reset) which were published meanwhile.
+     *
+     * @param  current           the reference to the current snapshot
+     * @param  expected          the snapshot which the next version is built from
+     * @param  group             the current group
+     * @param  projects          the projects of the group (<code>null</code> if projects weren't loaded)
+     * @param  isLoadedFromCache <code>true</code> if projects were loaded from the local metadata cache
+     * @return the published snapshot or <code>null</code> if the current snapshot isn't the expected one
+     */
+    static ProjectListSnapshot publishNext(AtomicReference<ProjectListSnapshot> current, ProjectListSnapshot expected,
+                                           Group group, List<Project> projects, boolean isLoadedFromCache) {
+        ProjectListSnapshot next = expected.next(group, projects, isLoadedFromCache);
+        return current.compareAndSet(expected, next) ? next : null;
+    }
+
+    /**
+     * Publishes the next version of the snapshot without a group and projects whatever the current snapshot is.
+     *
+     * @param  current the reference to the current snapshot
+     * @return the published snapshot
+     */
+    static ProjectListSnapshot publishEmpty(AtomicReference<ProjectListSnapshot> current) {
+        ProjectListSnapshot snapshot;
+        ProjectListSnapshot next;
+        do {
+            snapshot = current.get();
+            next = snapshot.next(null, null, false);
+        } while (!current.compareAndSet(snapshot, next));
+        return next;
+    }
+
+    /**
+     * Gets the version of the snapshot. Every next snapshot has greater version.
+     *
+     * @return the version
+     */
+    public long getVersion() {
+        return _version;
+    }
+
+    /**
+     * Gets the current group
+     *
+     * @return the group or <code>null</code> if a group isn't loaded
+     */
+    public Group getGroup() {
+        return _group;
+    }
+
+    /**
+     * Gets projects of the group
+     *
+     * @return an unmodifiable list of projects or <code>null</code> if projects weren't loaded
+     */
+    public List<Project> getProjects() {
+        return _projects;
+    }
+
+    /**
+     * Gets project by id
+     *
+     * @param  id the id of the project
+     * @return the project or <code>null</code> if the snapshot doesn't have the project
+     */
+    public Project getProjectById(int id) {
+        return _projectsById.get(id);
+    }
+
+    /**
+     * Checks that projects were loaded from the local metadata cache and weren't revalidated yet
+     *
+     * @return <code>true</code> if projects were loaded from the cache, otherwise <code>false</code>
+     */
+    public boolean isLoadedFromCache() {
+        return _isLoadedFromCache;
+    }
+}
@@ -1,12 +1,13 @@
 package com.lgc.gitlabtool.git.entities;
 
 import java.io.Serializable;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 
+import com.lgc.gitlabtool.git.jgit.ChangedFileStatus;
+import com.lgc.gitlabtool.git.util.StringPool;
+
 /**
  * Project status keeps all need info about Git status.
  * For example, we can get:
@@ -15,6 +16,8 @@ import org.apache.commons.lang.StringUtils;
  *      - check if projects has changes or conflicts
  *      - etc
  *
+ * Changed files are kept in the compact {@link ProjectStatusFiles} list, sets of files are decoded on demand.
+ *
  * @author Lyudmila Lyska
  */
 public class ProjectStatus implements Serializable {
@@ -25,13 +28,7 @@ public class ProjectStatus implements Serializable {
     private int _behindIndex;
     private String _currentBranch;
     private String _trackingBranch;
-    private Set<String> _conflictedFiles;
-    private Set<String> _untrackedFiles;
-    private Set<String> _modifiedFiles;
-    private Set<String> _changedFiles;
-    private Set<String> _addedFiles;
-    private Set<String> _removedFiles;
-    private Set<String> _missingFiles;
+    private ProjectStatusFiles _files;
 
     /**
      * Constructs a ProjectStatus with default parameters.
@@ -88,8 +85,7 @@ public class ProjectStatus implements Serializable {
      * @param currentBranch the branch name
      */
     public ProjectStatus(boolean hasChanges, int aheadIndex, int behindIndex, String currentBranch) {
-        this(hasChanges, aheadIndex, behindIndex, currentBranch, null, new HashSet<>(), new HashSet<>(),
-                new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>());
+        this(hasChanges, aheadIndex, behindIndex, currentBranch, null, ProjectStatusFiles.EMPTY);
     }
 
     /**
@@ -111,18 +107,35 @@ public class ProjectStatus implements Serializable {
                          String trackingBranch, Set<String> conflicting, Set<String> untrackedFiles,
                          Set<String> changedFiles, Set<String> addedFiles, Set<String> removedFiles,
                          Set<String> missingFiles, Set<String> modifiedFiles) {
+        this(hasChanges, aheadIndex, behindIndex, currentBranch, trackingBranch, new ProjectStatusFiles.Builder()
+                .add(ChangedFileStatus.CONFLICTING, conflicting)
+                .add(ChangedFileStatus.UNTRACKED, untrackedFiles)
+                .add(ChangedFileStatus.CHANGED, changedFiles)
+                .add(ChangedFileStatus.ADDED, addedFiles)
+                .add(ChangedFileStatus.REMOVED, removedFiles)
+                .add(ChangedFileStatus.MISSING, missingFiles)
+                .add(ChangedFileStatus.MODIFIED, modifiedFiles)
+                .build());
+    }
+
+    /**
+     * Constructs a ProjectStatus with all parameters.
+     *
+     * @param hasChanges     <code>true</code> if the project has changes <code>false</code> otherwise.
+     * @param aheadIndex     the number of commits ahead index
+     * @param behindIndex    the number of commits behind index
+     * @param currentBranch  the current branch name
+     * @param trackingBranch the tracking branch name
+     * @param files          the changed files
+     */
+    public ProjectStatus(boolean hasChanges, int aheadIndex, int behindIndex, String currentBranch,
+                         String trackingBranch, ProjectStatusFiles files) {
         setHasChanges(hasChanges);
         setAheadIndex(aheadIndex);
         setBehindIndex(behindIndex);
         setCurrentBranch(currentBranch);
         setTrackingBranch(trackingBranch);
-        setConflictedFiles(conflicting);
-        setUntrackedFiles(untrackedFiles);
-        setChangedFiles(changedFiles);
-        setRemovedFiles(removedFiles);
-        setMissingFiles(missingFiles);
-        setAddedFiles(addedFiles);
-        setModifiedFiles(modifiedFiles);
+        _files = files == null ? ProjectStatusFiles.EMPTY : files;
     }
 
     /**
@@ -131,7 +144,7 @@ public class ProjectStatus implements Serializable {
      * @return <code>true</code> if the project has conflicts <code>false</code> otherwise.
      */
     public boolean hasConflicts() {
-        return !_conflictedFiles.isEmpty();
+        return getFiles().getCount(ChangedFileStatus.CONFLICTING) > 0;
     }
 
     /**
@@ -149,7 +162,7 @@ public class ProjectStatus implements Serializable {
      * @return <code>true</code> if the project has untracked files <code>false</code> otherwise.
      */
     public boolean hasNewUntrackedFiles() {
-        return !_untrackedFiles.isEmpty();
+        return getFiles().getCount(ChangedFileStatus.UNTRACKED) > 0;
     }
 
     /**
@@ -191,72 +204,82 @@ public class ProjectStatus implements Serializable {
     /**
      * Gets set of files which have conflicts.
      *
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getConflictedFiles() {
-        return Collections.unmodifiableSet(_conflictedFiles);
+        return getFiles().getPaths(ChangedFileStatus.CONFLICTING);
     }
 
     /**
      * Gets set of files which don't add to index (new files).
      *
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getUntrackedFiles() {
-        return Collections.unmodifiableSet(_untrackedFiles);
+        return getFiles().getPaths(ChangedFileStatus.UNTRACKED);
     }
 
     /**
      * Gets changed files which are located in staging.
 
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getChangedFiles() {
-        return Collections.unmodifiableSet(_changedFiles);
+        return getFiles().getPaths(ChangedFileStatus.CHANGED);
     }
 
     /**
      * Gets removed files (deleted files which were added in staging)
      *
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getRemovedFiles() {
-        return Collections.unmodifiableSet(_removedFiles);
+        return getFiles().getPaths(ChangedFileStatus.REMOVED);
     }
 
     /**
      * Gets files which were deleted from local disk but haven't added to staging yet
      *
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getMissingFiles() {
-        return Collections.unmodifiableSet(_missingFiles);
+        return getFiles().getPaths(ChangedFileStatus.MISSING);
     }
 
     /**
      * Gets modifies files. It is files which were changed but haven't added to staging yet
      *
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getModifiedFiles() {
-        return Collections.unmodifiableSet(_modifiedFiles);
+        return getFiles().getPaths(ChangedFileStatus.MODIFIED);
     }
 
     /**
      * Gets new files which were added to staging
      *
-     * @return a unmodifiable set of files
+     * @return a unmodifiable set of files (it is decoded from the compact list on every call)
      */
     public Set<String> getAddedFiles() {
-        return Collections.unmodifiableSet(_addedFiles);
+        return getFiles().getPaths(ChangedFileStatus.ADDED);
+    }
+
+    /**
+     * Gets changed files of the project.
+     *
+     * @return the compact list of files
+     */
+    public ProjectStatusFiles getFiles() {
+        // statuses which were saved before files were kept in the compact list don't have files
+        return _files == null ? ProjectStatusFiles.EMPTY : _files;
     }
 
     private void setCurrentBranch(String currentBranch) {
-        _currentBranch = currentBranch == null ? StringUtils.EMPTY : currentBranch;
+        _currentBranch = currentBranch == null ? StringUtils.EMPTY : StringPool.intern(currentBranch);
     }
 
     private void setTrackingBranch(String trackingBranch) {
-        _trackingBranch = trackingBranch == null ? StringUtils.EMPTY : trackingBranch;
+        _trackingBranch = trackingBranch == null ? StringUtils.EMPTY : StringPool.intern(trackingBranch);
     }
 
     private void setHasChanges(boolean hasChanges) {
@@ -271,32 +294,4 @@ public class ProjectStatus implements Serializable {
         _behindIndex = behindIndex < 0 ? 0 : behindIndex;
     }
 
-    private void setUntrackedFiles(Set<String> uncommittedChanges) {
-        _untrackedFiles = new HashSet<>(uncommittedChanges);
-    }
-
-    private void setModifiedFiles(Set<String> modifiedFiles) {
-        _modifiedFiles = new HashSet<>(modifiedFiles);
-    }
-
-    private void setRemovedFiles(Set<String> removedFiles) {
-        _removedFiles = new HashSet<>(removedFiles);
-    }
-
-    private void setMissingFiles(Set<String> missingFiles) {
-        _missingFiles = new HashSet<>(missingFiles);
-    }
-
-    private void setChangedFiles(Set<String> changedFiles) {
-        _changedFiles = new HashSet<>(changedFiles);
-    }
-
-    private void setConflictedFiles(Set<String> conflictingChanges) {
-        _conflictedFiles = new HashSet<>(conflictingChanges);
-    }
-
-    private void setAddedFiles(Set<String> addedFiles) {
-        _addedFiles = new HashSet<>(addedFiles);
-    }
-
 }
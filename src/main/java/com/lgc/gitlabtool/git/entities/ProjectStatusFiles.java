@@ -0,0 +1,189 @@
+package com.lgc.gitlabtool.git.entities;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import com.lgc.gitlabtool.git.jgit.ChangedFileStatus;
+import com.lgc.gitlabtool.git.util.StringPool;
+
+/**
+ * Compact immutable list of changed files of a project.
+ *
+ * All paths are sorted and stored once (a path with several statuses isn't duplicated) in prefix-compressed form:
+ * every path keeps only the suffix which differs from the previous path, all suffixes are joined into one string.
+ * Every path has a byte of status bits (one bit for every {@link ChangedFileStatus}, by its ordinal).
+ * Counts of files of every status are computed when the list is built, paths are decoded only on demand.
+ * Decoded paths are taken from {@link StringPool}, so equal paths of different projects share instances.
+ */
+public final class ProjectStatusFiles implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final ProjectStatusFiles EMPTY = new Builder().build();
+
+    /** Suffixes of all paths joined together */
+    private final String _suffixes;
+    /** The end of the suffix of every path in {@link #_suffixes} */
+    private final int[] _suffixEnds;
+    /** The length of the prefix which every path shares with the previous path */
+    private final int[] _prefixLengths;
+    /** Status bits of every path */
+    private final byte[] _statuses;
+    /** Counts of files by ordinals of statuses */
+    private final int[] _counts;
+
+    private ProjectStatusFiles(Map<String, Byte> sortedStatuses) {
+        int size = sortedStatuses.size();
+        StringBuilder suffixes = new StringBuilder();
+        _suffixEnds = new int[size];
+        _prefixLengths = new int[size];
+        _statuses = new byte[size];
+        _counts = new int[ChangedFileStatus.values().length];
+        String previousPath = "";
+        int index = 0;
+        for (Map.Entry<String, Byte> entry : sortedStatuses.entrySet()) {
+            String path = entry.getKey();
+            int prefixLength = getCommonPrefixLength(previousPath, path);
+            suffixes.append(path, prefixLength, path.length());
+            _suffixEnds[index] = suffixes.length();
+            _prefixLengths[index] = prefixLength;
+            _statuses[index] = entry.getValue();
+            for (ChangedFileStatus status : ChangedFileStatus.values()) {
+                if (hasStatus(_statuses[index], status)) {
+                    _counts[status.ordinal()]++;
+                }
+            }
+            previousPath = path;
+            index++;
+        }
+        _suffixes = suffixes.toString();
+    }
+
+    /**
+     * Gets the count of files with the status
+     *
+     * @param  status the status of files
+     * @return the count
+     */
+    public int getCount(ChangedFileStatus status) {
+        return _counts[status.ordinal()];
+    }
+
+    /**
+     * Gets the count of all changed files (a file with several statuses is counted once)
+     *
+     * @return the count
+     */
+    public int size() {
+        return _statuses.length;
+    }
+
+    /**
+     * Decodes paths of files with the status
+     *
+     * @param  status the status of files
+     * @return an unmodifiable sorted set of paths
+     */
+    public Set<String> getPaths(ChangedFileStatus status) {
+        if (getCount(status) == 0) {
+            return Collections.emptySet();
+        }
+        Set<String> paths = new LinkedHashSet<>(getCount(status) * 2);
+        forEach(status, paths::add);
+        return Collections.unmodifiableSet(paths);
+    }
+
+    /**
+     * Decodes paths of files with the status in sorted order
+     *
+     * @param status the status of files
+     * @param action the action for every path
+     */
+    public void forEach(ChangedFileStatus status, Consumer<String> action) {
+        if (getCount(status) == 0) {
+            return;
+        }
+        forEach((path, statuses) -> {
+            if (hasStatus(statuses, status)) {
+                action.accept(path);
+            }
+        });
+    }
+
+    /**
+     * Decodes all paths in sorted order
+     *
+     * @param action the action which gets every path and its status bits
+     */
+    public void forEach(BiConsumer<String, Byte> action) {
+        StringBuilder path = new StringBuilder();
+        int suffixStart = 0;
+        for (int index = 0; index < _statuses.length; index++) {
+            path.setLength(_prefixLengths[index]);
+            path.append(_suffixes, suffixStart, _suffixEnds[index]);
+            suffixStart = _suffixEnds[index];
+            action.accept(StringPool.intern(path.toString()), _statuses[index]);
+        }
+    }
+
+    /**
+     * Checks that status bits have the status
+     *
+     * @param  statuses the status bits of a path
+     * @param  status   the status
+     * @return <code>true</code> if the path has the status, otherwise <code>false</code>
+     */
+    public static boolean hasStatus(byte statuses, ChangedFileStatus status) {
+        return (statuses & getBit(status)) != 0;
+    }
+
+    private static int getBit(ChangedFileStatus status) {
+        return 1 << status.ordinal();
+    }
+
+    private static int getCommonPrefixLength(String first, String second) {
+        int maxLength = Math.min(first.length(), second.length());
+        int length = 0;
+        while (length < maxLength && first.charAt(length) == second.charAt(length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Collects paths with their statuses and builds the compact list.
+     */
+    public static class Builder {
+        private final Map<String, Byte> _sortedStatuses = new TreeMap<>();
+
+        /**
+         * Adds paths with the status
+         *
+         * @param  status the status
+         * @param  paths  the paths of files (can be <code>null</code>)
+         * @return the builder
+         */
+        public Builder add(ChangedFileStatus status, Collection<String> paths) {
+            if (paths != null) {
+                byte bit = (byte) getBit(status);
+                paths.forEach(path -> _sortedStatuses.merge(path, bit, (first, second) -> (byte) (first | second)));
+            }
+            return this;
+        }
+
+        /**
+         * Builds the compact list
+         *
+         * @return the list of files
+         */
+        public ProjectStatusFiles build() {
+            return new ProjectStatusFiles(_sortedStatuses);
+        }
+    }
+}
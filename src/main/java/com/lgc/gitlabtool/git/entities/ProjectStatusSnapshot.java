@@ -0,0 +1,93 @@
+package com.lgc.gitlabtool.git.entities;
+
+import java.util.Objects;
+
+/**
+ * The last computed status of a cloned project which is kept between sessions.
+ *
+ * The snapshot remembers the modification time of the Git index and the id of the HEAD commit which
+ * the status was computed from. While they are the same, the status doesn't need to be computed again.
+ *
+ * Snapshots are kept with the version of their format. A snapshot of another format (for example, a snapshot
+ * which was saved before changed files were kept in {@link ProjectStatusFiles}) is shown, but is never actual.
+ */
+public class ProjectStatusSnapshot {
+
+    /**
+     * The version of the format of snapshots. It must be increased when the saved fields of {@link ProjectStatus}
+     * are changed. Snapshots which were saved without the version have version 0.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private final int _formatVersion;
+
+    private final int _projectId;
+    private final long _indexModifiedTime;
+    private final String _headId;
+    private final ProjectStatus _status;
+
+    /**
+     * Constructs a snapshot of the status.
+     *
+     * @param projectId         the id of the project
+     * @param indexModifiedTime the modification time of the Git index when the status was computed
+     * @param headId            the id of the HEAD commit when the status was computed
+     * @param status            the computed status
+     */
+    public ProjectStatusSnapshot(int projectId, long indexModifiedTime, String headId, ProjectStatus status) {
+        _formatVersion = FORMAT_VERSION;
+        _projectId = projectId;
+        _indexModifiedTime = indexModifiedTime;
+        _headId = headId;
+        _status = status;
+    }
+
+    /**
+     * Gets the id of the project.
+     *
+     * @return the id
+     */
+    public int getProjectId() {
+        return _projectId;
+    }
+
+    /**
+     * Gets the modification time of the Git index when the status was computed.
+     *
+     * @return the time in milliseconds
+     */
+    public long getIndexModifiedTime() {
+        return _indexModifiedTime;
+    }
+
+    /**
+     * Gets the id of the HEAD commit when the status was computed.
+     *
+     * @return the id or <code>null</code> if the project didn't have HEAD commit
+     */
+    public String getHeadId() {
+        return _headId;
+    }
+
+    /**
+     * Gets the computed status.
+     *
+     * @return the status
+     */
+    public ProjectStatus getStatus() {
+        return _status;
+    }
+
+    /**
+     * Checks that the status was computed from the same index and HEAD commit.
+     * The snapshot of another format or without the HEAD commit or the index modification time is never actual.
+     *
+     * @param  indexModifiedTime the current modification time of the Git index
+     * @param  headId            the current id of the HEAD commit
+     * @return <code>true</code> if the status is actual, otherwise <code>false</code>
+     */
+    public boolean isComputedFrom(long indexModifiedTime, String headId) {
+        return _formatVersion == FORMAT_VERSION && _status != null && _headId != null && _indexModifiedTime >= 0
+                && _indexModifiedTime == indexModifiedTime && Objects.equals(_headId, headId);
+    }
+}
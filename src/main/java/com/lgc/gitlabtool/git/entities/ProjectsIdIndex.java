@@ -0,0 +1,84 @@
+package com.lgc.gitlabtool.git.entities;
+
+import java.util.Collection;
+
+/**
+ * Immutable index of projects by id.
+ *
+ * Ids are kept in an open-addressing table with linear probing, so a lookup is a few comparisons of
+ * primitive ints without boxing. A new index is built every time the list of projects is changed.
+ * If several projects have the same id, the first of them is indexed.
+ */
+final class ProjectsIdIndex {
+
+    private static final ProjectsIdIndex EMPTY = new ProjectsIdIndex(null);
+    /** The multiplier of Fibonacci hashing (2^32 divided by the golden ratio) */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final int[] _ids;
+    /** Projects by slots of ids (<code>null</code> if the slot is free) */
+    private final Project[] _projects;
+    private final int _mask;
+
+    /**
+     * Builds the index
+     *
+     * @param projects the projects (<code>null</code> projects are skipped)
+     */
+    ProjectsIdIndex(Collection<Project> projects) {
+        int size = projects == null ? 0 : projects.size();
+        // the table is at most half full, so probe sequences are short
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        _ids = new int[capacity];
+        _projects = new Project[capacity];
+        _mask = capacity - 1;
+        if (projects != null) {
+            projects.forEach(this::put);
+        }
+    }
+
+    /**
+     * Gets the empty index
+     *
+     * @return the index without projects
+     */
+    static ProjectsIdIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets the project by id
+     *
+     * @param  id the id of the project
+     * @return the project or <code>null</code> if the index doesn't have the project
+     */
+    Project get(int id) {
+        for (int slot = getSlot(id); _projects[slot] != null; slot = (slot + 1) & _mask) {
+            if (_ids[slot] == id) {
+                return _projects[slot];
+            }
+        }
+        return null;
+    }
+
+    private void put(Project project) {
+        if (project == null) {
+            return;
+        }
+        int id = project.getId();
+        int slot = getSlot(id);
+        while (_projects[slot] != null) {
+            if (_ids[slot] == id) {
+                return;
+            }
+            slot = (slot + 1) & _mask;
+        }
+        _ids[slot] = id;
+        _projects[slot] = project;
+    }
+
+    private int getSlot(int id) {
+        int hash = id * HASH_MULTIPLIER;
+        return (hash ^ (hash >>> 16)) & _mask;
+    }
+}
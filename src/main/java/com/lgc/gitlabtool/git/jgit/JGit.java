@@ -47,6 +47,7 @@ import org.eclipse.jgit.lib.BranchTrackingStatus;
 import org.eclipse.jgit.lib.Config;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.EmptyProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
 import org.eclipse.jgit.lib.Repository;
@@ -66,6 +67,7 @@ import com.lgc.gitlabtool.git.services.EmptyProgressListener;
 import com.lgc.gitlabtool.git.services.ProgressListener;
 import com.lgc.gitlabtool.git.ui.javafx.listeners.OperationProgressListener;
 import com.lgc.gitlabtool.git.util.PathUtilities;
+import com.lgc.gitlabtool.git.util.StringPool;
 
 
 /**
@@ -355,6 +357,8 @@ public class JGit {
                 }
             }
             progressListener.onFinish(_isCloneCancelled ? CANCEL_CLONE_MESSAGE : FINISH_CLONE_MESSAGE);
+            // the cancellation is related only to this cloning, other clones shouldn't be cancelled
+            _isCloneCancelled = false;
         };
 
         _backgroundService.runInBackgroundThread(task);
@@ -979,11 +983,51 @@ public class JGit {
         return Optional.empty();
     }
 
+    /**
+     * Gets the id of the HEAD commit of the project
+     *
+     * @param  project the cloned project
+     * @return the id or empty optional if the project doesn't have HEAD commit
+     */
+    public Optional<String> getHeadId(Project project) {
+        if (project == null || project.getPath() == null) {
+            return Optional.empty();
+        }
+        try (Git git = getGit(project.getPath())) {
+            ObjectId headId = git.getRepository().resolve(Constants.HEAD);
+            return headId == null ? Optional.empty() : Optional.of(headId.name());
+        } catch (IOException | RevisionSyntaxException e) {
+            logger.error("Error getting HEAD commit for the " + project.getName() + " : " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the modification time of the Git index of the project
+     *
+     * @param  project the cloned project
+     * @return the time in milliseconds or <code>-1</code> if the index doesn't exist
+     */
+    public long getIndexModifiedTime(Project project) {
+        if (project == null || project.getPath() == null) {
+            return -1;
+        }
+        File index = Paths.get(project.getPath(), Constants.DOT_GIT, "index").toFile();
+        return index.isFile() ? index.lastModified() : -1;
+    }
+
     protected Git getGit(String path) throws IOException {
         return Git.open(new File(path + "/.git"));
     }
 
-    private boolean clone(Project project, String localPath) {
+    /**
+     * Clones the project in the current thread.
+     *
+     * @param  project   the project for cloning
+     * @param  localPath the local path of the main group, the project is cloned to its path with namespace
+     * @return <code>true</code> if the project was cloned, otherwise <code>false</code>
+     */
+    public boolean clone(Project project, String localPath) {
         String path = localPath + File.separator + project.getPathWithNamespace();
         if (!clone(project.getHttpUrlToRepo(), path)) {
             PathUtilities.deletePath(Paths.get(path));
@@ -1065,10 +1109,12 @@ public class JGit {
         List<Branch> branches = new ArrayList<>();
         for (Ref ref : listRefs) {
             int length = (ref.toString().contains(Constants.R_HEADS)) ? Constants.R_HEADS.length() : Constants.R_REMOTES.length();
+            // the same branches are in many projects, they share names
+            String name = StringPool.intern(ref.getName().substring(length));
             if (ref.toString().contains(Constants.R_HEADS)) {
-                branches.add(new Branch(ref.getName().substring(length), BranchType.LOCAL));
+                branches.add(new Branch(name, BranchType.LOCAL));
             } else {
-                branches.add(new Branch(ref.getName().substring(length), BranchType.REMOTE));
+                branches.add(new Branch(name, BranchType.REMOTE));
             }
         }
         return branches;
@@ -4,7 +4,6 @@ import java.nio.file.Path;
 import java.util.Arrays;
 
 import com.lgc.gitlabtool.git.project.nature.operation.Operation;
-import com.lgc.gitlabtool.git.util.PathUtilities;
 
 /**
  * Implementation of type for DSG projects
@@ -31,7 +30,7 @@ public class DSGProjectType extends ProjectTypeImpl {
 
     @Override
     protected boolean isPathCorrespondsToType(Path path) {
-        return PathUtilities.isExistsAndRegularFile(path);
+        return ProjectFiles.isRegularFile(path);
     }
 
 }
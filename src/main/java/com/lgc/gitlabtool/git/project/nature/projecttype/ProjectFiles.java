@@ -0,0 +1,148 @@
+package com.lgc.gitlabtool.git.project.nature.projecttype;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.lgc.gitlabtool.git.util.PathUtilities;
+
+/**
+ * Listings of directories of one project which are shared by all types while the type of the project is detected.
+ *
+ * Every directory of the project is listed once, when the first structure inside it is checked, so checking
+ * structures of many types doesn't multiply requests to the file system. The listing is bound to the thread
+ * by {@link #call(Supplier)}, checks of paths outside the project (or without the listing) go to the file system.
+ */
+public final class ProjectFiles {
+
+    private static final Logger _logger = LogManager.getLogger(ProjectFiles.class);
+    private static final ThreadLocal<ProjectFiles> _current = new ThreadLocal<>();
+
+    private final Path _projectPath;
+    /** Names of entries of listed directories */
+    private final Map<Path, Set<String>> _listings = new HashMap<>();
+    /** Modification times of listed directories (<code>-1</code> if the time is unknown) */
+    private final Map<Path, Long> _modifiedTimes = new HashMap<>();
+    private final Map<Path, Boolean> _regularFiles = new HashMap<>();
+
+    public ProjectFiles(Path projectPath) {
+        _projectPath = projectPath.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Calls the action with the listing bound to the current thread
+     *
+     * @param  action the action which checks structures of types
+     * @return the result of the action
+     */
+    public <T> T call(Supplier<T> action) {
+        ProjectFiles previous = _current.get();
+        _current.set(this);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                _current.remove();
+            } else {
+                _current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Gets modification times of directories which were listed. The type detected by the listing is actual while
+     * modification times of these directories are the same.
+     *
+     * @return the unmodifiable map of directories to modification times
+     *         (<code>-1</code> if the time of a directory is unknown)
+     */
+    public Map<Path, Long> getModifiedTimes() {
+        return Collections.unmodifiableMap(_modifiedTimes);
+    }
+
+    /**
+     * Checks that the path exists. It uses the listing of the current thread if the path is inside its project.
+     *
+     * @param  path the path
+     * @return <code>true</code> if the path exists, otherwise <code>false</code>
+     */
+    public static boolean isExists(Path path) {
+        ProjectFiles files = getFilesForPath(path);
+        return files != null ? files.contains(path) : Files.exists(path);
+    }
+
+    /**
+     * Checks that the path is a regular file. It uses the listing of the current thread if the path is inside
+     * its project (the file system is requested only for listed entries).
+     *
+     * @param  path the path
+     * @return <code>true</code> if the path is a regular file, otherwise <code>false</code>
+     */
+    public static boolean isRegularFile(Path path) {
+        ProjectFiles files = getFilesForPath(path);
+        if (files == null) {
+            return PathUtilities.isExistsAndRegularFile(path);
+        }
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        return files.contains(normalizedPath) && files._regularFiles.computeIfAbsent(normalizedPath,
+                PathUtilities::isExistsAndRegularFile);
+    }
+
+    /**
+     * Gets modification time of the directory
+     *
+     * @param  directory the directory
+     * @return the time in milliseconds or <code>-1</code> if it cannot be read
+     */
+    public static long getModifiedTime(Path directory) {
+        try {
+            return Files.getLastModifiedTime(directory).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static ProjectFiles getFilesForPath(Path path) {
+        ProjectFiles files = _current.get();
+        return files != null && path.toAbsolutePath().normalize().startsWith(files._projectPath) ? files : null;
+    }
+
+    private boolean contains(Path path) {
+        Path normalizedPath = path.toAbsolutePath().normalize();
+        Path parent = normalizedPath.getParent();
+        if (parent == null || normalizedPath.equals(_projectPath)) {
+            return Files.exists(normalizedPath);
+        }
+        Set<String> names = _listings.get(parent);
+        if (names == null) {
+            names = listDirectory(parent);
+            _listings.put(parent, names);
+        }
+        return names.contains(normalizedPath.getFileName().toString());
+    }
+
+    private Set<String> listDirectory(Path directory) {
+        if (!directory.equals(_projectPath) && !contains(directory)) {
+            // the parent doesn't have the directory, so it isn't listed
+            return Collections.emptySet();
+        }
+        _modifiedTimes.put(directory, getModifiedTime(directory));
+        Set<String> names = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            stream.forEach(entry -> names.add(entry.getFileName().toString()));
+        } catch (IOException e) {
+            _logger.debug("Error listing " + directory + ": " + e.getMessage());
+        }
+        return names;
+    }
+}
@@ -2,7 +2,6 @@ package com.lgc.gitlabtool.git.project.nature.projecttype;
 
 import java.io.File;
 import java.io.Serializable;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
@@ -118,7 +117,7 @@ abstract class ProjectTypeImpl implements ProjectType, Serializable {
     }
 
     protected boolean isPathCorrespondsToType(Path path) {
-        return Files.exists(path);
+        return ProjectFiles.isExists(path);
     }
 
 }
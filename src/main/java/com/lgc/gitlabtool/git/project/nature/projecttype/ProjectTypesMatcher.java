@@ -0,0 +1,126 @@
+package com.lgc.gitlabtool.git.project.nature.projecttype;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matcher of projects to types which is compiled from structures of all types.
+ *
+ * Structures of all types are indexed into a trie by segments of their paths, so every path is checked once
+ * for all types which require it. A subtree isn't visited if all types which require its paths don't correspond
+ * to the project already. If several types correspond to the project, the type which was registered first is used.
+ *
+ * Types which don't extend {@link ProjectTypeImpl} are checked by {@link ProjectType#isProjectCorrespondsType(String)}.
+ */
+public final class ProjectTypesMatcher {
+
+    private static final String STRUCTURE_SEPARATOR = "/";
+
+    private final List<ProjectType> _types;
+    private final Map<String, ProjectType> _typesById = new LinkedHashMap<>();
+    private final Node _root = new Node();
+
+    /**
+     * Compiles the matcher
+     *
+     * @param types the types in order of registration
+     */
+    public ProjectTypesMatcher(Collection<ProjectType> types) {
+        _types = Collections.unmodifiableList(new ArrayList<>(types));
+        for (int index = 0; index < _types.size(); index++) {
+            ProjectType type = _types.get(index);
+            _typesById.putIfAbsent(type.getId(), type);
+            if (type instanceof ProjectTypeImpl) {
+                for (String structure : type.getStructures()) {
+                    addStructure(index, structure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the type of the project
+     *
+     * @param  projectPath the path to a cloned project
+     * @return the first registered type which corresponds to the project
+     *         or <code>null</code> if the project doesn't correspond to any type
+     */
+    public ProjectType match(String projectPath) {
+        if (projectPath == null || projectPath.isEmpty()) {
+            return null;
+        }
+        BitSet failedTypes = new BitSet(_types.size());
+        visit(_root, Paths.get(projectPath), failedTypes);
+        for (int index = 0; index < _types.size(); index++) {
+            ProjectType type = _types.get(index);
+            boolean isCorresponds = type instanceof ProjectTypeImpl ? !failedTypes.get(index)
+                                                                    : type.isProjectCorrespondsType(projectPath);
+            if (isCorresponds) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the type by id
+     *
+     * @param  id the id of the type
+     * @return the type or <code>null</code> if the matcher doesn't have the type
+     */
+    public ProjectType getTypeById(String id) {
+        return id == null ? null : _typesById.get(id);
+    }
+
+    /**
+     * Gets types of the matcher
+     *
+     * @return unmodifiable list of types in order of registration
+     */
+    public List<ProjectType> getTypes() {
+        return _types;
+    }
+
+    private void addStructure(int typeIndex, String structure) {
+        Node node = _root;
+        for (String segment : structure.split(STRUCTURE_SEPARATOR)) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            node._typesInSubtree.set(typeIndex);
+            node = node._children.computeIfAbsent(segment, key -> new Node());
+        }
+        node._typesInSubtree.set(typeIndex);
+        node._requiringTypes.set(typeIndex);
+    }
+
+    private void visit(Node node, Path path, BitSet failedTypes) {
+        BitSet aliveTypes = (BitSet) node._typesInSubtree.clone();
+        aliveTypes.andNot(failedTypes);
+        if (aliveTypes.isEmpty()) {
+            return;
+        }
+        BitSet requiringTypes = node._requiringTypes;
+        for (int index = requiringTypes.nextSetBit(0); index >= 0; index = requiringTypes.nextSetBit(index + 1)) {
+            if (!failedTypes.get(index) && !((ProjectTypeImpl) _types.get(index)).isPathCorrespondsToType(path)) {
+                failedTypes.set(index);
+            }
+        }
+        node._children.forEach((segment, child) -> visit(child, path.resolve(segment), failedTypes));
+    }
+
+    private static class Node {
+        private final Map<String, Node> _children = new LinkedHashMap<>();
+        /** Types which have the path of the node in their structures */
+        private final BitSet _requiringTypes = new BitSet();
+        /** Types which have the path of the node or paths of its children in their structures */
+        private final BitSet _typesInSubtree = new BitSet();
+    }
+}
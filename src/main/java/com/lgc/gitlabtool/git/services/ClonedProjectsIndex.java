@@ -0,0 +1,151 @@
+package com.lgc.gitlabtool.git.services;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Immutable index of local folders of projects of the cloned group.
+ *
+ * A project can be cloned into the folder by its path with namespace relative to the group (the layout of cloning,
+ * projects of subgroups are in the folders of subgroups) or into the folder by its name in the group folder
+ * (the name of a project of a subgroup includes the subgroup).
+ * Every folder which can have projects is listed once when the index is built, so checking a project is
+ * a hash lookup without requests to the file system.
+ */
+class ClonedProjectsIndex {
+
+    private static final Logger _logger = LogManager.getLogger(ClonedProjectsIndex.class);
+    private static final String NAMESPACE_SEPARATOR = "/";
+
+    private final Path _groupPath;
+    private final String _namespacePrefix;
+    /** Relative paths of existing folders (a path of the group folder is empty) */
+    private final Set<String> _folders;
+
+    /**
+     * Builds the index for projects of the group
+     *
+     * @param group    the cloned group
+     * @param projects the projects of the group
+     */
+    ClonedProjectsIndex(Group group, Collection<Project> projects) {
+        _groupPath = group.getPath() == null ? null : Paths.get(group.getPath());
+        _namespacePrefix = group.getFullPath() == null ? null : group.getFullPath() + NAMESPACE_SEPARATOR;
+        _folders = _groupPath == null ? Collections.emptySet() : listFolders(projects);
+    }
+
+    /**
+     * Gets the local path of the project
+     *
+     * @param  project the project of the group
+     * @return the path of the local folder of the project or <code>null</code> if the project isn't cloned
+     */
+    String getLocalPath(Project project) {
+        String relativePath = getRelativePath(project);
+        return relativePath == null ? null : _groupPath.resolve(relativePath).toString();
+    }
+
+    /**
+     * Checks that the project is cloned
+     *
+     * @param  project the project of the group
+     * @return <code>true</code> if the project has the local folder, otherwise <code>false</code>
+     */
+    boolean isCloned(Project project) {
+        return getRelativePath(project) != null;
+    }
+
+    private String getRelativePath(Project project) {
+        String namespacePath = getNamespacePath(project);
+        if (namespacePath != null && _folders.contains(namespacePath)) {
+            return namespacePath;
+        }
+        String name = project.getName();
+        return name != null && _folders.contains(name) ? name : null;
+    }
+
+    /**
+     * Gets the path with namespace relative to the group folder (<code>null</code> if the project
+     * isn't in the namespace of the group)
+     */
+    private String getNamespacePath(Project project) {
+        String pathWithNamespace = project.getPathWithNamespace();
+        if (_namespacePrefix == null || pathWithNamespace == null || !pathWithNamespace.startsWith(_namespacePrefix)) {
+            return null;
+        }
+        return pathWithNamespace.substring(_namespacePrefix.length());
+    }
+
+    private Set<String> listFolders(Collection<Project> projects) {
+        // parent folders are sorted, so a parent is listed before its children
+        Set<String> parents = new TreeSet<>();
+        parents.add("");
+        for (Project project : projects) {
+            addParents(getNamespacePath(project), parents);
+            addParents(project.getName(), parents);
+        }
+        Set<String> folders = new HashSet<>();
+        int countListed = 0;
+        for (String parent : parents) {
+            // a folder of a subgroup is listed only if the folder exists
+            if (!parent.isEmpty() && !folders.contains(parent)) {
+                continue;
+            }
+            listFolder(parent, folders);
+            countListed++;
+        }
+        _logger.debug("Listed " + countListed + " folders of " + _groupPath);
+        return Collections.unmodifiableSet(folders);
+    }
+
+    private void addParents(String relativePath, Set<String> parents) {
+        int index = relativePath == null ? -1 : relativePath.indexOf(NAMESPACE_SEPARATOR);
+        while (index > 0) {
+            parents.add(relativePath.substring(0, index));
+            index = relativePath.indexOf(NAMESPACE_SEPARATOR, index + 1);
+        }
+    }
+
+    private void listFolder(String parent, Set<String> folders) {
+        Path parentPath = _groupPath.resolve(parent);
+        String prefix = parent.isEmpty() ? "" : parent + NAMESPACE_SEPARATOR;
+        try {
+            // attributes are got with the listing, folders aren't requested one by one;
+            // links are followed, so a project folder can be a link to a folder in another place
+            Files.walkFileTree(parentPath, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isDirectory()) {
+                        folders.add(prefix + file.getFileName().toString());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            _logger.error("Error listing folders of " + parentPath + ": " + e.getMessage());
+        }
+    }
+}
@@ -221,6 +221,22 @@ public interface GitService extends Service {
      */
     ProjectStatus getProjectStatus(Project project);
 
+    /**
+     * Gets the id of the HEAD commit of the project.
+     *
+     * @param  project the cloned project
+     * @return the id or <code>null</code> if the project doesn't have HEAD commit
+     */
+    String getHeadId(Project project);
+
+    /**
+     * Gets the modification time of the Git index of the project.
+     *
+     * @param  project the cloned project
+     * @return the time in milliseconds or <code>-1</code> if the index doesn't exist
+     */
+    long getIndexModifiedTime(Project project);
+
     /**
      * Gets branches of project
      *
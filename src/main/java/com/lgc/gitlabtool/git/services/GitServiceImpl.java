@@ -17,6 +17,7 @@ import org.eclipse.jgit.api.Status;
 import com.lgc.gitlabtool.git.entities.Branch;
 import com.lgc.gitlabtool.git.entities.Project;
 import com.lgc.gitlabtool.git.entities.ProjectStatus;
+import com.lgc.gitlabtool.git.entities.ProjectStatusFiles;
 import com.lgc.gitlabtool.git.jgit.BranchType;
 import com.lgc.gitlabtool.git.jgit.ChangedFile;
 import com.lgc.gitlabtool.git.jgit.ChangedFileStatus;
@@ -29,6 +30,7 @@ import com.lgc.gitlabtool.git.jgit.stash.SingleProjectStash;
 import com.lgc.gitlabtool.git.jgit.stash.Stash;
 import com.lgc.gitlabtool.git.listeners.stateListeners.ApplicationState;
 import com.lgc.gitlabtool.git.ui.javafx.listeners.OperationProgressListener;
+import com.lgc.gitlabtool.git.util.StringPool;
 import org.eclipse.jgit.revwalk.RevCommit;
 
 public class GitServiceImpl implements GitService {
@@ -189,25 +191,20 @@ public class GitServiceImpl implements GitService {
         if (project == null) {
             return new ProjectStatus();
         }
-        Set<String> conflictedFiles = new HashSet<>();
-        Set<String> untrackedFiles = new HashSet<>();
-        Set<String> changedFiles = new HashSet<>();
-        Set<String> removedFiles = new HashSet<>();
-        Set<String> missingFiles = new HashSet<>();
-        Set<String> modifiedFiles = new HashSet<>();
-        Set<String> addedFiles = new HashSet<>();
+        // paths of JGit are written to the compact list at once, they aren't copied to sets
+        ProjectStatusFiles.Builder files = new ProjectStatusFiles.Builder();
         boolean hasChanges = false;
 
         Optional<Status> optStatus = _git.getStatusProject(project);
         if (optStatus.isPresent()) {
             Status status = optStatus.get();
-            conflictedFiles.addAll(status.getConflicting());
-            changedFiles.addAll(status.getChanged());
-            addedFiles.addAll(status.getAdded());
-            untrackedFiles.addAll(status.getUntracked());
-            modifiedFiles.addAll(status.getModified());
-            removedFiles.addAll(status.getRemoved());
-            missingFiles.addAll(status.getMissing());
+            files.add(ChangedFileStatus.CONFLICTING, status.getConflicting())
+                 .add(ChangedFileStatus.CHANGED, status.getChanged())
+                 .add(ChangedFileStatus.ADDED, status.getAdded())
+                 .add(ChangedFileStatus.UNTRACKED, status.getUntracked())
+                 .add(ChangedFileStatus.MODIFIED, status.getModified())
+                 .add(ChangedFileStatus.REMOVED, status.getRemoved())
+                 .add(ChangedFileStatus.MISSING, status.getMissing());
 
             hasChanges = status.hasUncommittedChanges();
         }
@@ -221,8 +218,17 @@ public class GitServiceImpl implements GitService {
             aheadIndex = indexCount[0];
             behindIndex = indexCount[1];
         }
-        return new ProjectStatus(hasChanges, aheadIndex, behindIndex, nameBranch, trackingBranch, conflictedFiles,
-                untrackedFiles, changedFiles, addedFiles, removedFiles, missingFiles, modifiedFiles);
+        return new ProjectStatus(hasChanges, aheadIndex, behindIndex, nameBranch, trackingBranch, files.build());
+    }
+
+    @Override
+    public String getHeadId(Project project) {
+        return _git.getHeadId(project).orElse(null);
+    }
+
+    @Override
+    public long getIndexModifiedTime(Project project) {
+        return _git.getIndexModifiedTime(project);
     }
 
     @Override
@@ -256,15 +262,17 @@ public class GitServiceImpl implements GitService {
         }
         Iterator<RevCommit> iterator = revCommits.iterator();
         List<Commit> commits = new ArrayList<>();
+        // the name of the project and names of people repeat in all commits, they share instances
+        String projectName = StringPool.intern(project.getName());
         while(iterator.hasNext()) {
             Commit commit = new Commit();
             RevCommit revCommit = iterator.next();
             commit.setHash(revCommit.getId().getName());
-            commit.setProject(project.getName());
+            commit.setProject(projectName);
             commit.setMessage(revCommit.getFullMessage());
-            commit.setAuthor(revCommit.getAuthorIdent().getName());
+            commit.setAuthor(StringPool.intern(revCommit.getAuthorIdent().getName()));
             commit.setAuthoredDate(revCommit.getCommitterIdent().getWhen());
-            commit.setCommitter(revCommit.getCommitterIdent().getName());
+            commit.setCommitter(StringPool.intern(revCommit.getCommitterIdent().getName()));
             commit.setDate(revCommit.getCommitterIdent().getWhen());
             commits.add(commit);
         }
@@ -277,14 +285,15 @@ public class GitServiceImpl implements GitService {
         if (project == null || !project.isCloned()) {
             return files;
         }
-        ProjectStatus status = project.getProjectStatus();
-        files.addAll(getChangedFiles(status.getChangedFiles(), project, ChangedFileType.STAGED, ChangedFileStatus.CHANGED));
-        files.addAll(getChangedFiles(status.getRemovedFiles(), project, ChangedFileType.STAGED, ChangedFileStatus.REMOVED));
-        files.addAll(getChangedFiles(status.getAddedFiles(), project, ChangedFileType.STAGED, ChangedFileStatus.ADDED));
-        files.addAll(getChangedFiles(status.getUntrackedFiles(), project, ChangedFileType.UNSTAGED, ChangedFileStatus.UNTRACKED));
-        files.addAll(getChangedFiles(status.getConflictedFiles(), project,  ChangedFileType.UNSTAGED, ChangedFileStatus.CONFLICTING));
-        files.addAll(getChangedFiles(status.getMissingFiles(), project, ChangedFileType.UNSTAGED, ChangedFileStatus.MISSING));
-        files.addAll(getChangedFiles(status.getModifiedFiles(), project,ChangedFileType.UNSTAGED, ChangedFileStatus.MODIFIED));
+        // ChangedFile objects are built only here (when the staging window asks), the status keeps only paths
+        ProjectStatusFiles statusFiles = project.getProjectStatus().getFiles();
+        addChangedFiles(files, statusFiles, project, ChangedFileType.STAGED, ChangedFileStatus.CHANGED);
+        addChangedFiles(files, statusFiles, project, ChangedFileType.STAGED, ChangedFileStatus.REMOVED);
+        addChangedFiles(files, statusFiles, project, ChangedFileType.STAGED, ChangedFileStatus.ADDED);
+        addChangedFiles(files, statusFiles, project, ChangedFileType.UNSTAGED, ChangedFileStatus.UNTRACKED);
+        addChangedFiles(files, statusFiles, project, ChangedFileType.UNSTAGED, ChangedFileStatus.CONFLICTING);
+        addChangedFiles(files, statusFiles, project, ChangedFileType.UNSTAGED, ChangedFileStatus.MISSING);
+        addChangedFiles(files, statusFiles, project, ChangedFileType.UNSTAGED, ChangedFileStatus.MODIFIED);
         return files;
     }
 
@@ -551,11 +560,9 @@ public class GitServiceImpl implements GitService {
         return _git.commitAndPush(projects, commitMessage, null, null, null, null, progressListener);
     }
 
-    private List<ChangedFile> getChangedFiles(Collection<String> fileNames, Project project,
+    private void addChangedFiles(List<ChangedFile> files, ProjectStatusFiles statusFiles, Project project,
             ChangedFileType typeFile, ChangedFileStatus statusFile) {
-        return fileNames.stream()
-                        .map(fileName -> new ChangedFile(project, fileName, typeFile, statusFile))
-                        .collect(Collectors.toList());
+        statusFiles.forEach(statusFile, fileName -> files.add(new ChangedFile(project, fileName, typeFile, statusFile)));
     }
 
     private void addStashToList(List<Stash> allStashes, List<SingleProjectStash> currentStashList) {
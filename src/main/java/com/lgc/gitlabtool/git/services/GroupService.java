@@ -19,6 +19,16 @@ public interface GroupService extends Service {
      */
     Collection<Group> getGroups(User user);
 
+    /**
+     * Gets user's groups which were saved to the local metadata cache by the last successful
+     * {@link #getGroups(User)} call. It doesn't send requests to the GitLab, so it can be used for instant
+     * rendering while the groups are revalidated in the background.
+     *
+     * @param user User with groups
+     * @return List of cached groups for user or an empty list if the cache doesn't exist
+     */
+    Collection<Group> getCachedGroups(User user);
+
     /**
      * Clones list of user's groups and adds their to the ClonedGroups class.
      *
@@ -69,4 +79,10 @@ public interface GroupService extends Service {
      */
     Group reloadGroup(Group group);
 
+    /**
+     * Invalidates the in-memory index of groups of the current server session. The next lookup of a group
+     * (for example, {@link #reloadGroup(Group)}) will load groups from the GitLab again.
+     */
+    void invalidateGroups();
+
 }
\ No newline at end of file
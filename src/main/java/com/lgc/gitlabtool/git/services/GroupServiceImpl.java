@@ -3,19 +3,22 @@ package com.lgc.gitlabtool.git.services;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.google.gson.reflect.TypeToken;
-import com.google.inject.internal.util.Objects;
+import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
 import com.lgc.gitlabtool.git.connections.RESTConnector;
 import com.lgc.gitlabtool.git.connections.token.CurrentUser;
 import com.lgc.gitlabtool.git.entities.Group;
@@ -26,6 +29,7 @@ import com.lgc.gitlabtool.git.jgit.JGit;
 import com.lgc.gitlabtool.git.listeners.stateListeners.ApplicationState;
 import com.lgc.gitlabtool.git.ui.javafx.listeners.OperationProgressListener;
 import com.lgc.gitlabtool.git.util.PathUtilities;
+import com.lgc.gitlabtool.git.util.URLManager;
 
 public class GroupServiceImpl implements GroupService {
 
@@ -38,20 +42,28 @@ public class GroupServiceImpl implements GroupService {
 
     private static final String GROUP_ALREADY_LOADED_MESSAGE = "The group with this path is already loaded.";
     private static final String GROUP_DOESNT_EXIST_MESSAGE = "This group does not exist.";
+    private static final int OK_CODE = 200;
+    /** Groups are reloaded from the GitLab for lookups if the index is older than 5 minutes **/
+    private static final long GROUPS_INDEX_TIME_TO_LIVE = 5 * 60 * 1000;
 
     private static ClonedGroupsService _clonedGroupsService;
     private static ProjectService _projectService;
     private static StateService _stateService;
     private static ConsoleService _consoleService;
     private static JSONParserService _jsonParserService;
+    private static StorageService _storageService;
     private static JGit _jGit;
 
+    /** Indexes of groups by sessions: every server and user has its own groups **/
+    private final Map<String, GroupsIndex> _groupsIndexes = new ConcurrentHashMap<>();
+
     public GroupServiceImpl(RESTConnector connector,
                             ClonedGroupsService clonedGroupsService,
                             ProjectService projectService,
                             StateService stateService,
                             ConsoleService consoleService,
                             JSONParserService jsonParserService,
+                            StorageService storageService,
                             JGit jGit) {
         setConnector(connector);
         setClonedGroupsService(clonedGroupsService);
@@ -59,26 +71,67 @@ public class GroupServiceImpl implements GroupService {
         setStateService(stateService);
         setConsoleService(consoleService);
         setJSONParserService(jsonParserService);
+        setStorageService(storageService);
         setJGit(jGit);
     }
 
     @Override
     public Collection<Group> getGroups(User user) {
+        String sessionKey = getSessionKey(user);
         privateTokenValue = CurrentUser.getInstance().getOAuth2TokenValue();
         privateTokenKey = CurrentUser.getInstance().getPrivateTokenKey();
         if (privateTokenValue != null) {
             HashMap<String, String> header = new HashMap<>();
             header.put(privateTokenKey, privateTokenValue);
-            Object userProjects = getConnector().sendGet("/groups", null, header).getBody();
-            Collection<Group> parsedGroups = _jsonParserService.parseToCollectionObjects(
-                    userProjects, new TypeToken<List<Group>>() {}.getType());
-            setGroupsTheirSubGroups((List<Group>)parsedGroups);
+            List<Group> parsedGroups = new ArrayList<>();
+            AtomicBoolean isParsed = new AtomicBoolean();
+            HttpResponseHolder response = getConnector().sendGet("/groups", null, header,
+                    body -> isParsed.set(_jsonParserService.parseToObjects(body, Group.class, parsedGroups::add)));
+            // a failed or truncated response doesn't replace the cache and the index by a part of groups
+            if (response.getResponseCode() != OK_CODE || !isParsed.get()) {
+                return Collections.emptyList();
+            }
+            updateGroupsCache(user, parsedGroups);
+            GroupsIndex groupsIndex = new GroupsIndex(parsedGroups);
+            setGroupsTheirSubGroups(parsedGroups, groupsIndex);
+            _groupsIndexes.put(sessionKey, groupsIndex);
             return parsedGroups;
         }
 
         return null;
     }
 
+    @Override
+    public void invalidateGroups() {
+        _groupsIndexes.remove(getSessionKey(CurrentUser.getInstance().getCurrentUser()));
+    }
+
+    @Override
+    public Collection<Group> getCachedGroups(User user) {
+        String server = getServerName();
+        if (server == null || user == null || _storageService == null) {
+            return Collections.emptyList();
+        }
+        List<Group> cachedGroups = _storageService.loadGroupsCache(server, user.getUsername());
+        if (cachedGroups == null) {
+            return Collections.emptyList();
+        }
+        setGroupsTheirSubGroups(cachedGroups, new GroupsIndex(cachedGroups));
+        return cachedGroups;
+    }
+
+    private void updateGroupsCache(User user, Collection<Group> groups) {
+        String server = getServerName();
+        if (server != null && user != null && _storageService != null) {
+            _storageService.updateGroupsCache(server, user.getUsername(), groups);
+        }
+    }
+
+    private String getServerName() {
+        String urlMainPart = getConnector().getUrlMainPart();
+        return urlMainPart == null ? null : URLManager.trimServerURL(urlMainPart);
+    }
+
     @Override
     public void cloneGroups(List<Group> groups, String destinationPath, OperationProgressListener progressListener) {
         if (groups == null || destinationPath == null) {
@@ -144,7 +197,8 @@ public class GroupServiceImpl implements GroupService {
     public Group reloadGroup(Group group) {
         Optional<Group> optLoadedGroup = getGroupById(group.getId());
         if (optLoadedGroup.isPresent()) {
-            Group loadedGroup = optLoadedGroup.get();
+            // the index is shared, so we don't change groups from it
+            Group loadedGroup = new Group(optLoadedGroup.get());
             loadedGroup.setPath(group.getPath());
             loadedGroup.setClonedStatus(true);
             return loadedGroup;
@@ -154,17 +208,29 @@ public class GroupServiceImpl implements GroupService {
     }
 
     private Optional<Group> getGroupById(int idGroup) {
-        Collection<Group> groups = getGroups(CurrentUser.getInstance().getCurrentUser());
-        if (groups == null || groups.isEmpty()) {
-            return null;
+        return getGroupsIndex().getById(idGroup);
+    }
+
+    /**
+     * Gets index of groups of the current session. If the index is empty or expired we reload groups from the GitLab.
+     */
+    private GroupsIndex getGroupsIndex() {
+        User user = CurrentUser.getInstance().getCurrentUser();
+        String sessionKey = getSessionKey(user);
+        GroupsIndex index = _groupsIndexes.get(sessionKey);
+        if (index == null || index.isEmpty() || index.isExpired(GROUPS_INDEX_TIME_TO_LIVE)) {
+            getGroups(user);
+            index = _groupsIndexes.getOrDefault(sessionKey, new GroupsIndex(null));
         }
-        return findGroupById(groups, idGroup);
+        return index;
     }
 
-    private Optional<Group> findGroupById(Collection<Group> groups, int idGroup) {
-        return groups.stream()
-                     .filter(group -> group.getId() == idGroup)
-                     .findFirst();
+    /**
+     * Gets key of the server session of the user. The server is taken from the current session of the connector.
+     */
+    private String getSessionKey(User user) {
+        String username = user == null ? null : user.getUsername();
+        return getConnector().getUrlMainPart() + "|" + username;
     }
 
     private RESTConnector getConnector() {
@@ -205,6 +271,12 @@ public class GroupServiceImpl implements GroupService {
         }
     }
 
+    private void setStorageService(StorageService storageService) {
+        if (storageService != null) {
+            _storageService = storageService;
+        }
+    }
+
     private void setJGit(JGit jGit) {
         if (jGit != null) {
             _jGit = jGit;
@@ -222,7 +294,7 @@ public class GroupServiceImpl implements GroupService {
             _consoleService.addMessage(GROUP_DOESNT_EXIST_MESSAGE, MessageType.ERROR);
             return null;
         }
-        Group foundGroup = optFoundGroup.get();
+        Group foundGroup = new Group(optFoundGroup.get());
         foundGroup.setPath(groupPath.toString());
         foundGroup.setClonedStatus(true);
         _clonedGroupsService.addGroups(Arrays.asList(foundGroup));
@@ -261,17 +333,7 @@ public class GroupServiceImpl implements GroupService {
     }
 
     private Optional<Group> getGroupByName(String nameGroup) {
-        Collection<Group> groups = getGroups(CurrentUser.getInstance().getCurrentUser());
-        if (groups == null || groups.isEmpty()) {
-            return Optional.empty();
-        }
-        return findGroupByName(groups, nameGroup);
-    }
-
-    private Optional<Group> findGroupByName(Collection<Group> groups, String nameGroup) {
-        return groups.stream()
-                     .filter(group -> group.getName().equals(nameGroup))
-                     .findFirst();
+        return getGroupsIndex().getByName(nameGroup);
     }
 
     private Optional<Group> findGroupByPath(Collection<Group> groups, String groupPath) {
@@ -289,24 +351,24 @@ public class GroupServiceImpl implements GroupService {
         return _clonedGroupsService.loadClonedGroups();
     }
 
-    private void setGroupsTheirSubGroups(List<Group> groupsFromGitLab) {
+    /**
+     * Builds the tree of groups in one pass: a parent of every group is found in the id index.
+     *
+     * @param groupsFromGitLab the groups from the GitLab
+     * @param groupsIndex      the index of the same groups
+     */
+    private void setGroupsTheirSubGroups(Collection<Group> groupsFromGitLab, GroupsIndex groupsIndex) {
+        if (groupsFromGitLab == null) {
+            return;
+        }
         for (Group group : groupsFromGitLab) {
             Integer parentId = group.getParentId();
             if (parentId != null) {
-                Optional<Group> optGroup = foundGroupByParentId(groupsFromGitLab, parentId);
-                if (optGroup.isPresent()) {
-                    optGroup.get().addSubGroup(group);
-                }
+                groupsIndex.getById(parentId).ifPresent(parent -> parent.addSubGroup(group));
             }
         }
     }
 
-    private Optional<Group> foundGroupByParentId(List<Group> groups, Integer parentId) {
-        return groups.stream()
-                     .filter(group -> Objects.equal(group.getId(), parentId))
-                     .findFirst();
-    }
-
     private void cloneGroup(Group cloneGroup, String destinationPath, OperationProgressListener progressListener) {
         Collection<Project> allProjects = _projectService.getProjects(cloneGroup);
         if (allProjects.isEmpty()) {
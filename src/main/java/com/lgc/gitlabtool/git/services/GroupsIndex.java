@@ -0,0 +1,83 @@
+package com.lgc.gitlabtool.git.services;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.lgc.gitlabtool.git.entities.Group;
+
+/**
+ * Immutable in-memory index of the groups which were got from the GitLab.
+ * It allows finding a group by id, full path or name using a hash lookup instead of
+ * downloading and scanning all groups again.
+ *
+ * A new index is built after every request of groups, so we don't need to synchronize it.
+ */
+class GroupsIndex {
+
+    private final Map<Integer, Group> _groupsById;
+    private final Map<String, Group> _groupsByFullPath;
+    private final Map<String, Group> _groupsByName;
+    private final long _creationTime;
+
+    /**
+     * Builds index for groups.
+     * If several groups have the same name, the first of them is indexed by name.
+     *
+     * @param groups the groups from the GitLab
+     */
+    GroupsIndex(Collection<Group> groups) {
+        int size = groups == null ? 0 : groups.size();
+        Map<Integer, Group> groupsById = new HashMap<>(size * 2);
+        Map<String, Group> groupsByFullPath = new HashMap<>(size * 2);
+        Map<String, Group> groupsByName = new HashMap<>(size * 2);
+        if (groups != null) {
+            for (Group group : groups) {
+                groupsById.put(group.getId(), group);
+                if (group.getFullPath() != null) {
+                    groupsByFullPath.put(group.getFullPath(), group);
+                }
+                if (group.getName() != null) {
+                    groupsByName.putIfAbsent(group.getName(), group);
+                }
+            }
+        }
+        _groupsById = Collections.unmodifiableMap(groupsById);
+        _groupsByFullPath = Collections.unmodifiableMap(groupsByFullPath);
+        _groupsByName = Collections.unmodifiableMap(groupsByName);
+        _creationTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks that the index is older than time to live.
+     *
+     * @param  timeToLive the time to live of the index in milliseconds
+     * @return <code>true</code> if the index is expired, otherwise <code>false</code>
+     */
+    boolean isExpired(long timeToLive) {
+        return System.currentTimeMillis() - _creationTime > timeToLive;
+    }
+
+    /**
+     * Checks that the index doesn't have groups.
+     *
+     * @return <code>true</code> if the index is empty, otherwise <code>false</code>
+     */
+    boolean isEmpty() {
+        return _groupsById.isEmpty();
+    }
+
+    Optional<Group> getById(int id) {
+        return Optional.ofNullable(_groupsById.get(id));
+    }
+
+    Optional<Group> getByFullPath(String fullPath) {
+        return fullPath == null ? Optional.empty() : Optional.ofNullable(_groupsByFullPath.get(fullPath));
+    }
+
+    Optional<Group> getByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(_groupsByName.get(name));
+    }
+}
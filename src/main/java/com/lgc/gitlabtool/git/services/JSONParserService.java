@@ -1,8 +1,10 @@
 package com.lgc.gitlabtool.git.services;
 
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service for working with json.
@@ -58,5 +60,17 @@ public interface JSONParserService extends Service {
      */
     <T> Collection<T> parseToCollectionObjects(Object json, Type typeClass);
 
+    /**
+     * Parses a json array from the reader and passes its objects to the consumer one by one,
+     * so the whole json is never held in memory.
+     *
+     * @param json reader of json array with data objects
+     * @param classObject type of the objects
+     * @param consumer the consumer of parsed objects
+     *
+     * @return <code>true</code> if the whole array has been parsed, <code>false</code> if transferred incorrect data
+     */
+    <T> boolean parseToObjects(Reader json, Class<T> classObject, Consumer<T> consumer);
+
 
 }
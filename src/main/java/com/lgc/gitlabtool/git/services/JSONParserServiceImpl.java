@@ -1,9 +1,12 @@
 package com.lgc.gitlabtool.git.services;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -11,9 +14,13 @@ import org.apache.logging.log4j.Logger;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.lgc.gitlabtool.git.entities.Project;
 import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectType;
+import com.lgc.gitlabtool.git.util.ProjectJsonAdapter;
 import com.lgc.gitlabtool.git.util.ProjectTypeAdapter;
 
 public class JSONParserServiceImpl implements JSONParserService {
@@ -26,6 +33,7 @@ public class JSONParserServiceImpl implements JSONParserService {
     public JSONParserServiceImpl() {
         _gsonBuilder = new GsonBuilder();
         _gsonBuilder.registerTypeAdapter(ProjectType.class, new ProjectTypeAdapter());
+        _gsonBuilder.registerTypeAdapter(Project.class, new ProjectJsonAdapter());
         _gson = _gsonBuilder.create();
         _mapType = new TypeToken<Map<String, Object>>(){}.getType();
     }
@@ -81,4 +89,24 @@ public class JSONParserServiceImpl implements JSONParserService {
         }
         return Collections.emptyList();
     }
+
+    @Override
+    public <T> boolean parseToObjects(Reader json, Class<T> classObject, Consumer<T> consumer) {
+        if (json == null || classObject == null || consumer == null) {
+            return false;
+        }
+        try {
+            JsonReader reader = new JsonReader(json);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                T object = _gson.fromJson(reader, classObject);
+                consumer.accept(object);
+            }
+            reader.endArray();
+            return true;
+        } catch (IOException | JsonParseException | IllegalStateException ex) {
+            logger.error("Error parsing from a json stream to objects: " + ex.getMessage());
+        }
+        return false;
+    }
 }
@@ -2,6 +2,7 @@ package com.lgc.gitlabtool.git.services;
 
 import java.util.HashMap;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.apache.http.HttpStatus;
 import org.eclipse.jgit.transport.CredentialsProvider;
@@ -20,11 +21,27 @@ public class LoginServiceImpl implements LoginService {
     private CurrentUser _currentUser;
     private final BackgroundService _backgroundService;
     private JSONParserService _jsonParserServer;
+    private final Function<String, RESTConnector> _sessionProvider;
 
     public LoginServiceImpl(RESTConnector connector, BackgroundService backgroundService, JSONParserService jsonParserServer) {
+        this(connector, backgroundService, jsonParserServer, urlMainPart -> null);
+    }
+
+    /**
+     * Creates the service which requests tokens by the connectors of server sessions
+     *
+     * @param connector         the connector of the current session
+     * @param backgroundService the service for running the login in the background
+     * @param jsonParserServer  the parser of responses
+     * @param sessionProvider   the function which gets the connector of the server session by the server URL
+     *                          or <code>null</code> if there isn't such session, then the current one is used
+     */
+    public LoginServiceImpl(RESTConnector connector, BackgroundService backgroundService, JSONParserService jsonParserServer,
+                            Function<String, RESTConnector> sessionProvider) {
         setConnector(connector);
         setJSONParserServer(jsonParserServer);
         this._backgroundService = backgroundService;
+        this._sessionProvider = sessionProvider;
     }
 
     @Override
@@ -35,8 +52,10 @@ public class LoginServiceImpl implements LoginService {
             params.put("username", dto.getLogin());
             params.put("password", dto.getPassword());
 
-            getConnector().setUrlMainPart(dto.getShortServerURL());
-            HttpResponseHolder responseHolder = getConnector().sendPost("/oauth/token", params, null);
+            // the token is requested by the session of the server root, the current session isn't switched
+            // until the token is got, so requests of the current server aren't sent to another one
+            HttpResponseHolder responseHolder = getSessionConnector(dto.getShortServerURL())
+                    .sendPost("/oauth/token", params, null);
             Object tokenJson = responseHolder != null ? responseHolder.getBody() : null;
             if (isResponseCodeValid(responseHolder, tokenJson)) {
                 Token accessToken = _jsonParserServer.parseToObject(tokenJson, Token.class);
@@ -75,6 +94,11 @@ public class LoginServiceImpl implements LoginService {
         return _connector;
     }
 
+    private RESTConnector getSessionConnector(String urlMainPart) {
+        RESTConnector sessionConnector = _sessionProvider.apply(urlMainPart);
+        return sessionConnector != null ? sessionConnector : getConnector();
+    }
+
     private void setConnector(RESTConnector connector) {
         _connector = connector;
     }
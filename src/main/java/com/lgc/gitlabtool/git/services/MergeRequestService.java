@@ -0,0 +1,28 @@
+package com.lgc.gitlabtool.git.services;
+
+import java.util.List;
+import java.util.Map;
+
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Service for creating merge requests on the GitLab.
+ */
+public interface MergeRequestService extends Service {
+
+    /**
+     * Creates merge requests from the current branches of projects to the target branch.
+     *
+     * Requests are sent by several threads at the same time. The count of threads is limited and requests go
+     * through the rate limiter of the connector, so big selections don't exceed the GitLab limits.
+     *
+     * @param projects         the cloned projects
+     * @param targetBranch     the name of the target branch (without the remote prefix)
+     * @param title            the title of merge requests
+     * @param progressListener the listener which gets <code>onSuccess(project, message)</code> or
+     *                         <code>onError(project, message)</code> for every project
+     * @return results of projects: <code>true</code> if the merge request was created, otherwise <code>false</code>
+     */
+    Map<Project, Boolean> createMergeRequests(List<Project> projects, String targetBranch, String title,
+                                              ProgressListener progressListener);
+}
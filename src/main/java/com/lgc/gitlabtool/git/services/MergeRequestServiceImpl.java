@@ -0,0 +1,147 @@
+package com.lgc.gitlabtool.git.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
+import com.lgc.gitlabtool.git.connections.RESTConnector;
+import com.lgc.gitlabtool.git.connections.RequestPriority;
+import com.lgc.gitlabtool.git.connections.token.CurrentUser;
+import com.lgc.gitlabtool.git.entities.MessageType;
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Implementation of {@link MergeRequestService}
+ */
+public class MergeRequestServiceImpl implements MergeRequestService {
+
+    private static final Logger _logger = LogManager.getLogger(MergeRequestServiceImpl.class);
+
+    /** Max count of merge requests which are sent at the same time */
+    private static final int MAX_PARALLEL_REQUESTS = 4;
+    /** Max count of attempts if the GitLab asks to slow down (the rate limiter waits before the next one) */
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int CREATED_CODE = 201;
+    private static final int CONFLICT_CODE = 409;
+    private static final int TOO_MANY_REQUESTS_CODE = 429;
+
+    private final RESTConnector _connector;
+    private final ConsoleService _consoleService;
+    private final CurrentUser _currentUser;
+
+    public MergeRequestServiceImpl(RESTConnector connector, ConsoleService consoleService, CurrentUser currentUser) {
+        _connector = connector;
+        _consoleService = consoleService;
+        _currentUser = currentUser;
+    }
+
+    @Override
+    public Map<Project, Boolean> createMergeRequests(List<Project> projects, String targetBranch, String title,
+                                                     ProgressListener progressListener) {
+        if (projects == null || targetBranch == null || targetBranch.isEmpty() || title == null || title.isEmpty()
+                || progressListener == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        Map<Project, Boolean> results = new LinkedHashMap<>();
+        if (projects.isEmpty()) {
+            return results;
+        }
+        Map<String, String> header = getCurrentPrivateToken();
+        if (header.isEmpty()) {
+            _consoleService.addMessage("Failed creating merge requests: the user isn't logged in", MessageType.ERROR);
+            projects.forEach(project -> results.put(project, false));
+            return results;
+        }
+        _consoleService.addMessage("Creating merge requests to the " + targetBranch + " branch for "
+                + projects.size() + " projects...", MessageType.SIMPLE);
+
+        // the priority is bound to the calling thread, the requests are sent by the worker threads
+        RequestPriority priority = RequestPriority.current();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(MAX_PARALLEL_REQUESTS, projects.size()));
+        try {
+            List<CompletableFuture<Boolean>> requests = new ArrayList<>();
+            for (Project project : projects) {
+                requests.add(CompletableFuture.supplyAsync(() -> {
+                    boolean[] result = new boolean[1];
+                    priority.runAs(() -> result[0] = createMergeRequest(project, targetBranch, title, header,
+                            progressListener));
+                    return result[0];
+                }, executor));
+            }
+            for (int i = 0; i < projects.size(); i++) {
+                results.put(projects.get(i), requests.get(i).join());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long countCreated = results.values().stream().filter(Boolean::booleanValue).count();
+        _consoleService.addMessage(countCreated + " of " + projects.size() + " merge requests were created",
+                MessageType.determineMessageType(countCreated == projects.size()));
+        return results;
+    }
+
+    private boolean createMergeRequest(Project project, String targetBranch, String title,
+                                       Map<String, String> header, ProgressListener progressListener) {
+        String sourceBranch = project.getProjectStatus().getCurrentBranch();
+        if (!project.isCloned() || sourceBranch.isEmpty() || Objects.equals(sourceBranch, targetBranch)) {
+            String message = "Merge request cannot be created for " + project.getName()
+                    + ": the current branch is the target branch or it is unknown";
+            onError(project, message, progressListener);
+            return false;
+        }
+        Map<String, String> params = new HashMap<>();
+        params.put("source_branch", sourceBranch);
+        params.put("target_branch", targetBranch);
+        params.put("title", title);
+        String suffixForUrl = "/projects/" + project.getId() + "/merge_requests";
+
+        HttpResponseHolder response = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            response = _connector.sendPost(suffixForUrl, params, header);
+            // the GitLab doesn't create the merge request if it rejects the request by the rate limit
+            if (response.getResponseCode() != TOO_MANY_REQUESTS_CODE) {
+                break;
+            }
+        }
+        int responseCode = response.getResponseCode();
+        if (responseCode == CREATED_CODE) {
+            String message = "Merge request " + sourceBranch + " -> " + targetBranch + " was created for "
+                    + project.getName();
+            _logger.info(message);
+            progressListener.onSuccess(project, message);
+            return true;
+        }
+        String reason = responseCode == CONFLICT_CODE ? "the merge request already exists"
+                                                      : responseCode + " " + response.getResponseMessage();
+        onError(project, "Failed creating merge request for " + project.getName() + ": " + reason, progressListener);
+        return false;
+    }
+
+    private void onError(Project project, String message, ProgressListener progressListener) {
+        _logger.error(message);
+        _consoleService.addMessage(message, MessageType.ERROR);
+        progressListener.onError(project, message);
+    }
+
+    private Map<String, String> getCurrentPrivateToken() {
+        String privateTokenValue = _currentUser.getOAuth2TokenValue();
+        String privateTokenKey = _currentUser.getPrivateTokenKey();
+
+        Map<String, String> header = new HashMap<>();
+        if (privateTokenValue != null) {
+            header.put(privateTokenKey, privateTokenValue);
+        }
+        return header;
+    }
+}
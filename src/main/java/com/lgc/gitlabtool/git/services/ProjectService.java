@@ -2,6 +2,7 @@ package com.lgc.gitlabtool.git.services;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.lgc.gitlabtool.git.entities.Group;
 import com.lgc.gitlabtool.git.entities.Project;
@@ -31,6 +32,47 @@ public interface ProjectService extends UpdateProgressGenerator, Service {
      */
     Collection<Project> loadProjects(Group group);
 
+    /**
+     * Loads projects of the group by stages: the list of projects, cloned projects, their types and statuses.
+     *
+     * The method returns as soon as the list is got from the GitLab and cloned projects have their local paths,
+     * so projects can be shown at once. Types and statuses are computed in the background.
+     *
+     * @param  group the group for which we need to load projects
+     * @param  progressListener the listener which gets <code>onSuccess(project)</code> for every cloned project
+     *         when its type and status are computed and <code>onFinish(projects, message)</code> when the loading
+     *         is finished (projects are <code>null</code> if an error occurred during the request)
+     * @return a collection of group projects.<br>
+     * Can return <code>null</code>, if an error occurred during the request.
+     */
+    Collection<Project> loadProjects(Group group, ProgressListener progressListener);
+
+    /**
+     * Loads the last known projects of the group from the local metadata cache.
+     * It doesn't send requests to the GitLab and doesn't compute statuses of projects:
+     * only the local path, the clone status and the type are set for cloned projects.
+     *
+     * @param  group the group for which we need to load projects
+     * @return a collection of cached group projects or <code>null</code> if the cache doesn't exist.
+     */
+    Collection<Project> loadCachedProjects(Group group);
+
+    /**
+     * Refreshes the loaded projects of the group.
+     *
+     * The list of projects is requested from the GitLab and merged into the loaded projects by ids: removed projects
+     * are dropped, not renamed projects which have the same local folder keep their objects (with the local path,
+     * type and status), new, renamed and locally cloned projects get their type and status.
+     * If projects weren't loaded all projects are loaded by {@link #loadProjects(Group)}, it also should be used
+     * to reload all projects instead of merging them.
+     *
+     * @param  group    the group for which we need to refresh projects
+     * @param  projects the loaded projects of the group
+     * @return a collection of group projects.<br>
+     * Can return <code>null</code>, if an error occurred during the request.
+     */
+    Collection<Project> refreshProjects(Group group, Collection<Project> projects);
+
     /**
      * Creates new project in the group on GitLab and creates its local copy.
      *
@@ -44,6 +86,26 @@ public interface ProjectService extends UpdateProgressGenerator, Service {
      */
     void createProject(Group group, String name, ProjectType projectType, ProgressListener progressListener);
 
+    /**
+     * Creates new projects in the group on GitLab and creates their local copies.
+     *
+     * All names are checked with one list of projects. Remote projects are created at once and every created
+     * project is cloned, gets the structure of the type and is pushed without waiting for other projects.
+     *
+     * @param group the group where we create new projects
+     * @param names the names of new projects
+     * @param projectType the type in accordance with which the file structure on the disk will be created
+     * @param progressListener the listener which gets results of projects:
+     *        <code>onSuccess(project, message)</code> for every created project,
+     *        <code>onError(name, message)</code> for every failed project (and for every repeat of a name
+     *        in the list) and <code>onFinish(results, message)</code> at the end, where results is a map
+     *        of names to created projects (<code>null</code> for failed projects).
+     *
+     * This method nothing return and returns after all projects are processed.
+     */
+    void createProjects(Group group, Collection<String> names, ProjectType projectType,
+                        ProgressListener progressListener);
+
     /**
      * Clones shadow projects
      *
@@ -91,6 +153,26 @@ public interface ProjectService extends UpdateProgressGenerator, Service {
      */
     void updateProjectStatus(Project project);
 
+    /**
+     * Marks statuses of cloned projects as outdated without computing them.
+     *
+     * Outdated statuses are computed in the background at low priority. Projects which are requested by
+     * {@link #requestProjectStatuses(Collection)} (for example, visible or selected projects) are computed first.
+     *
+     * @param projects         the projects list
+     * @param progressListener the listener which gets <code>onSuccess(project)</code> when the status
+     *                         of a project is computed
+     */
+    void invalidateProjectStatuses(List<Project> projects, ProgressListener progressListener);
+
+    /**
+     * Computes outdated statuses of projects before statuses of other projects.
+     *
+     * @param  projects the projects whose statuses are needed
+     * @return the future which is completed when statuses of the projects are actual
+     */
+    CompletableFuture<Void> requestProjectStatuses(Collection<Project> projects);
+
     /**
      * Gets list of projects ids.
      *
@@ -107,6 +189,14 @@ public interface ProjectService extends UpdateProgressGenerator, Service {
      */
      List<Project> getCorrectProjects(List<Project> projects);
 
+     /**
+      * Filters projects as {@link #getCorrectProjects(List)} does, but doesn't wait for statuses of the projects.
+      *
+      * @param  projects the list which need to filter
+      * @return the future of the filtered list which is completed when statuses of the projects are actual
+      */
+     CompletableFuture<List<Project>> requestCorrectProjects(List<Project> projects);
+
      /**
       * Checks that project is cloned and doesn't have conflicts.
       *
@@ -3,34 +3,46 @@ package com.lgc.gitlabtool.git.services;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import com.google.gson.reflect.TypeToken;
 import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
+import com.lgc.gitlabtool.git.connections.InFlightRequests;
 import com.lgc.gitlabtool.git.connections.RESTConnector;
 import com.lgc.gitlabtool.git.connections.token.CurrentUser;
 import com.lgc.gitlabtool.git.entities.Group;
 import com.lgc.gitlabtool.git.entities.MessageType;
 import com.lgc.gitlabtool.git.entities.Project;
 import com.lgc.gitlabtool.git.entities.ProjectStatus;
+import com.lgc.gitlabtool.git.entities.ProjectStatusSnapshot;
+import com.lgc.gitlabtool.git.entities.User;
 import com.lgc.gitlabtool.git.jgit.JGit;
 import com.lgc.gitlabtool.git.listeners.stateListeners.ApplicationState;
 import com.lgc.gitlabtool.git.listeners.updateProgressListener.UpdateProgressListener;
 import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectType;
 import com.lgc.gitlabtool.git.util.PathUtilities;
+import com.lgc.gitlabtool.git.util.URLManager;
 
 public class ProjectServiceImpl implements ProjectService {
     private static final String GROUP_DOESNT_HAVE_PROJECTS_MESSAGE = "The group has no projects.";
@@ -38,7 +50,15 @@ public class ProjectServiceImpl implements ProjectService {
     private static final String TOTAL_PAGES_COUNT_HEADER = "X-Total-Pages";
     private static final int MAX_PROJECTS_COUNT_ON_THE_PAGE = 100;
     private static final int OK_CODE = 200;
-
+    private static final int CREATED_CODE = 201;
+
+    /**
+     * Count of threads which compute types and statuses of loaded projects
+     * and create local copies of new projects
+     */
+    private static final int WORKER_THREADS_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /** Count of threads which compute outdated statuses in the background */
+    private static final int STATUS_THREADS_COUNT = 2;
     private static final String CREATE_PROJECT_ERROR = "Failed creating of project";
     private static final String CREATE_LOCAL_PROJECT_SUCCESS_MESSAGE = "Local project was successfully created!";
     private static final String CREATE_LOCAL_PROJECT_FAILED_MESSAGE = "Failed creating local project!";
@@ -47,6 +67,7 @@ public class ProjectServiceImpl implements ProjectService {
     private static final String CREATE_STRUCTURES_TYPE_SUCCESS_MESSAGE = "Structure of type was successfully created!";
     private static final String CREATE_STRUCTURES_TYPE_FAILED_MESSAGE = "Failed creating structure of type!";
     private static final String PROJECT_ALREADY_EXISTS_MESSAGE = "Project with this name already exists!";
+    private static final String DUPLICATE_PROJECT_NAME_MESSAGE = "Project with this name is already in the list!";
     private static final String LOADING_PROJECT_MESSAGE_TEMPLATE = "%s loading of %s project";
     private static final String COULD_NOT_SUBMIT_OPERATION_MESSAGE = "Operation could not be submitted for %s project. "
             + "It is not cloned or has conflicts";
@@ -60,9 +81,16 @@ public class ProjectServiceImpl implements ProjectService {
     private ConsoleService _consoleService;
     private GitService _gitService;
     private JSONParserService _jsonParserService;
+    private StorageService _storageService;
 
     private final Set<UpdateProgressListener> _listeners = new HashSet<>();
-    private static int PROGRESS_LOADING = 0;
+    private final InFlightRequests<Collection<Project>> _inFlightProjectsRequests = new InFlightRequests<>();
+    private final ProjectStatusScheduler _statusScheduler = new ProjectStatusScheduler(this::computeProjectStatus,
+            STATUS_THREADS_COUNT);
+    private final ProjectStatusSnapshots _statusSnapshots = new ProjectStatusSnapshots();
+    /** The pool is shared by all loadings and creations, so they don't start threads every time */
+    private final ExecutorService _workerExecutor = Executors.newFixedThreadPool(WORKER_THREADS_COUNT,
+            getWorkerThreadFactory());
 
     public ProjectServiceImpl(RESTConnector connector,
                               ProjectTypeService projectTypeService,
@@ -71,6 +99,7 @@ public class ProjectServiceImpl implements ProjectService {
                               GitService gitService,
                               JSONParserService jsonParserService,
                               CurrentUser currentUser,
+                              StorageService storageService,
                               JGit git) {
         setConnector(connector);
         setProjectTypeService(projectTypeService);
@@ -79,6 +108,7 @@ public class ProjectServiceImpl implements ProjectService {
         setGitService(gitService);
         setCurrentUser(currentUser);
         setJSONParserService(jsonParserService);
+        setStorageService(storageService);
         setJGit(git);
     }
 
@@ -89,70 +119,282 @@ public class ProjectServiceImpl implements ProjectService {
         }
         _consoleService.addMessage("Sending a request to receive a list of projects from GitLab.", MessageType.SIMPLE);
         List<Group> groupWithItsSubGroups = new ArrayList<>();
-        addAllSubGroupsToList(Arrays.asList(group), groupWithItsSubGroups);
+        addAllSubGroupsToList(group, groupWithItsSubGroups);
+
+        Map<String, String> header = getCurrentPrivateToken();
+        if (header.isEmpty()) {
+            _consoleService.addMessage("Error getting projects from the GitLab", MessageType.ERROR);
+            return new ArrayList<>();
+        }
+        // requests for all subgroups are sent at once, the projects are joined in the order of groups
+        List<CompletableFuture<Collection<Project>>> projectsOfGroups = groupWithItsSubGroups.stream()
+                .map(this::getProjectsRequest)
+                .map(sendString -> _inFlightProjectsRequests.getOrStart(InFlightRequests.getKey(sendString, header),
+                        () -> getProjectsForAllPages(sendString, header)))
+                .collect(Collectors.toList());
 
         Collection<Project> allProjects = new ArrayList<>();
-        for (Group currentGroup : groupWithItsSubGroups) {
-            Map<String, String> header = getCurrentPrivateToken();
-            if (header.isEmpty()) {
-                _consoleService.addMessage("Error getting projects from the GitLab", MessageType.ERROR);
-            } else {
-                String sendString = "/groups/" + currentGroup.getId() + "/projects?per_page=" + MAX_PROJECTS_COUNT_ON_THE_PAGE;
-                Collection<Project> groupProjects = getProjectsForAllPages(sendString, header);
-                if (groupProjects == null) {
-                    return null;
-                }
-                allProjects.addAll(groupProjects);
+        for (CompletableFuture<Collection<Project>> projectsOfGroup : projectsOfGroups) {
+            Collection<Project> groupProjects = projectsOfGroup.join();
+            if (groupProjects == null) {
+                return null;
             }
+            allProjects.addAll(groupProjects);
         }
+        updateProjectsCache(group, allProjects);
         return allProjects;
     }
 
-    private void addAllSubGroupsToList(List<Group> subgroups, List<Group> allGroups) {
-        if (subgroups.isEmpty()) {
-            return;
+    @Override
+    public Collection<Project> loadCachedProjects(Group group) {
+        if (group == null || group.getPath() == null) {
+            return null;
+        }
+        String server = getServerName();
+        if (server == null || _storageService == null) {
+            return null;
         }
-        for (Group group : subgroups) {
-            allGroups.add(group);
-            addAllSubGroupsToList(group.getSubGroups(), allGroups);
+        List<Project> projects = _storageService.loadProjectsCache(server, getUsername(), group);
+        if (projects == null || projects.isEmpty()) {
+            return null;
+        }
+        ClonedProjectsIndex clonedProjectsIndex = new ClonedProjectsIndex(group, projects);
+        loadStatusSnapshots(group);
+        // the last known statuses are shown at once, they are revalidated when projects are loaded from the GitLab
+        projects.parallelStream()
+                .filter(clonedProjectsIndex::isCloned)
+                .forEach(project -> {
+                    setLocalPath(project, clonedProjectsIndex.getLocalPath(project));
+                    project.setProjectType(_projectTypeService.getProjectType(project));
+                    applyStatusSnapshot(project);
+                });
+        _consoleService.addMessage("The projects of " + group.getName() + " group have been loaded from the cache.",
+                MessageType.SIMPLE);
+        return projects;
+    }
+
+    @Override
+    public Collection<Project> refreshProjects(Group group, Collection<Project> projects) {
+        if (group == null) {
+            throw new IllegalArgumentException("Group can't be null.");
+        }
+        if (projects == null) {
+            return loadProjects(group);
+        }
+        Collection<Project> refreshedProjects;
+        _stateService.stateON(ApplicationState.LOAD_PROJECTS);
+        try {
+            refreshedProjects = getRefreshedProjects(group, projects);
+        } finally {
+            _stateService.stateOFF(ApplicationState.LOAD_PROJECTS);
+        }
+        if (refreshedProjects == null) {
+            _consoleService.addMessage("Failed refreshing projects of the " + group.getName() + " group",
+                    MessageType.ERROR);
+            return null;
+        }
+        _consoleService.addMessage("The projects of " + group.getName() + PREFIX_SUCCESSFUL_LOAD, MessageType.SUCCESS);
+        return refreshedProjects;
+    }
+
+    /**
+     * Requests the list of projects and merges it into the loaded projects by ids. Removed projects are dropped.
+     * Projects which have the same name, URL and local folder keep their objects, so their type and status
+     * aren't computed again. Cloned projects are detected for all projects, because projects could be
+     * cloned or deleted locally after the last loading.
+     *
+     * @return merged projects or <code>null</code> if the list of projects could not be loaded
+     */
+    private Collection<Project> getRefreshedProjects(Group group, Collection<Project> projects) {
+        Collection<Project> remoteProjects = getProjects(group);
+        if (remoteProjects == null) {
+            return null;
+        }
+        Map<Integer, Project> loadedProjects = new HashMap<>();
+        projects.forEach(project -> loadedProjects.put(project.getId(), project));
+
+        ClonedProjectsIndex clonedProjectsIndex = new ClonedProjectsIndex(group, remoteProjects);
+        List<Project> refreshedProjects = new ArrayList<>(remoteProjects.size());
+        List<Project> changedClonedProjects = new ArrayList<>();
+        for (Project remoteProject : remoteProjects) {
+            String localPath = clonedProjectsIndex.getLocalPath(remoteProject);
+            Project project = loadedProjects.get(remoteProject.getId());
+            if (project != null && isSameProject(project, remoteProject) && isSameLocalPath(project, localPath)) {
+                refreshedProjects.add(project);
+                continue;
+            }
+            refreshedProjects.add(remoteProject);
+            if (localPath != null) {
+                changedClonedProjects.add(remoteProject);
+            }
+        }
+        _logger.info(changedClonedProjects.size() + " cloned projects of the " + group.getName()
+                + " group were changed");
+        changedClonedProjects.parallelStream()
+                             .forEach(project -> updateDataProject(project, clonedProjectsIndex.getLocalPath(project)));
+        return refreshedProjects;
+    }
+
+    private boolean isSameProject(Project project, Project remoteProject) {
+        return Objects.equals(project.getName(), remoteProject.getName())
+                && Objects.equals(project.getHttpUrlToRepo(), remoteProject.getHttpUrlToRepo());
+    }
+
+    private boolean isSameLocalPath(Project project, String localPath) {
+        return project.isCloned() ? Objects.equals(project.getPath(), localPath) : localPath == null;
+    }
+
+    private String getProjectsRequest(Group group) {
+        return "/groups/" + group.getId() + "/projects?simple=true&per_page=" + MAX_PROJECTS_COUNT_ON_THE_PAGE;
+    }
+
+    private void updateProjectsCache(Group group, Collection<Project> projects) {
+        String server = getServerName();
+        if (server != null && _storageService != null) {
+            _storageService.updateProjectsCache(server, getUsername(), group, projects);
+        }
+    }
+
+    private String getServerName() {
+        String urlMainPart = getConnector().getUrlMainPart();
+        return urlMainPart == null ? null : URLManager.trimServerURL(urlMainPart);
+    }
+
+    private String getUsername() {
+        User user = _currentUser.getCurrentUser();
+        return user == null ? null : user.getUsername();
+    }
+
+    /**
+     * Adds the group and all its subgroups (depth-first, parents before children) to the list.
+     * The tree is walked with an explicit stack, so deep trees don't grow the call stack.
+     *
+     * @param group     the root group
+     * @param allGroups the list for the found groups
+     */
+    private void addAllSubGroupsToList(Group group, List<Group> allGroups) {
+        Deque<Group> stack = new ArrayDeque<>();
+        stack.push(group);
+        while (!stack.isEmpty()) {
+            Group current = stack.pop();
+            allGroups.add(current);
+            List<Group> subGroups = current.getSubGroups();
+            for (int i = subGroups.size() - 1; i >= 0; i--) {
+                stack.push(subGroups.get(i));
+            }
         }
     }
 
     @Override
     public Collection<Project> loadProjects(Group group) {
+        return loadProjects(group, EmptyProgressListener.get(), true);
+    }
+
+    @Override
+    public Collection<Project> loadProjects(Group group, ProgressListener progressListener) {
+        if (progressListener == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        return loadProjects(group, progressListener, false);
+    }
+
+    /**
+     * Loads projects by stages: the list of projects -> cloned projects -> types -> statuses.
+     * The first two stages are done by the calling thread, types and statuses are computed by the loading threads.
+     *
+     * @param isWaitingStatuses <code>true</code> if the method returns after statuses of all projects are computed
+     */
+    private Collection<Project> loadProjects(Group group, ProgressListener progressListener,
+                                             boolean isWaitingStatuses) {
         _stateService.stateON(ApplicationState.LOAD_PROJECTS);
         Collection<Project> projects = getProjects(group);
         if (projects == null) {
-            _stateService.stateOFF(ApplicationState.LOAD_PROJECTS);
+            finishLoading(progressListener, null, "Failed loading projects of the group");
             return null;
         }
         if (projects.isEmpty()) {
             _consoleService.addMessage(GROUP_DOESNT_HAVE_PROJECTS_MESSAGE, MessageType.ERROR);
-            _stateService.stateOFF(ApplicationState.LOAD_PROJECTS);
+            finishLoading(progressListener, projects, GROUP_DOESNT_HAVE_PROJECTS_MESSAGE);
             return Collections.emptyList();
         }
         String successMessage = "The projects of " + group.getName() + PREFIX_SUCCESSFUL_LOAD;
-        Path path = Paths.get(group.getPath());
-        Collection<String> projectsName = PathUtilities.getFolders(path);
-        if (projectsName.isEmpty()) {
+        // cloned projects get their local paths and last known statuses at once,
+        // so they can be shown before statuses are computed
+        ClonedProjectsIndex clonedProjectsIndex = new ClonedProjectsIndex(group, projects);
+        loadStatusSnapshots(group);
+        List<Project> clonedProjects = projects.stream()
+                                               .filter(clonedProjectsIndex::isCloned)
+                                               .peek(project -> {
+                                                   setLocalPath(project, clonedProjectsIndex.getLocalPath(project));
+                                                   applyStatusSnapshot(project);
+                                               })
+                                               .collect(Collectors.toList());
+        if (clonedProjects.isEmpty()) {
             _consoleService.addMessage(successMessage, MessageType.SUCCESS);
-            _stateService.stateOFF(ApplicationState.LOAD_PROJECTS);
+            finishLoading(progressListener, projects, successMessage);
             return projects;
         }
-        PROGRESS_LOADING = 0;
         _consoleService.addMessage("Getting statuses and types of projects...", MessageType.SIMPLE);
-        projects.parallelStream()
-                .peek(pr -> updateProgressIndicator(++PROGRESS_LOADING, projects.size()))
-                .filter(project -> isProjectCloned(project, group.getPath()))
-                .forEach((project) -> updateDataProject(project, group.getPath()));
-        _consoleService.addMessage(successMessage, MessageType.SUCCESS);
-        _stateService.stateOFF(ApplicationState.LOAD_PROJECTS);
+        CompletableFuture<Void> loading = loadTypesAndStatuses(clonedProjects, progressListener)
+                .whenComplete((result, exception) -> {
+                    _consoleService.addMessage(successMessage, MessageType.SUCCESS);
+                    finishLoading(progressListener, projects, successMessage);
+                });
+        if (isWaitingStatuses) {
+            loading.join();
+        }
         return projects;
     }
 
-    private boolean isProjectCloned(Project project, String groupPath) {
-        String localPath = groupPath + File.separator + project.getName();
-        return PathUtilities.isExistsAndDirectory(Paths.get(localPath));
+    /**
+     * Detects types and computes statuses of cloned projects. Every project is passed to
+     * <code>onSuccess(project)</code> of the listener as soon as its status is computed.
+     *
+     * @return the future which is completed when all projects are processed
+     */
+    private CompletableFuture<Void> loadTypesAndStatuses(List<Project> clonedProjects,
+                                                         ProgressListener progressListener) {
+        AtomicInteger countLoaded = new AtomicInteger();
+        List<CompletableFuture<Void>> loadings = new ArrayList<>();
+        for (Project project : clonedProjects) {
+            loadings.add(CompletableFuture
+                    .supplyAsync(() -> _projectTypeService.getProjectType(project), _workerExecutor)
+                    .thenAccept(projectType -> {
+                        _logger.debug(String.format(LOADING_PROJECT_MESSAGE_TEMPLATE, "Start", project.getName()));
+                        project.setProjectType(projectType);
+                        revalidateProjectStatus(project);
+                        _logger.debug(String.format(LOADING_PROJECT_MESSAGE_TEMPLATE, "Finish", project.getName()));
+                    })
+                    .whenComplete((result, exception) -> {
+                        if (exception != null) {
+                            _logger.error("Failed loading of " + project.getName() + " project: "
+                                    + exception.getMessage());
+                        }
+                        updateProgressIndicator(countLoaded.incrementAndGet(), clonedProjects.size());
+                        progressListener.onSuccess(project);
+                    }));
+        }
+        return CompletableFuture.allOf(loadings.toArray(new CompletableFuture<?>[loadings.size()]));
+    }
+
+    private ThreadFactory getWorkerThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "project-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private void finishLoading(ProgressListener progressListener, Collection<Project> projects, String message) {
+        saveStatusSnapshots();
+        _stateService.stateOFF(ApplicationState.LOAD_PROJECTS);
+        progressListener.onFinish(projects, message);
+    }
+
+    private void setLocalPath(Project project, String localPath) {
+        project.setPath(localPath);
+        project.setClonedStatus(true);
     }
 
     @Override
@@ -181,6 +423,103 @@ public class ProjectServiceImpl implements ProjectService {
         createLocalProject(project, group.getPath(), projectType, progressListener);
     }
 
+    @Override
+    public void createProjects(Group group, Collection<String> names, ProjectType projectType,
+                               ProgressListener progressListener) {
+        if (group == null || !group.isCloned() || names == null || names.isEmpty() || projectType == null
+                || progressListener == null) {
+            throw new IllegalArgumentException("Invalid paramenters");
+        }
+        Map<String, Project> results = Collections.synchronizedMap(new LinkedHashMap<>());
+        progressListener.onStart("Creating of " + names.size() + " projects in the " + group.getName() + " group");
+        // one list of projects for checking all names
+        Collection<Project> projects = getProjects(group);
+        Map<String, String> header = getCurrentPrivateToken();
+        if (projects == null || header.isEmpty()) {
+            progressListener.onFinish(results, CREATE_PROJECT_ERROR);
+            return;
+        }
+        Set<String> existingNames = projects.stream()
+                                            .map(Project::getName)
+                                            .collect(Collectors.toSet());
+        Set<String> checkedNames = new HashSet<>();
+        List<String> newNames = new ArrayList<>();
+        for (String name : names) {
+            if (!checkedNames.add(name)) {
+                // the first project with the name is created, repeats of the name fail
+                progressListener.onError(name, DUPLICATE_PROJECT_NAME_MESSAGE);
+            } else if (name == null || name.isEmpty() || existingNames.contains(name)) {
+                results.put(name, null);
+                progressListener.onError(name, PROJECT_ALREADY_EXISTS_MESSAGE);
+            } else {
+                newNames.add(name);
+            }
+        }
+        _consoleService.addMessage("Started creating " + newNames.size() + " projects in the " + group.getName()
+                + " group.", MessageType.SIMPLE);
+
+        // remote projects are created at once, every created project goes to the local creation immediately
+        List<CompletableFuture<Void>> pipelines = newNames.stream()
+                .map(name -> createRemoteProjectAsync(group, name, header)
+                        .thenAcceptAsync(project -> createLocalProject(project, name, group, projectType,
+                                progressListener, results), _workerExecutor)
+                        .handle((result, exception) -> {
+                            // a failed stage fails only its project, others are finished
+                            if (exception != null) {
+                                _logger.error("Failed creating of the " + name + " project: "
+                                        + exception.getMessage());
+                                results.put(name, null);
+                                progressListener.onError(name, CREATE_PROJECT_ERROR);
+                            }
+                            return result;
+                        }))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(pipelines.toArray(new CompletableFuture<?>[pipelines.size()])).join();
+
+        long countCreated = results.values().stream().filter(Objects::nonNull).count();
+        String finishedMessage = countCreated + " of " + names.size() + " projects were successfully created";
+        _consoleService.addMessage(finishedMessage, MessageType.determineMessageType(countCreated == names.size()));
+        progressListener.onFinish(results, finishedMessage);
+    }
+
+    private CompletableFuture<Project> createRemoteProjectAsync(Group group, String name, Map<String, String> header) {
+        Map<String, String> param = new HashMap<>();
+        param.put("name", name);
+        param.put("namespace_id", String.valueOf(group.getId()));
+        return getConnector().sendPostAsync("/projects", param, header)
+                .thenApply(httpResponse -> httpResponse.getResponseCode() == CREATED_CODE
+                        ? _jsonParserService.parseToObject(httpResponse.getBody(), Project.class) : null);
+    }
+
+    /**
+     * Clones the created remote project, creates the structure of the type and pushes it.
+     * It is a step of the batch creation, the result is put to the results map.
+     */
+    private void createLocalProject(Project project, String name, Group group, ProjectType projectType,
+                                    ProgressListener progressListener, Map<String, Project> results) {
+        if (project == null) {
+            results.put(name, null);
+            progressListener.onError(name, CREATE_REMOTE_PROJECT_FAILED_MESSAGE);
+            return;
+        }
+        String mainGroupPath = Paths.get(group.getPath()).getParent().toString();
+        if (!_git.clone(project, mainGroupPath)) {
+            results.put(name, null);
+            progressListener.onError(name, "Failed cloning the " + name + " project!");
+            return;
+        }
+        Set<String> structures = projectType.getStructures();
+        boolean isCreatedStructure = createStructuresType(structures, projectType, project);
+        commitAndPushStructures(project, structures, isCreatedStructure);
+        if (!isCreatedStructure) {
+            results.put(name, null);
+            progressListener.onError(name, "Failed creating the " + name + " project!");
+            return;
+        }
+        results.put(name, project);
+        progressListener.onSuccess(project, "The " + project.getName() + " project was successfully created!");
+    }
+
     @Override
     public void updateProjectStatuses(List<Project> projects) {
         if (projects == null || projects.isEmpty()) {
@@ -197,7 +536,93 @@ public class ProjectServiceImpl implements ProjectService {
         if (project == null || project.getPath() == null) {
             return;
         }
-        project.setProjectStatus(_gitService.getProjectStatus(project));
+        computeProjectStatus(project);
+        _statusScheduler.markActual(project);
+    }
+
+    @Override
+    public void invalidateProjectStatuses(List<Project> projects, ProgressListener progressListener) {
+        if (projects == null || progressListener == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        List<Project> clonedProjects = projects.stream()
+                                               .filter(project -> project.isCloned() && project.getPath() != null)
+                                               .collect(Collectors.toList());
+        _statusScheduler.invalidate(clonedProjects, progressListener);
+    }
+
+    @Override
+    public CompletableFuture<Void> requestProjectStatuses(Collection<Project> projects) {
+        if (projects == null || projects.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return _statusScheduler.request(projects);
+    }
+
+    private void computeProjectStatus(Project project) {
+        computeProjectStatus(project, null);
+    }
+
+    /**
+     * Computes the status of the project and remembers the index and HEAD commit which it was computed from.
+     * The status isn't computed if the stale snapshot was computed from the same index and HEAD commit.
+     */
+    private void computeProjectStatus(Project project, ProjectStatusSnapshot staleSnapshot) {
+        // the index and HEAD are read before the status, so changes made during computing aren't missed next time
+        long indexModifiedTime = _gitService.getIndexModifiedTime(project);
+        String headId = _gitService.getHeadId(project);
+        boolean isActual = staleSnapshot != null && staleSnapshot.isComputedFrom(indexModifiedTime, headId);
+        ProjectStatus status = isActual ? staleSnapshot.getStatus() : _gitService.getProjectStatus(project);
+        project.setProjectStatus(status);
+        _statusSnapshots.putActual(new ProjectStatusSnapshot(project.getId(), indexModifiedTime, headId, status));
+    }
+
+    /**
+     * Revalidates the stale status which was loaded from the snapshot (the status is computed if the project
+     * doesn't have the stale snapshot).
+     */
+    private void revalidateProjectStatus(Project project) {
+        if (project.getPath() == null) {
+            return;
+        }
+        computeProjectStatus(project, _statusSnapshots.takeStale(project));
+        _statusScheduler.markActual(project);
+    }
+
+    private void applyStatusSnapshot(Project project) {
+        ProjectStatus status = _statusSnapshots.getStatus(project);
+        if (status != null) {
+            project.setProjectStatus(status);
+        }
+    }
+
+    /**
+     * Loads snapshots of statuses of the group. Snapshots of the previous group are saved before.
+     * Snapshots of the same group aren't loaded again, because snapshots in memory are newer.
+     */
+    private void loadStatusSnapshots(Group group) {
+        Group snapshotsGroup = _statusSnapshots.getGroup();
+        if (snapshotsGroup != null && snapshotsGroup.getId() == group.getId()) {
+            return;
+        }
+        saveStatusSnapshots();
+        String server = getServerName();
+        List<ProjectStatusSnapshot> snapshots = server == null || _storageService == null ? null
+                : _storageService.loadStatusSnapshots(server, getUsername(), group);
+        _statusSnapshots.load(group, snapshots == null ? Collections.emptyList() : snapshots);
+    }
+
+    private void saveStatusSnapshots() {
+        Group group = _statusSnapshots.getGroup();
+        String server = getServerName();
+        if (group != null && server != null && _storageService != null) {
+            _storageService.updateStatusSnapshots(server, getUsername(), group, _statusSnapshots.getSnapshots());
+        }
+    }
+
+    @Override
+    public void dispose() {
+        saveStatusSnapshots();
     }
 
     @Override
@@ -260,12 +685,21 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     public List<Project> getCorrectProjects(List<Project> projects) {
+        return requestCorrectProjects(projects).join();
+    }
+
+    @Override
+    public CompletableFuture<List<Project>> requestCorrectProjects(List<Project> projects) {
         if (projects == null || projects.isEmpty()) {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
-        return projects.stream()
-                       .filter(this::projectIsClonedAndWithoutConflicts)
-                       .collect(Collectors.toList());
+        // the selection of the list can be changed before statuses are computed
+        List<Project> requestedProjects = new ArrayList<>(projects);
+        // only statuses of these projects are needed, other outdated statuses are computed later
+        return requestProjectStatuses(requestedProjects)
+                .thenApply(ignored -> requestedProjects.stream()
+                                                       .filter(this::isClonedAndWithoutConflicts)
+                                                       .collect(Collectors.toList()));
     }
 
     @Override
@@ -273,6 +707,11 @@ public class ProjectServiceImpl implements ProjectService {
         if (project == null) {
             return false;
         }
+        requestProjectStatuses(Collections.singletonList(project)).join();
+        return isClonedAndWithoutConflicts(project);
+    }
+
+    private boolean isClonedAndWithoutConflicts(Project project) {
         ProjectStatus projectStatus = project.getProjectStatus();
         boolean result = project.isCloned() && !projectStatus.hasConflicts();
         if (!result) {
@@ -293,30 +732,71 @@ public class ProjectServiceImpl implements ProjectService {
         return header;
     }
 
-    private Collection<Project> getProjectsForAllPages(String requestString, Map<String, String> header) {
-        HttpResponseHolder httpResponse = getConnector().sendGet(requestString, null, header);
+    /**
+     * Loads the first page of projects and after that requests all other pages at once.
+     *
+     * @return the future which is completed by projects of all pages or by <code>null</code>
+     *         if any page could not be loaded
+     */
+    private CompletableFuture<Collection<Project>> getProjectsForAllPages(String requestString,
+                                                                          Map<String, String> header) {
+        List<Project> firstPageProjects = new ArrayList<>();
+        AtomicBoolean isParsed = new AtomicBoolean();
+        return getConnector().sendGetAsync(requestString, null, header,
+                body -> isParsed.set(_jsonParserService.parseToObjects(body, Project.class, firstPageProjects::add)))
+                .thenCompose(httpResponse -> {
+                    if (!isPageLoaded(httpResponse, isParsed.get())) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    int countOfPages = getCountOfPages(httpResponse);
+                    List<CompletableFuture<List<Project>>> nextPages = new ArrayList<>();
+                    for (int i = 2; i <= countOfPages; i++) {
+                        nextPages.add(getProjectsOfPage(requestString + "&page=" + i, header));
+                    }
+                    return CompletableFuture.allOf(nextPages.toArray(new CompletableFuture<?>[nextPages.size()]))
+                            .thenApply(allPagesLoaded -> {
+                                Collection<Project> projects = new ArrayList<>(firstPageProjects);
+                                for (CompletableFuture<List<Project>> nextPage : nextPages) {
+                                    List<Project> pageProjects = nextPage.join();
+                                    // a part of the list must not be taken as the full list
+                                    if (pageProjects == null) {
+                                        return null;
+                                    }
+                                    projects.addAll(pageProjects);
+                                }
+                                return projects;
+                            });
+                });
+    }
+
+    /**
+     * Loads one page of projects.
+     *
+     * @return the future which is completed by projects of the page or by <code>null</code>
+     *         if the page could not be loaded
+     */
+    private CompletableFuture<List<Project>> getProjectsOfPage(String requestString, Map<String, String> header) {
+        List<Project> projects = new ArrayList<>();
+        AtomicBoolean isParsed = new AtomicBoolean();
+        return getConnector().sendGetAsync(requestString, null, header,
+                body -> isParsed.set(_jsonParserService.parseToObjects(body, Project.class, projects::add)))
+                .thenApply(httpResponse -> isPageLoaded(httpResponse, isParsed.get()) ? projects : null);
+    }
+
+    private boolean isPageLoaded(HttpResponseHolder httpResponse, boolean isParsed) {
         if (httpResponse.getResponseCode() != OK_CODE) {
             _consoleService.addMessage("Error from GitLab: " + httpResponse.getResponseMessage(), MessageType.ERROR);
-            return null;
+            return false;
         }
-        Object jsonProjects = httpResponse.getBody();
-        Collection<Project> projects = new ArrayList<>(_jsonParserService.parseToCollectionObjects(jsonProjects,
-                new TypeToken<List<Project>>() {}.getType()));
-
-        int countOfPages = getCountOfPages(httpResponse);
-        for (int i = 2; i <= countOfPages; i++) {
-            String nextPageString = requestString + "&page=" + i;
-            Object nextPageJSONProjects = getConnector().sendGet(nextPageString, null, header).getBody();
-            Collection<Project> nextPageProjects = new ArrayList<>(_jsonParserService.parseToCollectionObjects(nextPageJSONProjects,
-                    new TypeToken<List<Project>>() {}.getType()));
-            projects.addAll(nextPageProjects);
+        if (!isParsed) {
+            _consoleService.addMessage("Error reading the list of projects from GitLab", MessageType.ERROR);
+            return false;
         }
-
-        return projects;
+        return true;
     }
 
     private int getCountOfPages(HttpResponseHolder responseHolder) {
-        String header = responseHolder.getHeaderLines().get(TOTAL_PAGES_COUNT_HEADER).get(0);
+        String header = responseHolder.getHeaderValue(TOTAL_PAGES_COUNT_HEADER);
         return header != null ? Integer.parseInt(header) : 1;
     }
 
@@ -351,9 +831,9 @@ public class ProjectServiceImpl implements ProjectService {
         notifyListenersAboutChangesProgress(message);
     }
 
-    private void updateDataProject(Project project, String pathGroup) {
+    private void updateDataProject(Project project, String localPath) {
         _logger.debug(String.format(LOADING_PROJECT_MESSAGE_TEMPLATE, "Start", project.getName()));
-        project.setPath(pathGroup + File.separator + project.getName());
+        project.setPath(localPath);
         updateProjectTypeAndStatus(project);
         _logger.debug(String.format(LOADING_PROJECT_MESSAGE_TEMPLATE, "Finish", project.getName()));
     }
@@ -421,15 +901,7 @@ public class ProjectServiceImpl implements ProjectService {
         progressListener.onStart(statusCreatedStructureMessage);
 
         Project createdProject = projects.get(0); // list of projects always has one element
-        if (structures.size() > 0 && isCreatedStructure) {
-            _git.addUntrackedFilesToIndex(structures, createdProject);
-        }
-        // make first commit to GitLab repository
-        _git.commitAndPush(projects, "Created new project", null, null, null, null, EmptyProgressListener.get());
-
-        if (!isCreatedStructure) {
-            PathUtilities.deletePath(Paths.get(createdProject.getPath()));
-        }
+        commitAndPushStructures(createdProject, structures, isCreatedStructure);
         progressListener.onSuccess();
         String createLocalProjectMessage = isCreatedStructure ? CREATE_LOCAL_PROJECT_SUCCESS_MESSAGE
                                                               : CREATE_LOCAL_PROJECT_FAILED_MESSAGE;
@@ -441,6 +913,19 @@ public class ProjectServiceImpl implements ProjectService {
         progressListener.onFinish(isCreatedStructure ? createdProject : null, fineshedMessage);
     }
 
+    private void commitAndPushStructures(Project createdProject, Set<String> structures, boolean isCreatedStructure) {
+        if (structures.size() > 0 && isCreatedStructure) {
+            _git.addUntrackedFilesToIndex(structures, createdProject);
+        }
+        // make first commit to GitLab repository
+        _git.commitAndPush(Arrays.asList(createdProject), "Created new project", null, null, null, null,
+                EmptyProgressListener.get());
+
+        if (!isCreatedStructure) {
+            PathUtilities.deletePath(Paths.get(createdProject.getPath()));
+        }
+    }
+
     private void cloneWithoutState(List<Project> projects, String destinationPath, ProgressListener progressListener) {
         Path path = Paths.get(destinationPath);
         if (!PathUtilities.isExistsAndDirectory(path)) {
@@ -459,6 +944,12 @@ public class ProjectServiceImpl implements ProjectService {
         }
     }
 
+    private void setStorageService(StorageService storageService) {
+        if (storageService != null) {
+            _storageService = storageService;
+        }
+    }
+
     private void setGitService(GitService gitService) {
         if (gitService != null) {
             _gitService = gitService;
@@ -0,0 +1,221 @@
+package com.lgc.gitlabtool.git.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Computes outdated statuses of projects in the background.
+ *
+ * Outdated projects wait in two queues: the requested projects (for example, visible or selected in the UI)
+ * and all other projects. The requested projects are always computed first. Every outdated project has one
+ * task in the executor, the task takes the next project from the queues when it starts, so a project can be
+ * moved to the requested queue while it waits.
+ *
+ * Projects are compared by identity because their hash codes depend on mutable fields.
+ */
+class ProjectStatusScheduler {
+
+    private static final Logger _logger = LogManager.getLogger(ProjectStatusScheduler.class);
+
+    private final Consumer<Project> _statusUpdater;
+    private final ExecutorService _executor;
+
+    private final Map<ProjectKey, OutdatedStatus> _requested = new LinkedHashMap<>();
+    private final Map<ProjectKey, OutdatedStatus> _background = new LinkedHashMap<>();
+    /** Projects whose statuses are being computed now */
+    private final Map<Project, OutdatedStatus> _computing = new IdentityHashMap<>();
+
+    /**
+     * @param statusUpdater computes and sets the status of a project
+     * @param threadsCount  the count of threads which compute statuses
+     */
+    ProjectStatusScheduler(Consumer<Project> statusUpdater, int threadsCount) {
+        _statusUpdater = statusUpdater;
+        _executor = Executors.newFixedThreadPool(threadsCount, getThreadFactory());
+    }
+
+    /**
+     * Marks statuses of projects as outdated and puts them into the background queue.
+     * Projects which already wait in a queue keep their place.
+     *
+     * @param projects         the projects
+     * @param progressListener the listener which gets <code>onSuccess(project)</code> when the status is computed
+     */
+    synchronized void invalidate(Collection<Project> projects, ProgressListener progressListener) {
+        for (Project project : projects) {
+            ProjectKey key = new ProjectKey(project);
+            OutdatedStatus outdatedStatus = _requested.get(key);
+            if (outdatedStatus == null) {
+                outdatedStatus = _background.get(key);
+            }
+            if (outdatedStatus != null) {
+                outdatedStatus._listeners.add(progressListener);
+                continue;
+            }
+            _background.put(key, new OutdatedStatus(project, progressListener));
+            _executor.execute(this::computeNext);
+        }
+    }
+
+    /**
+     * Moves outdated projects to the requested queue.
+     *
+     * @param  projects the projects
+     * @return the future which is completed when statuses of all outdated projects are computed
+     *         (it is completed at once if statuses of projects aren't outdated)
+     */
+    synchronized CompletableFuture<Void> request(Collection<Project> projects) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (Project project : projects) {
+            ProjectKey key = new ProjectKey(project);
+            OutdatedStatus outdatedStatus = _background.remove(key);
+            if (outdatedStatus != null) {
+                _requested.put(key, outdatedStatus);
+            } else {
+                outdatedStatus = findOutdatedStatus(project);
+            }
+            if (outdatedStatus != null) {
+                futures.add(outdatedStatus._future);
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+    }
+
+    /**
+     * Checks that the status of the project is outdated (it waits in a queue or it is being computed)
+     *
+     * @param  project the project
+     * @return <code>true</code> if the status is outdated, otherwise <code>false</code>
+     */
+    synchronized boolean isOutdated(Project project) {
+        return findOutdatedStatus(project) != null;
+    }
+
+    /**
+     * Removes the project from the queues because its status was computed by another way.
+     *
+     * @param project the project
+     */
+    void markActual(Project project) {
+        OutdatedStatus outdatedStatus;
+        synchronized (this) {
+            ProjectKey key = new ProjectKey(project);
+            outdatedStatus = _requested.remove(key);
+            if (outdatedStatus == null) {
+                outdatedStatus = _background.remove(key);
+            }
+        }
+        if (outdatedStatus != null) {
+            outdatedStatus.complete();
+        }
+    }
+
+    private void computeNext() {
+        OutdatedStatus outdatedStatus = pollNext();
+        if (outdatedStatus == null) {
+            // the project was computed by another way
+            return;
+        }
+        try {
+            _statusUpdater.accept(outdatedStatus._project);
+        } catch (Exception e) {
+            _logger.error("Failed computing status of " + outdatedStatus._project.getName() + " project: "
+                    + e.getMessage());
+        } finally {
+            synchronized (this) {
+                // the project can be outdated again and computed by another thread
+                _computing.remove(outdatedStatus._project, outdatedStatus);
+            }
+            outdatedStatus.complete();
+        }
+    }
+
+    private synchronized OutdatedStatus pollNext() {
+        Map<ProjectKey, OutdatedStatus> queue = !_requested.isEmpty() ? _requested : _background;
+        Iterator<OutdatedStatus> iterator = queue.values().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        OutdatedStatus outdatedStatus = iterator.next();
+        iterator.remove();
+        _computing.put(outdatedStatus._project, outdatedStatus);
+        return outdatedStatus;
+    }
+
+    private OutdatedStatus findOutdatedStatus(Project project) {
+        ProjectKey key = new ProjectKey(project);
+        OutdatedStatus outdatedStatus = _requested.get(key);
+        if (outdatedStatus == null) {
+            outdatedStatus = _background.get(key);
+        }
+        return outdatedStatus != null ? outdatedStatus : _computing.get(project);
+    }
+
+    private ThreadFactory getThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "project-status-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+
+    /** Key which compares projects by identity */
+    private static final class ProjectKey {
+        private final Project _project;
+
+        ProjectKey(Project project) {
+            _project = project;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(_project);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ProjectKey && ((ProjectKey) obj)._project == _project;
+        }
+    }
+
+    private static class OutdatedStatus {
+        private final Project _project;
+        private final List<ProgressListener> _listeners = new ArrayList<>();
+        private final CompletableFuture<Void> _future = new CompletableFuture<>();
+
+        OutdatedStatus(Project project, ProgressListener progressListener) {
+            _project = project;
+            _listeners.add(progressListener);
+        }
+
+        /**
+         * Notifies listeners and then completes the future, so a caller which waits for the future
+         * sees all notifications.
+         */
+        void complete() {
+            try {
+                _listeners.forEach(listener -> listener.onSuccess(_project));
+            } finally {
+                _future.complete(null);
+            }
+        }
+    }
+}
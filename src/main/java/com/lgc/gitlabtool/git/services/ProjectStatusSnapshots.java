@@ -0,0 +1,92 @@
+package com.lgc.gitlabtool.git.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.entities.ProjectStatus;
+import com.lgc.gitlabtool.git.entities.ProjectStatusSnapshot;
+
+/**
+ * Snapshots of statuses of projects of the current group.
+ *
+ * Snapshots which were loaded from the storage are stale: their statuses are shown at once, but every stale
+ * snapshot must be revalidated once by the index and HEAD commit of its project. Snapshots of statuses
+ * which were computed in this session are actual, they are only saved to the storage.
+ */
+class ProjectStatusSnapshots {
+
+    private volatile Group _group;
+    private final Map<Integer, ProjectStatusSnapshot> _staleSnapshots = new ConcurrentHashMap<>();
+    private final Map<Integer, ProjectStatusSnapshot> _actualSnapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces snapshots by the loaded snapshots of the group. All loaded snapshots are stale.
+     *
+     * @param group     the group
+     * @param snapshots the snapshots from the storage
+     */
+    synchronized void load(Group group, Collection<ProjectStatusSnapshot> snapshots) {
+        _group = group;
+        _staleSnapshots.clear();
+        _actualSnapshots.clear();
+        snapshots.forEach(snapshot -> _staleSnapshots.put(snapshot.getProjectId(), snapshot));
+    }
+
+    /**
+     * Gets the group of snapshots
+     *
+     * @return the group or <code>null</code> if snapshots weren't loaded
+     */
+    Group getGroup() {
+        return _group;
+    }
+
+    /**
+     * Gets the last known status of the project
+     *
+     * @param  project the project
+     * @return the status or <code>null</code> if the project doesn't have a snapshot
+     */
+    ProjectStatus getStatus(Project project) {
+        ProjectStatusSnapshot snapshot = _actualSnapshots.get(project.getId());
+        if (snapshot == null) {
+            snapshot = _staleSnapshots.get(project.getId());
+        }
+        return snapshot == null ? null : snapshot.getStatus();
+    }
+
+    /**
+     * Takes the stale snapshot of the project for revalidation. The snapshot is taken once.
+     *
+     * @param  project the project
+     * @return the snapshot or <code>null</code> if the project doesn't have a stale snapshot
+     */
+    ProjectStatusSnapshot takeStale(Project project) {
+        return _staleSnapshots.remove(project.getId());
+    }
+
+    /**
+     * Puts the snapshot of the status which was computed (or revalidated) in this session
+     *
+     * @param snapshot the snapshot
+     */
+    void putActual(ProjectStatusSnapshot snapshot) {
+        _staleSnapshots.remove(snapshot.getProjectId());
+        _actualSnapshots.put(snapshot.getProjectId(), snapshot);
+    }
+
+    /**
+     * Gets all snapshots for saving to the storage
+     *
+     * @return actual snapshots and stale snapshots of projects without actual ones
+     */
+    synchronized Collection<ProjectStatusSnapshot> getSnapshots() {
+        Map<Integer, ProjectStatusSnapshot> snapshots = new HashMap<>(_staleSnapshots);
+        snapshots.putAll(_actualSnapshots);
+        return snapshots.values();
+    }
+}
@@ -1,15 +1,22 @@
 package com.lgc.gitlabtool.git.services;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.lgc.gitlabtool.git.entities.Project;
 import com.lgc.gitlabtool.git.project.nature.projecttype.DSGProjectType;
+import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectFiles;
 import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectType;
+import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectTypesMatcher;
 
 /**
  * Service for working with a type of projects
@@ -18,10 +25,15 @@ import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectType;
  */
 public class ProjectTypeServiceImpl implements ProjectTypeService {
     private final Set<ProjectType> _types;
+    /** The matcher compiled from registered types, it is compiled again when a type is registered */
+    private volatile ProjectTypesMatcher _matcher;
+    /** Detected types by paths of projects. A type is actual while listed directories aren't modified. */
+    private final Map<String, DetectedType> _detectedTypes = new ConcurrentHashMap<>();
 
     public ProjectTypeServiceImpl() {
-        _types = new HashSet<>();
+        _types = new LinkedHashSet<>();
         initProjectTypes();
+        _matcher = new ProjectTypesMatcher(_types);
     }
 
     @Override
@@ -30,32 +42,65 @@ public class ProjectTypeServiceImpl implements ProjectTypeService {
             throw new IllegalArgumentException("Invalid data. Project is null.");
         }
         String path = project.getPath();
-        if (path != null) {
-            for (ProjectType projectType : _types) {
-                if (projectType.isProjectCorrespondsType(path)) {
-                    return projectType;
-                }
-            }
+        if (path == null) {
+            return UNKNOWN_TYPE;
+        }
+        DetectedType detectedType = _detectedTypes.get(path);
+        if (detectedType != null && detectedType.isActual()) {
+            return detectedType._type;
+        }
+        // all types are checked by one listing of the project directories
+        ProjectFiles projectFiles = new ProjectFiles(Paths.get(path));
+        ProjectType projectType = projectFiles.call(() -> detectProjectType(path));
+        Map<Path, Long> modifiedTimes = projectFiles.getModifiedTimes();
+        if (!modifiedTimes.isEmpty() && !modifiedTimes.containsValue(-1L)) {
+            _detectedTypes.put(path, new DetectedType(projectType, modifiedTimes));
+        } else {
+            _detectedTypes.remove(path);
         }
-        return UNKNOWN_TYPE;
+        return projectType;
+    }
+
+    private ProjectType detectProjectType(String path) {
+        ProjectType projectType = _matcher.match(path);
+        return projectType != null ? projectType : UNKNOWN_TYPE;
     }
 
     @Override
     public ProjectType getTypeById(String idType) {
-        if (idType != null) {
-            for (ProjectType projectType : _types) {
-                if (projectType.getId().equals(idType)) {
-                    return projectType;
-                }
-            }
-        }
-        return UNKNOWN_TYPE;
+        ProjectType projectType = _matcher.getTypeById(idType);
+        return projectType != null ? projectType : UNKNOWN_TYPE;
     }
 
+    /**
+     * Adds types of projects to {@link #getSetProjectTypes()}. It is called once by the constructor,
+     * the matcher is compiled after it.
+     */
     protected void initProjectTypes() {
         _types.add(new DSGProjectType());
     }
 
+    /**
+     * Registers the type of projects after the service was created. The matcher is compiled again
+     * and detected types are forgotten, so projects are checked by the new type too.
+     *
+     * @param projectType the type of projects
+     */
+    protected void registerProjectType(ProjectType projectType) {
+        synchronized (_types) {
+            if (_types.add(projectType)) {
+                _matcher = new ProjectTypesMatcher(_types);
+                _detectedTypes.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets registered types of projects. The set can be changed only by {@link #initProjectTypes()},
+     * later types are registered by {@link #registerProjectType(ProjectType)}.
+     *
+     * @return the set of types
+     */
     protected Set<ProjectType> getSetProjectTypes() {
         return _types;
     }
@@ -67,4 +112,19 @@ public class ProjectTypeServiceImpl implements ProjectTypeService {
         ids.add(UNKNOWN_TYPE.getId());
         return Collections.unmodifiableList(ids);
     }
+
+    private static class DetectedType {
+        private final ProjectType _type;
+        private final Map<Path, Long> _modifiedTimes;
+
+        DetectedType(ProjectType type, Map<Path, Long> modifiedTimes) {
+            _type = type;
+            _modifiedTimes = new HashMap<>(modifiedTimes);
+        }
+
+        boolean isActual() {
+            return _modifiedTimes.entrySet().stream()
+                                 .allMatch(entry -> ProjectFiles.getModifiedTime(entry.getKey()) == entry.getValue());
+        }
+    }
 }
@@ -32,16 +32,18 @@ public class ServiceProvider {
         BackgroundService backgroundService = new BackgroundServiceImpl();
         ApplicationPreferences applicationPreferences = new ApplicationPreferences();
         JGit jGit = new JGit(backgroundService);
-        RESTConnector restConnector = RESTConnectorFactory.getInstance().getRESTConnector();
+        RESTConnectorFactory restConnectorFactory = RESTConnectorFactory.getInstance();
+        RESTConnector restConnector = restConnectorFactory.getRESTConnector();
         JSONParserService jsonParserService = new JSONParserServiceImpl();
-        LoginService loginService = new LoginServiceImpl(restConnector, backgroundService, jsonParserService);
+        LoginService loginService = new LoginServiceImpl(restConnector, backgroundService, jsonParserService,
+                restConnectorFactory::getRESTConnector);
         StorageService storageService = new StorageServiceImpl();
         ProjectTypeService projectTypeService = new ProjectTypeServiceImpl();
         StateService stateService = new StateServiceImpl();
         ConsoleService consoleService = new ConsoleServiceImpl();
         GitService gitService = new GitServiceImpl(stateService, jGit, new ChangedFilesUtils());
         ProjectService projectService = new ProjectServiceImpl(restConnector, projectTypeService,
-                stateService, consoleService, gitService, jsonParserService, CurrentUser.getInstance(), jGit);
+                stateService, consoleService, gitService, jsonParserService, CurrentUser.getInstance(), storageService, jGit);
         ClonedGroupsService programPropertiesService = new ClonedGroupsServiceImpl(storageService, loginService);
         PomXmlEditService pomXmlEditService = new PomXMLEditServiceImpl();
         ThemeService themeService = new ThemeServiceImpl(applicationPreferences);
@@ -50,7 +52,7 @@ public class ServiceProvider {
         _services.put(LoginService.class, loginService);
         _services.put(ClonedGroupsService.class, programPropertiesService);
         _services.put(GroupService.class, new GroupServiceImpl(restConnector, programPropertiesService,
-                projectService, stateService, consoleService, jsonParserService, jGit));
+                projectService, stateService, consoleService, jsonParserService, storageService, jGit));
         _services.put(ProjectService.class, projectService);
         _services.put(StorageService.class, storageService);
         _services.put(ReplacementService.class, new ReplacementServiceImpl());
@@ -64,6 +66,8 @@ public class ServiceProvider {
         _services.put(BackgroundService.class, backgroundService);
         _services.put(ApplicationPreferences.class, applicationPreferences);
         _services.put(JSONParserService.class, jsonParserService);
+        _services.put(MergeRequestService.class, new MergeRequestServiceImpl(restConnector, consoleService,
+                CurrentUser.getInstance()));
     }
 
     public void stop() {
@@ -1,9 +1,12 @@
 package com.lgc.gitlabtool.git.services;
 
 
+import java.util.Collection;
 import java.util.List;
 
 import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.entities.ProjectStatusSnapshot;
 import com.lgc.gitlabtool.git.xml.Server;
 import com.lgc.gitlabtool.git.xml.Servers;
 /**
@@ -67,4 +70,68 @@ public interface StorageService extends Service {
      * @return last used server
      */
     Server getLastUsedServer();
+
+    /**
+     * Saves the last known groups of the GitLab to the local metadata cache.
+     * Only the data received from the GitLab is stored (one group per line).
+     *
+     * @param server   Name of current git-server
+     * @param username Name of current user
+     * @param groups   all groups which were got from the GitLab (including subgroups)
+     * @return <code>true</code> if the cache was updated successfully or <code>false</code> if not
+     */
+    boolean updateGroupsCache(String server, String username, Collection<Group> groups);
+
+    /**
+     * Loads the last known groups from the local metadata cache.
+     *
+     * @param server   Name of current git-server
+     * @param username Name of current user
+     * @return a flat list of cached groups (subgroups aren't set) or an empty list if the cache doesn't exist
+     */
+    List<Group> loadGroupsCache(String server, String username);
+
+    /**
+     * Saves the last known projects of the group to the local metadata cache.
+     * Only the data received from the GitLab is stored (one project per line).
+     *
+     * @param server   Name of current git-server
+     * @param username Name of current user
+     * @param group    the group of projects
+     * @param projects the projects of the group (including projects of subgroups)
+     * @return <code>true</code> if the cache was updated successfully or <code>false</code> if not
+     */
+    boolean updateProjectsCache(String server, String username, Group group, Collection<Project> projects);
+
+    /**
+     * Loads the last known projects of the group from the local metadata cache.
+     *
+     * @param server   Name of current git-server
+     * @param username Name of current user
+     * @param group    the group of projects
+     * @return a list of cached projects or an empty list if the cache doesn't exist
+     */
+    List<Project> loadProjectsCache(String server, String username, Group group);
+
+    /**
+     * Saves the last computed statuses of projects of the group to the local cache.
+     *
+     * @param server    Name of current git-server
+     * @param username  Name of current user
+     * @param group     the group of projects
+     * @param snapshots the snapshots of statuses of cloned projects
+     * @return <code>true</code> if the cache was updated successfully or <code>false</code> if not
+     */
+    boolean updateStatusSnapshots(String server, String username, Group group,
+                                  Collection<ProjectStatusSnapshot> snapshots);
+
+    /**
+     * Loads the last computed statuses of projects of the group from the local cache.
+     *
+     * @param server   Name of current git-server
+     * @param username Name of current user
+     * @param group    the group of projects
+     * @return a list of snapshots or an empty list if the cache doesn't exist
+     */
+    List<ProjectStatusSnapshot> loadStatusSnapshots(String server, String username, Group group);
 }
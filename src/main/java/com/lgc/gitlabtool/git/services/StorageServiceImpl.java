@@ -1,10 +1,16 @@
 package com.lgc.gitlabtool.git.services;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -14,8 +20,17 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
 import com.lgc.gitlabtool.git.entities.ClonedGroups;
 import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.entities.ProjectStatusSnapshot;
+import com.lgc.gitlabtool.git.util.ProjectJsonAdapter;
 import com.lgc.gitlabtool.git.util.XMLParser;
 import com.lgc.gitlabtool.git.xml.Server;
 import com.lgc.gitlabtool.git.xml.Servers;
@@ -29,11 +44,37 @@ public class StorageServiceImpl implements StorageService {
     private static final String PATH_SEPARATOR = File.separator;
     private static final String CLONED_GROUPS_FILENAME = "clonedGroups.xml";
     private static final String SERVERS_FILENAME = "servers.xml";
+    private static final String CACHE_DIRECTORY = "cache";
+    private static final String GROUPS_CACHE_FILENAME = "groups.jsonl";
+    private static final String PROJECTS_CACHE_FILENAME_TEMPLATE = "projects_%d.jsonl";
+    private static final String STATUSES_CACHE_FILENAME_TEMPLATE = "statuses_%d.jsonl";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
 
     private final String _workingDirectory;
 
+    /**
+     * Writes and reads only the fields which we get from the GitLab (fields with the SerializedName annotation).
+     * Local data (paths, statuses, types) is always computed again after loading from the cache.
+     */
+    private final Gson _cacheGson;
+    /** Writes and reads all fields of snapshots of statuses (they are computed locally) */
+    private final Gson _snapshotsGson;
+
     public StorageServiceImpl() {
-        _workingDirectory = System.getProperty(USER_HOME_PROPERTY) + PATH_SEPARATOR + WORKSPACE_DIRECTORY_PROPERTY;
+        this(System.getProperty(USER_HOME_PROPERTY) + PATH_SEPARATOR + WORKSPACE_DIRECTORY_PROPERTY);
+    }
+
+    /**
+     * Creates the storage in the working directory
+     *
+     * @param workingDirectory the directory of all files of the storage
+     */
+    StorageServiceImpl(String workingDirectory) {
+        _workingDirectory = workingDirectory;
+        _cacheGson = new GsonBuilder().setExclusionStrategies(new RemoteFieldsExclusionStrategy())
+                                      .registerTypeAdapter(Project.class, new ProjectJsonAdapter())
+                                      .create();
+        _snapshotsGson = new Gson();
     }
 
     @Override
@@ -96,6 +137,19 @@ public class StorageServiceImpl implements StorageService {
         return getFile(propertyFilePath);
     }
 
+    private Path getCacheFilePath(String server, String username, String fileName) {
+        return Paths.get(_workingDirectory + PATH_SEPARATOR + server + PATH_SEPARATOR + username
+                + PATH_SEPARATOR + CACHE_DIRECTORY + PATH_SEPARATOR + fileName);
+    }
+
+    private String getProjectsCacheFileName(Group group) {
+        return String.format(PROJECTS_CACHE_FILENAME_TEMPLATE, group.getId());
+    }
+
+    private String getStatusesCacheFileName(Group group) {
+        return String.format(STATUSES_CACHE_FILENAME_TEMPLATE, group.getId());
+    }
+
     private File getServersFile() throws IOException {
         Path serversFilePath = Paths.get(_workingDirectory + PATH_SEPARATOR + SERVERS_FILENAME);
         return getFile(serversFilePath);
@@ -145,4 +199,120 @@ public class StorageServiceImpl implements StorageService {
                 .findAny()
                 .orElse(null);
     }
+
+    @Override
+    public boolean updateGroupsCache(String server, String username, Collection<Group> groups) {
+        if (server == null || username == null || groups == null) {
+            return false;
+        }
+        return writeCache(getCacheFilePath(server, username, GROUPS_CACHE_FILENAME), groups);
+    }
+
+    @Override
+    public List<Group> loadGroupsCache(String server, String username) {
+        if (server == null || username == null) {
+            return Collections.emptyList();
+        }
+        return readCache(getCacheFilePath(server, username, GROUPS_CACHE_FILENAME), Group.class);
+    }
+
+    @Override
+    public boolean updateProjectsCache(String server, String username, Group group, Collection<Project> projects) {
+        if (server == null || username == null || group == null || projects == null) {
+            return false;
+        }
+        return writeCache(getCacheFilePath(server, username, getProjectsCacheFileName(group)), projects);
+    }
+
+    @Override
+    public List<Project> loadProjectsCache(String server, String username, Group group) {
+        if (server == null || username == null || group == null) {
+            return Collections.emptyList();
+        }
+        return readCache(getCacheFilePath(server, username, getProjectsCacheFileName(group)), Project.class);
+    }
+
+    @Override
+    public boolean updateStatusSnapshots(String server, String username, Group group,
+                                         Collection<ProjectStatusSnapshot> snapshots) {
+        if (server == null || username == null || group == null || snapshots == null) {
+            return false;
+        }
+        return writeCache(getCacheFilePath(server, username, getStatusesCacheFileName(group)), snapshots,
+                _snapshotsGson);
+    }
+
+    @Override
+    public List<ProjectStatusSnapshot> loadStatusSnapshots(String server, String username, Group group) {
+        if (server == null || username == null || group == null) {
+            return Collections.emptyList();
+        }
+        return readCache(getCacheFilePath(server, username, getStatusesCacheFileName(group)),
+                ProjectStatusSnapshot.class, _snapshotsGson);
+    }
+
+    /**
+     * Writes objects to the file in JSON-lines format. At first data is written to a temporary file
+     * and then the file is moved in place, so readers never see a partially written cache.
+     */
+    private boolean writeCache(Path path, Collection<?> objects) {
+        return writeCache(path, objects, _cacheGson);
+    }
+
+    private boolean writeCache(Path path, Collection<?> objects, Gson gson) {
+        Path tempPath = Paths.get(path.toString() + TEMP_FILE_SUFFIX);
+        try {
+            Files.createDirectories(path.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                for (Object object : objects) {
+                    writer.write(gson.toJson(object));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            _logger.error("Error updating cache " + path + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private <T> List<T> readCache(Path path, Class<T> classObject) {
+        return readCache(path, classObject, _cacheGson);
+    }
+
+    private <T> List<T> readCache(Path path, Class<T> classObject, Gson gson) {
+        if (!Files.isRegularFile(path)) {
+            return Collections.emptyList();
+        }
+        List<T> objects = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    objects.add(gson.fromJson(line, classObject));
+                }
+            }
+            return objects;
+        } catch (IOException | JsonParseException e) {
+            _logger.error("Error loading cache " + path + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Skips all fields which don't have the {@link SerializedName} annotation.
+     */
+    private static class RemoteFieldsExclusionStrategy implements ExclusionStrategy {
+
+        @Override
+        public boolean shouldSkipField(FieldAttributes field) {
+            return field.getAnnotation(SerializedName.class) == null;
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> clazz) {
+            return false;
+        }
+    }
 }
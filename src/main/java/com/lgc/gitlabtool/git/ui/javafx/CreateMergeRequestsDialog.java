@@ -0,0 +1,125 @@
+package com.lgc.gitlabtool.git.ui.javafx;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.lgc.gitlabtool.git.entities.Branch;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.jgit.BranchType;
+import com.lgc.gitlabtool.git.services.BackgroundService;
+import com.lgc.gitlabtool.git.services.EmptyProgressListener;
+import com.lgc.gitlabtool.git.services.GitService;
+import com.lgc.gitlabtool.git.services.MergeRequestService;
+import com.lgc.gitlabtool.git.services.ServiceProvider;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+
+/**
+ * Dialog for creating merge requests from the current branches of the selected projects to one target branch.
+ */
+public class CreateMergeRequestsDialog extends GLTDialog<String> {
+
+    private static final String DIALOG_TITLE = "Create merge requests";
+    private static final String STATUS_DIALOG_TITLE = "Merge requests creating status";
+    private static final String STATUS_DIALOG_HEADER = "Merge requests creating info";
+    private static final String ORIGIN_PREFIX = "origin/";
+
+    private static final GitService _gitService = ServiceProvider.getInstance().getService(GitService.class);
+    private static final MergeRequestService _mergeRequestService = ServiceProvider.getInstance()
+            .getService(MergeRequestService.class);
+    private static final BackgroundService _backgroundService = ServiceProvider.getInstance()
+            .getService(BackgroundService.class);
+
+    private final List<Project> _projects;
+    private final ComboBox<String> _targetBranchBox;
+    private final TextField _titleField;
+    private final Button _createButton;
+
+    public CreateMergeRequestsDialog(List<Project> projects) {
+        super(DIALOG_TITLE);
+        _projects = projects;
+
+        GridPane grid = new GridPane();
+        grid.setAlignment(Pos.CENTER_LEFT);
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(25, 25, 25, 25));
+
+        grid.add(new Label("Merge requests from the current branches of " + projects.size()
+                + " selected projects"), 0, 1, 3, 1);
+
+        grid.add(new Label("Target branch: "), 0, 2);
+        _targetBranchBox = new ComboBox<>(getBoxOptions());
+        _targetBranchBox.valueProperty().addListener((observable, oldValue, newValue) -> updateCreateButton());
+        grid.add(_targetBranchBox, 1, 2, 2, 1);
+
+        grid.add(new Label("Title: "), 0, 3);
+        _titleField = new TextField();
+        _titleField.textProperty().addListener((observable, oldValue, newValue) -> updateCreateButton());
+        grid.add(_titleField, 1, 3, 2, 1);
+
+        _createButton = new Button("Create");
+        _createButton.setDisable(true);
+        _createButton.setDefaultButton(true);
+        _createButton.setOnAction(this::onCreateButton);
+
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(event -> getStage().close());
+
+        HBox hbBtn = new HBox(10);
+        hbBtn.setAlignment(Pos.BOTTOM_RIGHT);
+        hbBtn.getChildren().addAll(_createButton, cancelButton);
+        grid.add(hbBtn, 2, 5);
+
+        setDialogContent(grid);
+        getDialogPane().getScene().getWindow().setOnCloseRequest(event -> getStage().close());
+    }
+
+    private ObservableList<String> getBoxOptions() {
+        Set<Branch> branches = _gitService.getBranches(_projects, BranchType.REMOTE, true);
+        Set<String> branchesNames = branches.stream()
+                                            .map(Branch::getBranchName)
+                                            .map(name -> name.startsWith(ORIGIN_PREFIX)
+                                                    ? name.substring(ORIGIN_PREFIX.length()) : name)
+                                            .collect(Collectors.toSet());
+        return FXCollections.observableArrayList(branchesNames).sorted();
+    }
+
+    private void updateCreateButton() {
+        String targetBranch = _targetBranchBox.getValue();
+        _createButton.setDisable(targetBranch == null || targetBranch.isEmpty()
+                || _titleField.getText().trim().isEmpty());
+    }
+
+    private void onCreateButton(ActionEvent event) {
+        String targetBranch = _targetBranchBox.getValue();
+        String title = _titleField.getText().trim();
+        getStage().close();
+        _backgroundService.runInBackgroundThread(() -> {
+            Map<Project, Boolean> results = _mergeRequestService.createMergeRequests(_projects, targetBranch, title,
+                    EmptyProgressListener.get());
+            Platform.runLater(() -> createAndShowStatusDialog(results));
+        });
+    }
+
+    private void createAndShowStatusDialog(Map<Project, Boolean> results) {
+        String collapsedMessage = "Merge requests have been created in %s selected projects";
+
+        StatusDialog statusDialog = new StatusDialog(STATUS_DIALOG_TITLE, STATUS_DIALOG_HEADER);
+        statusDialog.showMessageForSimpleStatuses(results, _projects.size(), collapsedMessage);
+        statusDialog.show();
+    }
+}
@@ -3,15 +3,21 @@ package com.lgc.gitlabtool.git.ui.javafx.controllers;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang.StringUtils;
 
+import com.lgc.gitlabtool.git.connections.RequestPriority;
 import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.User;
 import com.lgc.gitlabtool.git.listeners.stateListeners.ApplicationState;
 import com.lgc.gitlabtool.git.preferences.ApplicationPreferences;
 import com.lgc.gitlabtool.git.preferences.PreferencesNodes;
+import com.lgc.gitlabtool.git.services.BackgroundService;
 import com.lgc.gitlabtool.git.services.GroupService;
 import com.lgc.gitlabtool.git.services.LoginService;
 import com.lgc.gitlabtool.git.services.ServiceProvider;
@@ -19,6 +25,7 @@ import com.lgc.gitlabtool.git.ui.javafx.listeners.OperationProgressListener;
 import com.lgc.gitlabtool.git.ui.javafx.progressdialog.CloneProgressDialog;
 import com.lgc.gitlabtool.git.util.PathUtilities;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.Event;
@@ -41,6 +48,9 @@ public class CloningGroupsWindowController {
     private final GroupService _groupsService = ServiceProvider.getInstance()
             .getService(GroupService.class);
 
+    private final BackgroundService _backgroundService = ServiceProvider.getInstance()
+            .getService(BackgroundService.class);
+
     @FXML
     private TextField folderPath;
 
@@ -67,11 +77,18 @@ public class CloningGroupsWindowController {
 
     @FXML
     public void initialize() {
-        _allGroups = _groupsService.getGroups(_loginService.getCurrentUser());
-        List<Group> mainGroups = _groupsService.getOnlyMainGroups((List<Group>)_allGroups);
-        ObservableList<Group> myObservableList = FXCollections.observableList(mainGroups);
         configureListView(projectsList);
-        projectsList.setItems(myObservableList);
+        User currentUser = _loginService.getCurrentUser();
+        _allGroups = _groupsService.getCachedGroups(currentUser);
+        if (_allGroups.isEmpty()) {
+            _allGroups = _groupsService.getGroups(currentUser);
+            setGroupsItems(_allGroups);
+        } else {
+            // show groups from the cache at once and revalidate them against the GitLab
+            setGroupsItems(_allGroups);
+            _backgroundService.runInBackgroundThread(
+                    () -> RequestPriority.BACKGROUND.runAs(() -> revalidateGroups(currentUser)));
+        }
 
         folderPath.textProperty().addListener((observable, oldValue, newValue) -> filterForOkButton());
         projectsList.setOnMouseClicked((EventHandler<Event>) event -> filterForOkButton());
@@ -123,6 +140,33 @@ public class CloningGroupsWindowController {
         stage.close();
     }
 
+    private void revalidateGroups(User user) {
+        Collection<Group> loadedGroups = _groupsService.getGroups(user);
+        if (loadedGroups == null || loadedGroups.isEmpty()) {
+            return;
+        }
+        Platform.runLater(() -> {
+            Set<Integer> selectedIds = projectsList.getSelectionModel().getSelectedItems().stream()
+                                                   .map(Group::getId)
+                                                   .collect(Collectors.toSet());
+            _allGroups = loadedGroups;
+            setGroupsItems(_allGroups);
+            projectsList.getItems().stream()
+                                   .filter(group -> selectedIds.contains(group.getId()))
+                                   .forEach(projectsList.getSelectionModel()::select);
+            filterForOkButton();
+        });
+    }
+
+    private void setGroupsItems(Collection<Group> groups) {
+        if (groups == null) {
+            return;
+        }
+        List<Group> mainGroups = _groupsService.getOnlyMainGroups(new ArrayList<>(groups));
+        ObservableList<Group> myObservableList = FXCollections.observableList(mainGroups);
+        projectsList.setItems(myObservableList);
+    }
+
     private void configureListView(ListView<Group> listView) {
         // config displayable string
         listView.setCellFactory(new Callback<ListView<Group>, ListCell<Group>>() {
@@ -10,6 +10,8 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -19,12 +21,17 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.lgc.gitlabtool.git.connections.RESTConnectorFactory;
+import com.lgc.gitlabtool.git.connections.RequestMetrics;
+import com.lgc.gitlabtool.git.connections.RequestPriority;
 import com.lgc.gitlabtool.git.entities.Group;
 import com.lgc.gitlabtool.git.entities.MessageType;
 import com.lgc.gitlabtool.git.entities.Project;
@@ -39,10 +46,12 @@ import com.lgc.gitlabtool.git.project.nature.projecttype.DSGProjectType;
 import com.lgc.gitlabtool.git.services.BackgroundService;
 import com.lgc.gitlabtool.git.services.ClonedGroupsService;
 import com.lgc.gitlabtool.git.services.ConsoleService;
+import com.lgc.gitlabtool.git.services.EmptyProgressListener;
 import com.lgc.gitlabtool.git.services.GitService;
 import com.lgc.gitlabtool.git.services.GroupService;
 import com.lgc.gitlabtool.git.services.LoginService;
 import com.lgc.gitlabtool.git.services.PomXMLService;
+import com.lgc.gitlabtool.git.services.ProgressListener;
 import com.lgc.gitlabtool.git.services.ProjectService;
 import com.lgc.gitlabtool.git.services.ServiceProvider;
 import com.lgc.gitlabtool.git.services.StateService;
@@ -51,6 +60,7 @@ import com.lgc.gitlabtool.git.ui.ViewKey;
 import com.lgc.gitlabtool.git.ui.icon.AppIconHolder;
 import com.lgc.gitlabtool.git.ui.javafx.AlertWithCheckBox;
 import com.lgc.gitlabtool.git.ui.javafx.ChangesCheckDialog;
+import com.lgc.gitlabtool.git.ui.javafx.CreateMergeRequestsDialog;
 import com.lgc.gitlabtool.git.ui.javafx.CreateProjectDialog;
 import com.lgc.gitlabtool.git.ui.javafx.GLTAlert;
 import com.lgc.gitlabtool.git.ui.javafx.GLTScene;
@@ -114,6 +124,7 @@ import javafx.scene.control.ScrollPane;
 import javafx.scene.control.SelectionMode;
 import javafx.scene.control.SelectionModel;
 import javafx.scene.control.SplitPane;
+import javafx.scene.control.TextArea;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToolBar;
 import javafx.scene.control.Tooltip;
@@ -134,6 +145,7 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextFlow;
 import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
@@ -151,6 +163,8 @@ public class ModularController implements UpdateProgressListener {
     private static final String ABOUT_POPUP_CONTENT = "Contacts: Yurii Pitomets (yurii.pitomets2@halliburton.com)";
     private static final String ABOUT_POPUP_HEADER =
             getProjectNameWithVersion() + " (" + getBuildTimestamp() + " " + getCommitHash() + "), powered by Luxoft";
+    private static final String REST_METRICS_POPUP_TITLE = "GitLab requests statistics";
+    private static final String REST_METRICS_POPUP_HEADER = "Requests to the GitLab in this session by endpoints";
 
     private static final ToolbarManager _toolbarManager = ToolbarManager.getInstance();
     private static final MainMenuManager _mainMenuManager = MainMenuManager.getInstance();
@@ -201,6 +215,7 @@ public class ModularController implements UpdateProgressListener {
     private static final String PUSH_OPERATION_NAME = "push";
     private static final String BRANCES_OPERATION_NAME = "operation with branches";
     private static final String STASH_OPERATION_NAME = "stash";
+    private static final String MERGE_REQUESTS_OPERATION_NAME = "merge requests";
 
     private static final String SELECT_ALL_IMAGE_URL = "icons/select_all_20x20.png";
     private static final String REFRESH_PROJECTS_IMAGE_URL = "icons/toolbar/refresh_projects_20x20.png";
@@ -327,6 +342,15 @@ public class ModularController implements UpdateProgressListener {
     private ToggleButton selectAllButton;
     private ToggleButton filterShadowProjects;
     private Button refreshProjectsButton;
+    /** <code>true</code> if the list of projects will be refreshed by the FX thread soon */
+    private final AtomicBoolean _isProjectsRefreshScheduled = new AtomicBoolean();
+    /** Refreshes the list of projects when statuses of projects are computed */
+    private final ProgressListener _projectsStatusListener = new EmptyProgressListener() {
+        @Override
+        public void onSuccess(Object... t) {
+            scheduleProjectsRefresh();
+        }
+    };
 
     private static final int PROJECTS_TOOLBAR_PADDING = 1;
 
@@ -476,6 +500,8 @@ public class ModularController implements UpdateProgressListener {
             _mainMenuManager.getButtonById(GLToolButtons.MAIN_REVERT).setOnAction(this::onRevertChanges);
             _mainMenuManager.getButtonById(GLToolButtons.MAIN_BRANCHES).setOnAction(this::showBranchesWindow);
             _mainMenuManager.getButtonById(GLToolButtons.MAIN_STASH).setOnAction(this::showStashWindow);
+            _mainMenuManager.getButtonById(GLToolButtons.MAIN_CREATE_MERGE_REQUESTS).setOnAction(
+                    this::showCreateMergeRequestsDialog);
             _mainMenuManager.getButtonById(GLToolButtons.MAIN_CREATE_PROJECT).setOnAction(this::createProjectButton);
             _mainMenuManager.getButtonById(GLToolButtons.MAIN_EDIT_PROJECT_PROPERTIES).setOnAction(
                     this::showEditProjectPropertiesWindow);
@@ -486,6 +512,7 @@ public class ModularController implements UpdateProgressListener {
         userGuide.setAccelerator(new KeyCodeCombination(KeyCode.F1));
         _mainMenuManager.getButtonById(GLToolButtons.GENERAL_EXIT).setOnAction(this::exit);
         _mainMenuManager.getButtonById(GLToolButtons.GENERAL_ABOUT).setOnAction(this::showAboutPopup);
+        _mainMenuManager.getButtonById(GLToolButtons.GENERAL_REST_METRICS).setOnAction(this::showRestMetricsPopup);
 
     }
 
@@ -536,6 +563,8 @@ public class ModularController implements UpdateProgressListener {
 
         // setup selection
         listView.getSelectionModel().getSelectedItems().addListener((ListChangeListener<Project>) changed -> {
+            // statuses of selected projects are computed before statuses of other projects
+            _projectService.requestProjectStatuses(new ArrayList<>(listView.getSelectionModel().getSelectedItems()));
             if (areAllItemsSelected(listView)) {
                 selectAllButton.setSelected(true);
                 selectAllButton.setOnAction(this::onDeselectAll);
@@ -648,13 +677,19 @@ public class ModularController implements UpdateProgressListener {
 
         _workIndicatorDialog = new WorkIndicatorDialog(stage, WORK_INDICATOR_START_MESSAGE);
         Runnable selectGroup = () -> {
-            _projectsList = ProjectList.get(_currentGroup);
+            // projects are shown as soon as the list is loaded, statuses are shown when they are computed
+            _projectsList = ProjectList.get(_currentGroup, _projectsStatusListener);
             resetLoadingProgress();
             if (_projectsList.getProjects() == null) {
                 loadGroupWindow(null);
                 return;
             }
             hideShadowsAction();
+            if (_projectsList.isLoadedFromCache()) {
+                // projects are shown from the cache, revalidate them against the GitLab
+                _backgroundService.runInBackgroundThread(
+                        () -> RequestPriority.BACKGROUND.runAs(this::refreshLoadProjects));
+            }
         };
         _workIndicatorDialog.executeAndShowDialog("Loading group", selectGroup, StageStyle.TRANSPARENT, stage);
 
@@ -923,15 +958,18 @@ public class ModularController implements UpdateProgressListener {
     @FXML
     @SuppressWarnings("unused")
     private void showBranchesWindow(ActionEvent event) {
-        try {
-            List<Project> projects = projectListView.getSelectionModel().getSelectedItems();
-            projects = _projectService.getCorrectProjects(projects);
+        runWithCorrectProjects(projectListView.getSelectionModel().getSelectedItems(), projects -> {
             if (projects.isEmpty()) {
                 String message = String.format(NO_ANY_PROJECT_FOR_OPERATION, BRANCES_OPERATION_NAME);
                 _consoleService.addMessage(message, MessageType.ERROR);
                 return;
             }
+            showBranchesWindow(projects);
+        });
+    }
 
+    private void showBranchesWindow(List<Project> projects) {
+        try {
             URL branchesWindowUrl = getClass().getClassLoader().getResource(ViewKey.BRANCHES_WINDOW.getPath());
             FXMLLoader loader = new FXMLLoader(branchesWindowUrl);
             Parent root = loader.load();
@@ -966,17 +1004,24 @@ public class ModularController implements UpdateProgressListener {
     @FXML
     @SuppressWarnings("unused")
     private void showStashWindow(ActionEvent event) {
-        try {
-            List<Project> selectedProjects = projectListView.getSelectionModel().getSelectedItems();
-            if (selectedProjects.isEmpty()) { // if nothing selected in a list then all projects are loaded
-                selectedProjects = _projectService.getCorrectProjects(projectListView.getItems());
-                if (selectedProjects.isEmpty()) {
-                    String message = String.format(NO_ANY_PROJECT_FOR_OPERATION, STASH_OPERATION_NAME);
-                    _consoleService.addMessage(message, MessageType.ERROR);
-                    return;
-                }
+        List<Project> selectedProjects = projectListView.getSelectionModel().getSelectedItems();
+        if (!selectedProjects.isEmpty()) {
+            showStashWindow(selectedProjects);
+            return;
+        }
+        // if nothing selected in a list then all projects are loaded
+        runWithCorrectProjects(projectListView.getItems(), projects -> {
+            if (projects.isEmpty()) {
+                String message = String.format(NO_ANY_PROJECT_FOR_OPERATION, STASH_OPERATION_NAME);
+                _consoleService.addMessage(message, MessageType.ERROR);
+                return;
             }
+            showStashWindow(projects);
+        });
+    }
 
+    private void showStashWindow(List<Project> selectedProjects) {
+        try {
             URL stashWindowUrl = getClass().getClassLoader().getResource(ViewKey.STASH_WINDOW.getPath());
             FXMLLoader loader = new FXMLLoader(stashWindowUrl);
             Parent root = loader.load();
@@ -1034,6 +1079,20 @@ public class ModularController implements UpdateProgressListener {
         dialog.showAndWait();
     }
 
+    @FXML
+    @SuppressWarnings("unused")
+    private void showCreateMergeRequestsDialog(ActionEvent actionEvent) {
+        runWithCorrectProjects(getCurrentProjects(), projects -> {
+            if (projects.isEmpty()) {
+                String message = String.format(NO_ANY_PROJECT_FOR_OPERATION, MERGE_REQUESTS_OPERATION_NAME);
+                _consoleService.addMessage(message, MessageType.ERROR);
+                return;
+            }
+            CreateMergeRequestsDialog dialog = new CreateMergeRequestsDialog(projects);
+            dialog.showAndWait();
+        });
+    }
+
     @FXML
     @SuppressWarnings("unused")
     private void openGitStaging(ActionEvent actionEvent) {
@@ -1043,23 +1102,25 @@ public class ModularController implements UpdateProgressListener {
     @FXML
     @SuppressWarnings("unused")
     private void onPushAction(ActionEvent actionEvent) {
-        List<Project> filteredProjects = getCorrectCurrentProjects();
-        if (!filteredProjects.isEmpty()) {
-            _backgroundService.runInBackgroundThread(() -> _gitService.push(filteredProjects, PushProgressListener.get()));
-        } else {
-            _consoleService.addMessage(String.format(NO_ANY_PROJECT_FOR_OPERATION, PUSH_OPERATION_NAME), MessageType.ERROR);
-        }
+        runWithCorrectProjects(getCurrentProjects(), filteredProjects -> {
+            if (!filteredProjects.isEmpty()) {
+                _backgroundService.runInBackgroundThread(() -> _gitService.push(filteredProjects, PushProgressListener.get()));
+            } else {
+                _consoleService.addMessage(String.format(NO_ANY_PROJECT_FOR_OPERATION, PUSH_OPERATION_NAME), MessageType.ERROR);
+            }
+        });
     }
 
     @FXML
     @SuppressWarnings("unused")
     private void onPullAction(ActionEvent actionEvent) {
-        List<Project> projectsToPull = getCorrectCurrentProjects();
-        if (!projectsToPull.isEmpty()) {
-            checkChangesAndPull(projectsToPull, new Object());
-        } else {
-            _consoleService.addMessage(String.format(NO_ANY_PROJECT_FOR_OPERATION, PULL_OPERATION_NAME), MessageType.ERROR);
-        }
+        runWithCorrectProjects(getCurrentProjects(), projectsToPull -> {
+            if (!projectsToPull.isEmpty()) {
+                checkChangesAndPull(projectsToPull, new Object());
+            } else {
+                _consoleService.addMessage(String.format(NO_ANY_PROJECT_FOR_OPERATION, PULL_OPERATION_NAME), MessageType.ERROR);
+            }
+        });
     }
 
     @FXML
@@ -1078,9 +1139,17 @@ public class ModularController implements UpdateProgressListener {
     @FXML
     @SuppressWarnings("unused")
     private void showEditProjectPropertiesWindow(ActionEvent event) {
+        List<Project> selectedProjects = new ArrayList<>(getCurrentProjects());
+        // statuses and pom files are checked in the background, the window is shown on the FX thread
+        _projectService.requestCorrectProjects(selectedProjects)
+                       .thenApply(correctProjects -> getUnavailableProjectsForEditingPom(selectedProjects, correctProjects))
+                       .thenAccept(unavailableProjects -> Platform.runLater(
+                               () -> showEditProjectPropertiesWindow(selectedProjects, unavailableProjects)))
+                       .exceptionally(this::logFailedFiltering);
+    }
+
+    private void showEditProjectPropertiesWindow(List<Project> selectedProjects, List<Project> unavailableProjects) {
         try {
-            List<Project> selectedProjects = new ArrayList<>(getCurrentProjects());
-            List<Project> unavailableProjects = getUnavailableProjectsForEditingPom(getCurrentProjects());
             if (!unavailableProjects.isEmpty()) {
                 String failedProjectsNames = unavailableProjects.stream()
                         .map(Project::getName)
@@ -1202,6 +1271,12 @@ public class ModularController implements UpdateProgressListener {
         showAboutPopup();
     }
 
+    @FXML
+    @SuppressWarnings("unused")
+    private void showRestMetricsPopup(ActionEvent actionEvent) {
+        showRestMetricsPopup();
+    }
+
     @FXML
     @SuppressWarnings("unused")
     private void openUserGuide(ActionEvent actionEvent){
@@ -1320,10 +1395,9 @@ public class ModularController implements UpdateProgressListener {
         finishAction(REVERT_FINISH_MESSAGE, MessageType.SIMPLE, ApplicationState.REVERT);
     }
 
-    private List<Project> getUnavailableProjectsForEditingPom(List<Project> projects) {
+    private List<Project> getUnavailableProjectsForEditingPom(List<Project> projects, List<Project> correctProjects) {
         return projects.parallelStream()
-                .filter(project -> !_projectService.projectIsClonedAndWithoutConflicts(project)
-                        || !_pomXmlService.hasPomFile(project))
+                .filter(project -> !correctProjects.contains(project) || !_pomXmlService.hasPomFile(project))
                 .collect(Collectors.toList());
     }
 
@@ -1331,6 +1405,21 @@ public class ModularController implements UpdateProgressListener {
         return _projectService.getCorrectProjects(getCurrentProjects());
     }
 
+    /**
+     * Filters the projects when their statuses are computed and runs the action with the filtered projects
+     * on the FX thread, so the FX thread doesn't wait for statuses.
+     */
+    private void runWithCorrectProjects(List<Project> projects, Consumer<List<Project>> action) {
+        _projectService.requestCorrectProjects(projects)
+                       .thenAccept(correctProjects -> Platform.runLater(() -> action.accept(correctProjects)))
+                       .exceptionally(this::logFailedFiltering);
+    }
+
+    private Void logFailedFiltering(Throwable throwable) {
+        _logger.error("Failed filtering projects for the operation", throwable);
+        return null;
+    }
+
     private void openFolder(String path) {
         String fileDoesNotExistMessage = "Specified file does not exist";
         Runnable openFolderTask = () -> {
@@ -1444,7 +1533,7 @@ public class ModularController implements UpdateProgressListener {
                 return;
             }
             Comparator<Project> comparator = new ProjectListComparator();
-            ObservableList<Project> obsProjects = FXCollections.observableArrayList(_projectsList.getProjects());
+            ObservableList<Project> obsProjects = FXCollections.observableArrayList(loadedProjects);
             SortedList<Project> sortList = new SortedList<>(obsProjects);
             sortList.setComparator(comparator);
             projectListView.setItems(sortList);
@@ -1452,6 +1541,19 @@ public class ModularController implements UpdateProgressListener {
         });
     }
 
+    /**
+     * Refreshes the list of projects on the FX thread. Calls which come before the refresh share it,
+     * so the list isn't refreshed for every project whose status is computed.
+     */
+    private void scheduleProjectsRefresh() {
+        if (_isProjectsRefreshScheduled.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                _isProjectsRefreshScheduled.set(false);
+                projectListView.refresh();
+            });
+        }
+    }
+
     private void refreshLoadProjects() {
         _projectsList.refreshLoadProjects();
         //checkProjectsList(); TODO : fix working with IncorrectProjectDialog
@@ -1504,6 +1606,8 @@ public class ModularController implements UpdateProgressListener {
         _mainMenuManager.getButtonById(GLToolButtons.MAIN_PUSH).disableProperty().bind(bindingForShadow);
         _mainMenuManager.getButtonById(GLToolButtons.MAIN_PULL).disableProperty().bind(bindingForShadow);
         _mainMenuManager.getButtonById(GLToolButtons.MAIN_REVERT).disableProperty().bind(bindingForShadow);
+        _mainMenuManager.getButtonById(GLToolButtons.MAIN_CREATE_MERGE_REQUESTS).disableProperty()
+                .bind(bindingForShadow);
 
     }
 
@@ -1624,6 +1728,46 @@ public class ModularController implements UpdateProgressListener {
         alert.show();
     }
 
+    private void showRestMetricsPopup() {
+        RequestMetrics metrics = RESTConnectorFactory.getInstance().getRESTConnector().getMetrics();
+
+        TextArea metricsText = new TextArea(metrics.toText());
+        metricsText.setEditable(false);
+        metricsText.setFont(Font.font("Monospaced", 12));
+        metricsText.setPrefSize(900, 300);
+
+        ButtonType exportButton = new ButtonType("Export...");
+        Alert alert = new GLTAlert(Alert.AlertType.INFORMATION);
+        alert.setTitle(REST_METRICS_POPUP_TITLE);
+        alert.setHeaderText(REST_METRICS_POPUP_HEADER);
+        alert.getDialogPane().setContent(metricsText);
+        alert.getButtonTypes().setAll(exportButton, ButtonType.CLOSE);
+
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == exportButton) {
+            exportRestMetrics(metrics);
+        }
+    }
+
+    private void exportRestMetrics(RequestMetrics metrics) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export statistics");
+        chooser.setInitialFileName("gitlab-requests.csv");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File file = chooser.showSaveDialog(mainPanelBackground.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.write(file.toPath(), metrics.toCsv().getBytes(StandardCharsets.UTF_8));
+            _consoleService.addMessage("Statistics of requests were exported to " + file.getAbsolutePath(),
+                    MessageType.SUCCESS);
+        } catch (IOException e) {
+            _logger.error("Failed exporting statistics of requests: " + e.getMessage());
+            _consoleService.addMessage("Failed exporting statistics of requests", MessageType.ERROR);
+        }
+    }
+
     private void showStatusDialog(String title, String header, String content) {
         Platform.runLater(() -> {
             StatusDialog statusDialog = new StatusDialog(title, header, content);
@@ -1786,7 +1930,9 @@ public class ModularController implements UpdateProgressListener {
                 sortProjectsList();
                 return;
             } else if (state != ApplicationState.LOAD_PROJECTS && state != ApplicationState.UPDATE_PROJECT_STATUSES) {
-                _projectsList.updateProjectStatuses();
+                // visible projects request their statuses when the list is refreshed
+                _projectsList.updateProjectStatuses(_projectsStatusListener);
+                scheduleProjectsRefresh();
             } else {
                 projectListView.refresh();
             }
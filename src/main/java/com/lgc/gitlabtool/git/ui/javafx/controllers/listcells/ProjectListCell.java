@@ -1,8 +1,10 @@
 package com.lgc.gitlabtool.git.ui.javafx.controllers.listcells;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import com.lgc.gitlabtool.git.services.ProjectService;
 import com.lgc.gitlabtool.git.services.ServiceProvider;
 import com.lgc.gitlabtool.git.services.ThemeService;
 import javafx.scene.control.Label;
@@ -43,6 +45,8 @@ public class ProjectListCell extends ListCell<Project> {
 
     private static final ThemeService _themeService = ServiceProvider.getInstance()
             .getService(ThemeService.class);
+    private static final ProjectService _projectService = ServiceProvider.getInstance()
+            .getService(ProjectService.class);
 
     @Override
     protected void updateItem(Project item, boolean empty) {
@@ -51,6 +55,10 @@ public class ProjectListCell extends ListCell<Project> {
         setGraphic(null);
 
         if (item != null && !empty) {
+            if (item.isCloned()) {
+                // only visible projects have cells, so their outdated statuses are computed first
+                _projectService.requestProjectStatuses(Collections.singletonList(item));
+            }
             Image fxImage = getImageForProject(item);
             ImageView imageView = new ImageView(fxImage);
 
@@ -42,6 +42,15 @@ public enum GLToolButtons {
             GLToolConstants.ICON_SIZE_16,
             false),
 
+    GENERAL_REST_METRICS(GLToolConstants.ALL_WINDOW_KEY,
+            "all_window_help_rest_metrics",
+            "icons/mainmenu/about_16x16.png",
+            "GitLab requests statistics",
+            null,
+            MainMenuInfo.HELP,
+            GLToolConstants.ICON_SIZE_16,
+            false),
+
     GENERAL_ABOUT(GLToolConstants.ALL_WINDOW_KEY,
             "all_window_help_about",
             "icons/mainmenu/about_16x16.png",
@@ -249,6 +258,15 @@ public enum GLToolButtons {
             GLToolConstants.ICON_SIZE_16,
             false),
 
+    MAIN_CREATE_MERGE_REQUESTS(GLToolConstants.PROJECTS_WINDOW_KEY,
+            "main_git_merge_requests",
+            "icons/mainmenu/push_16x16.png",
+            "Create merge requests",
+            null,
+            MainMenuInfo.GIT,
+            GLToolConstants.ICON_SIZE_16,
+            false),
+
     MAIN_STASH(GLToolConstants.PROJECTS_WINDOW_KEY,
             "main_git_stash",
             "icons/mainmenu/stash_16x16.png",
@@ -0,0 +1,75 @@
+package com.lgc.gitlabtool.git.util;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * The lean adapter for projects from the GitLab.
+ * It reads only the fields which we use and skips all other fields of the GitLab project without reflection.
+ * Only the same fields are written to json, local data of the project (path, type, status) isn't written.
+ */
+public class ProjectJsonAdapter extends TypeAdapter<Project> {
+
+    static final String ID_KEY = "id";
+    static final String NAME_KEY = "name";
+    static final String HTTP_URL_TO_REPO_KEY = "http_url_to_repo";
+    static final String PATH_WITH_NAMESPACE_KEY = "path_with_namespace";
+
+    @Override
+    public void write(JsonWriter out, Project project) throws IOException {
+        if (project == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name(ID_KEY).value(project.getId());
+        out.name(HTTP_URL_TO_REPO_KEY).value(project.getHttpUrlToRepo());
+        out.name(NAME_KEY).value(project.getOriginalName());
+        out.name(PATH_WITH_NAMESPACE_KEY).value(project.getPathWithNamespace());
+        out.endObject();
+    }
+
+    @Override
+    public Project read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int id = 0;
+        String name = null;
+        String httpUrlToRepo = null;
+        String pathWithNamespace = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (key) {
+                case ID_KEY:
+                    id = in.nextInt();
+                    break;
+                case NAME_KEY:
+                    name = in.nextString();
+                    break;
+                case HTTP_URL_TO_REPO_KEY:
+                    httpUrlToRepo = in.nextString();
+                    break;
+                case PATH_WITH_NAMESPACE_KEY:
+                    pathWithNamespace = in.nextString();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new Project(id, name, httpUrlToRepo, pathWithNamespace);
+    }
+}
@@ -0,0 +1,57 @@
+package com.lgc.gitlabtool.git.util;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Weak interning pool of strings which repeat in many projects: paths of files, names of branches,
+ * names of projects and authors of commits.
+ *
+ * Equal strings which are got from different projects (or by different refreshes) are replaced by one instance.
+ * The pool doesn't keep strings alive: a string is removed from the pool when nothing else refers to it.
+ * The pool is split into segments with their own locks, so threads which compute statuses don't wait for each other.
+ */
+public final class StringPool {
+
+    private static final int SEGMENTS_COUNT = 16;
+
+    private static final Segment[] _segments = new Segment[SEGMENTS_COUNT];
+
+    static {
+        for (int index = 0; index < SEGMENTS_COUNT; index++) {
+            _segments[index] = new Segment();
+        }
+    }
+
+    private StringPool() {}
+
+    /**
+     * Gets the pooled instance of the string
+     *
+     * @param  value the string
+     * @return the equal string from the pool or the value itself if the pool doesn't have it
+     *         (<code>null</code> if the value is <code>null</code>)
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        int hash = value.hashCode();
+        return _segments[(hash ^ (hash >>> 16)) & (SEGMENTS_COUNT - 1)].intern(value);
+    }
+
+    private static class Segment {
+        private final Map<String, WeakReference<String>> _strings = new WeakHashMap<>();
+
+        synchronized String intern(String value) {
+            WeakReference<String> reference = _strings.get(value);
+            String pooledValue = reference == null ? null : reference.get();
+            if (pooledValue != null) {
+                return pooledValue;
+            }
+            _strings.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+}
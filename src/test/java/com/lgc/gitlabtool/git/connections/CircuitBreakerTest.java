@@ -0,0 +1,82 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the CircuitBreaker class.
+ */
+public class CircuitBreakerTest {
+
+    private static final long OPEN_TIMEOUT = 1000;
+
+    private AtomicLong _clock;
+    private CircuitBreaker _circuitBreaker;
+
+    @Before
+    public void init() {
+        _clock = new AtomicLong();
+        _circuitBreaker = new CircuitBreaker("https://gitlab.com", 2, OPEN_TIMEOUT, _clock::get);
+    }
+
+    @Test
+    public void opensAfterFailuresInRowTest() {
+        _circuitBreaker.onFailure();
+        _circuitBreaker.onSuccess();
+        _circuitBreaker.onFailure();
+        assertTrue(_circuitBreaker.allowRequest());
+
+        _circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, _circuitBreaker.getState());
+        assertFalse(_circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void closesAfterSuccessfulTrialRequestTest() {
+        openCircuitBreaker();
+        _clock.addAndGet(OPEN_TIMEOUT);
+
+        assertTrue(_circuitBreaker.allowRequest());
+        assertFalse(_circuitBreaker.allowRequest()); // only one trial request
+        _circuitBreaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, _circuitBreaker.getState());
+        assertTrue(_circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void opensAfterFailedTrialRequestTest() {
+        openCircuitBreaker();
+        _clock.addAndGet(OPEN_TIMEOUT);
+
+        assertTrue(_circuitBreaker.allowRequest());
+        _circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, _circuitBreaker.getState());
+        assertFalse(_circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void cancelledTrialRequestCanBeSentAgainTest() {
+        openCircuitBreaker();
+        _clock.addAndGet(OPEN_TIMEOUT);
+
+        assertTrue(_circuitBreaker.allowRequest());
+        _circuitBreaker.onCancel();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, _circuitBreaker.getState());
+        assertTrue(_circuitBreaker.allowRequest());
+        assertFalse(_circuitBreaker.allowRequest());
+    }
+
+    private void openCircuitBreaker() {
+        _circuitBreaker.onFailure();
+        _circuitBreaker.onFailure();
+    }
+}
@@ -0,0 +1,399 @@
+package com.lgc.gitlabtool.git.connections;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in of the GitLab API for load and latency tests of the REST layer.
+ *
+ * It serves synthetic groups and projects with the GitLab pagination headers:
+ * <ul>
+ * <li><code>GET /api/v4/groups</code></li>
+ * <li><code>GET /api/v4/groups/{id}/projects</code></li>
+ * <li><code>GET /api/v4/user</code></li>
+ * <li><code>POST /oauth/token</code></li>
+ * </ul>
+ * Every group has ten subgroups at most (group <code>i</code> is a parent of groups <code>10*i .. 10*i+9</code>).
+ * Requests without a token get 401. Latency and errors can be injected, rate limit headers can be sent.
+ * The server counts requests which are handled at the same time.
+ */
+public class FakeGitLabServer implements AutoCloseable {
+
+    public static final String API_PATH = "/api/v4";
+    public static final String ACCESS_TOKEN = "fake-access-token";
+    public static final String USERNAME = "fake.user";
+
+    private static final int DEFAULT_PER_PAGE = 20;
+    private static final int MAX_PER_PAGE = 100;
+    private static final int THREADS_COUNT = 8;
+    private static final long MAX_HOLDING_TIME = 10_000;
+    private static final long RATE_LIMIT_PERIOD = 60_000;
+    private static final Pattern GROUP_PROJECTS_PATTERN = Pattern.compile(API_PATH + "/groups/(\\d+)/projects/?");
+
+    static {
+        // headers and bodies of responses are written separately, without this option every response
+        // waits for the delayed acknowledgement of the loopback interface
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final int _groupsCount;
+    private final int _projectsInGroup;
+    private final AtomicInteger _requestsCount = new AtomicInteger();
+    private final AtomicInteger _failingRequestsCount = new AtomicInteger();
+
+    private volatile long _latency;
+    private volatile int _errorCode = 503;
+    private volatile int _rateLimit;
+    private volatile int _concurrentRequestsToHold;
+
+    private final Object _inFlightLock = new Object();
+    private int _inFlightRequestsCount;
+    private int _peakInFlightRequestsCount;
+    private long _rateLimitPeriodEnd;
+    private int _rateLimitRequestsCount;
+
+    private HttpServer _server;
+    private ExecutorService _executor;
+
+    /**
+     * Creates the server. It should be started by the {@link #start()} method.
+     *
+     * @param groupsCount     the count of groups (their ids are from 1 to groupsCount)
+     * @param projectsInGroup the count of projects in every group
+     */
+    public FakeGitLabServer(int groupsCount, int projectsInGroup) {
+        _groupsCount = groupsCount;
+        _projectsInGroup = projectsInGroup;
+    }
+
+    /**
+     * Starts the server on a free port of the loopback interface.
+     *
+     * @return the started server
+     * @throws IOException if the server could not be started
+     */
+    public FakeGitLabServer start() throws IOException {
+        _server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        _executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        _server.setExecutor(_executor);
+        _server.createContext("/", this::handle);
+        _server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (_server != null) {
+            _server.stop(0);
+            _executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the main part of the API URL (e.g. <code>http://127.0.0.1:43210/api/v4</code>).
+     *
+     * @return the URL
+     */
+    public String getUrlMainPart() {
+        return "http://" + _server.getAddress().getHostString() + ":" + _server.getAddress().getPort() + API_PATH;
+    }
+
+    /**
+     * Sets the delay of every response.
+     *
+     * @param latency the delay in milliseconds
+     */
+    public void setLatency(long latency) {
+        _latency = latency;
+    }
+
+    /**
+     * The next requests get the error response.
+     *
+     * @param count     the count of failing requests
+     * @param errorCode the code of the error response (e.g. 503)
+     */
+    public void failNextRequests(int count, int errorCode) {
+        _errorCode = errorCode;
+        _failingRequestsCount.set(count);
+    }
+
+    /**
+     * Responses get the <code>RateLimit-Remaining</code> and <code>RateLimit-Reset</code> headers like responses
+     * of the GitLab, so the client adapts its rate to the limit.
+     *
+     * @param requestsPerMinute the count of requests allowed in a minute
+     */
+    public void setRateLimit(int requestsPerMinute) {
+        _rateLimit = requestsPerMinute;
+    }
+
+    /**
+     * Requests are held until the count of requests are handled at the same time (at most for 10 seconds).
+     *
+     * @param count the count of concurrent requests
+     */
+    public void holdUntilConcurrentRequests(int count) {
+        _concurrentRequestsToHold = count;
+    }
+
+    /**
+     * Gets count of requests which have been received by the server.
+     *
+     * @return count of requests
+     */
+    public int getRequestsCount() {
+        return _requestsCount.get();
+    }
+
+    /**
+     * Gets the max count of requests which have been handled by the server at the same time.
+     *
+     * @return the count of requests
+     */
+    public int getPeakInFlightRequestsCount() {
+        synchronized (_inFlightLock) {
+            return _peakInFlightRequestsCount;
+        }
+    }
+
+    /**
+     * Creates the connector to the server. The URL of the server has a port, so it can't be set
+     * by {@link RESTConnector#setUrlMainPart(String)}.
+     *
+     * @param  retryPolicy the policy of repeating failed requests
+     * @return the connector
+     */
+    public RESTConnector createConnector(RetryPolicy retryPolicy) {
+        return new RESTConnectorImpl(getUrlMainPart(), retryPolicy);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        startRequest();
+        try {
+            _requestsCount.incrementAndGet();
+            sleep(_latency);
+            if (isInjectedError()) {
+                sendJson(exchange, _errorCode, "{\"message\":\"Injected error\"}", null);
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            // the token is also served by the API path: sessions of URLs with a port aren't created,
+            // so the login service requests the token by the connector of the API
+            if (path.equals("/oauth/token") || path.equals(API_PATH + "/oauth/token")) {
+                handleToken(exchange);
+            } else if (!isAuthorized(exchange)) {
+                sendJson(exchange, 401, "{\"message\":\"401 Unauthorized\"}", null);
+            } else if (path.equals(API_PATH + "/user")) {
+                sendJson(exchange, 200, getUserJson(), null);
+            } else if (path.equals(API_PATH + "/groups") || path.equals(API_PATH + "/groups/")) {
+                sendPage(exchange, _groupsCount, (builder, index) -> appendGroupJson(builder, index + 1));
+            } else {
+                Matcher matcher = GROUP_PROJECTS_PATTERN.matcher(path);
+                int groupId = matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+                if (groupId < 1 || groupId > _groupsCount) {
+                    sendJson(exchange, 404, "{\"message\":\"404 Not Found\"}", null);
+                } else {
+                    sendPage(exchange, _projectsInGroup, (builder, index) -> appendProjectJson(builder, groupId, index));
+                }
+            }
+        } finally {
+            exchange.close();
+            finishRequest();
+        }
+    }
+
+    private void startRequest() {
+        synchronized (_inFlightLock) {
+            _inFlightRequestsCount++;
+            _peakInFlightRequestsCount = Math.max(_peakInFlightRequestsCount, _inFlightRequestsCount);
+            _inFlightLock.notifyAll();
+            long deadline = System.currentTimeMillis() + MAX_HOLDING_TIME;
+            long waitingTime;
+            while (_inFlightRequestsCount < _concurrentRequestsToHold
+                    && (waitingTime = deadline - System.currentTimeMillis()) > 0) {
+                try {
+                    _inFlightLock.wait(waitingTime);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** The limit is reset every minute */
+    private long getRateLimitPeriodEnd() {
+        long now = System.currentTimeMillis();
+        return now - now % RATE_LIMIT_PERIOD + RATE_LIMIT_PERIOD;
+    }
+
+    private synchronized int getRemainingRequestsCount() {
+        long periodEnd = getRateLimitPeriodEnd();
+        if (periodEnd != _rateLimitPeriodEnd) {
+            _rateLimitPeriodEnd = periodEnd;
+            _rateLimitRequestsCount = 0;
+        }
+        _rateLimitRequestsCount++;
+        return Math.max(0, _rateLimit - _rateLimitRequestsCount);
+    }
+
+    private void finishRequest() {
+        synchronized (_inFlightLock) {
+            _inFlightRequestsCount--;
+        }
+    }
+
+    private void handleToken(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendJson(exchange, 405, "{\"message\":\"405 Method Not Allowed\"}", null);
+            return;
+        }
+        sendJson(exchange, 200, "{\"access_token\":\"" + ACCESS_TOKEN + "\",\"token_type\":\"bearer\","
+                + "\"refresh_token\":\"fake-refresh-token\",\"created_at\":1500000000}", null);
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String privateToken = exchange.getRequestHeaders().getFirst("PRIVATE-TOKEN");
+        return (authorization != null && authorization.endsWith(ACCESS_TOKEN)) || privateToken != null;
+    }
+
+    private boolean isInjectedError() {
+        return _failingRequestsCount.getAndUpdate(count -> count > 0 ? count - 1 : 0) > 0;
+    }
+
+    private void sendPage(HttpExchange exchange, int totalCount, JsonItemWriter itemWriter) throws IOException {
+        Map<String, String> query = getQueryParameters(exchange.getRequestURI().getRawQuery());
+        int perPage = Math.min(MAX_PER_PAGE, Math.max(1, getIntParameter(query, "per_page", DEFAULT_PER_PAGE)));
+        int page = Math.max(1, getIntParameter(query, "page", 1));
+        int totalPages = Math.max(1, (totalCount + perPage - 1) / perPage);
+
+        StringBuilder builder = new StringBuilder("[");
+        int from = (page - 1) * perPage;
+        int to = Math.min(totalCount, from + perPage);
+        for (int index = from; index < to; index++) {
+            if (index > from) {
+                builder.append(',');
+            }
+            itemWriter.write(builder, index);
+        }
+        builder.append(']');
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-Total", String.valueOf(totalCount));
+        headers.put("X-Total-Pages", String.valueOf(totalPages));
+        headers.put("X-Per-Page", String.valueOf(perPage));
+        headers.put("X-Page", String.valueOf(page));
+        headers.put("X-Next-Page", page < totalPages ? String.valueOf(page + 1) : "");
+        headers.put("X-Prev-Page", page > 1 ? String.valueOf(page - 1) : "");
+        sendJson(exchange, 200, builder.toString(), headers);
+    }
+
+    private void appendGroupJson(StringBuilder builder, int groupId) {
+        int parentId = groupId / 10;
+        builder.append("{\"id\":").append(groupId)
+               .append(",\"name\":\"group_").append(groupId).append('"')
+               .append(",\"path\":\"group_").append(groupId).append('"')
+               .append(",\"description\":\"Synthetic group\",\"visibility\":\"private\"")
+               .append(",\"full_path\":\"").append(getFullPath(groupId)).append('"')
+               .append(",\"parent_id\":").append(parentId > 0 && parentId != groupId ? String.valueOf(parentId) : "null")
+               .append('}');
+    }
+
+    private void appendProjectJson(StringBuilder builder, int groupId, int index) {
+        int projectId = (groupId - 1) * _projectsInGroup + index + 1;
+        String path = getFullPath(groupId) + "/project_" + projectId;
+        builder.append("{\"id\":").append(projectId)
+               .append(",\"description\":\"Synthetic project\",\"default_branch\":\"master\"")
+               .append(",\"name\":\"project_").append(projectId).append('"')
+               .append(",\"path\":\"project_").append(projectId).append('"')
+               .append(",\"path_with_namespace\":\"").append(path).append('"')
+               .append(",\"ssh_url_to_repo\":\"git@localhost:").append(path).append(".git\"")
+               .append(",\"http_url_to_repo\":\"http://localhost/").append(path).append(".git\"")
+               .append(",\"web_url\":\"http://localhost/").append(path).append('"')
+               .append(",\"last_activity_at\":\"2018-01-01T00:00:00.000Z\"")
+               .append(",\"namespace\":{\"id\":").append(groupId).append(",\"kind\":\"group\"}")
+               .append('}');
+    }
+
+    private String getFullPath(int groupId) {
+        int parentId = groupId / 10;
+        if (parentId > 0 && parentId != groupId) {
+            return getFullPath(parentId) + "/group_" + groupId;
+        }
+        return "group_" + groupId;
+    }
+
+    private String getUserJson() {
+        return "{\"id\":1,\"username\":\"" + USERNAME + "\",\"name\":\"Fake User\","
+                + "\"email\":\"fake.user@example.com\",\"state\":\"active\"}";
+    }
+
+    private void sendJson(HttpExchange exchange, int code, String json, Map<String, String> headers)
+            throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (_rateLimit > 0) {
+            long periodEnd = getRateLimitPeriodEnd();
+            exchange.getResponseHeaders().set("RateLimit-Remaining", String.valueOf(getRemainingRequestsCount()));
+            exchange.getResponseHeaders().set("RateLimit-Reset", String.valueOf(periodEnd / 1000));
+        }
+        if (headers != null) {
+            headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        }
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private Map<String, String> getQueryParameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int index = parameter.indexOf('=');
+                if (index > 0) {
+                    parameters.put(parameter.substring(0, index), parameter.substring(index + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    private int getIntParameter(Map<String, String> parameters, String name, int defaultValue) {
+        try {
+            return parameters.containsKey(name) ? Integer.parseInt(parameters.get(name)) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private void sleep(long latency) {
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonItemWriter {
+        void write(StringBuilder builder, int index);
+    }
+}
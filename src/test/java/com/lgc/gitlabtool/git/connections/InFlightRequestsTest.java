@@ -0,0 +1,85 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests for the InFlightRequests class.
+ */
+public class InFlightRequestsTest {
+
+    @Test
+    public void identicalRequestsAreCoalescedTest() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        AtomicInteger countOfRequests = new AtomicInteger();
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        CompletableFuture<String> first = requests.getOrStart("/groups", () -> {
+            countOfRequests.incrementAndGet();
+            return response;
+        });
+        CompletableFuture<String> second = requests.getOrStart("/groups", () -> {
+            countOfRequests.incrementAndGet();
+            return CompletableFuture.completedFuture("second");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, requests.size());
+
+        response.complete("groups");
+        assertEquals("groups", second.join());
+        assertEquals(1, countOfRequests.get());
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void finishedRequestsAreNotCachedTest() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+
+        assertEquals("first", requests.getOrStart("/groups", () -> CompletableFuture.completedFuture("first")).join());
+        assertEquals("second", requests.getOrStart("/groups", () -> CompletableFuture.completedFuture("second")).join());
+        assertEquals(0, requests.size());
+    }
+
+    @Test
+    public void failedRequestTest() {
+        InFlightRequests<String> requests = new InFlightRequests<>();
+        CompletableFuture<String> failed = requests.getOrStart("/groups", () -> {
+            throw new IllegalStateException("error");
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, requests.size());
+        try {
+            failed.join();
+            fail("The request should be failed");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void keysOfDifferentUsersTest() {
+        Map<String, String> firstUser = new HashMap<>();
+        firstUser.put("Authorization", "Bearer first");
+        Map<String, String> secondUser = Collections.singletonMap("Authorization", "Bearer second");
+
+        assertEquals(InFlightRequests.getKey("/groups", firstUser),
+                InFlightRequests.getKey("/groups", new HashMap<>(firstUser)));
+        assertNotEquals(InFlightRequests.getKey("/groups", firstUser), InFlightRequests.getKey("/groups", secondUser));
+        assertNotEquals(InFlightRequests.getKey("/groups", firstUser), InFlightRequests.getKey("/projects", firstUser));
+        assertEquals("/groups", InFlightRequests.getKey("/groups", null));
+    }
+}
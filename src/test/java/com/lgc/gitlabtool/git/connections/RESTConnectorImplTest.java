@@ -0,0 +1,186 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.util.ProjectJsonAdapter;
+
+/**
+ * Tests for the RESTConnectorImpl class with the local GitLab stand-in.
+ */
+public class RESTConnectorImplTest {
+
+    private static final int GROUPS_COUNT = 120;
+    private static final int PROJECTS_IN_GROUP = 250;
+
+    private final Gson _gson = new GsonBuilder().registerTypeAdapter(Project.class, new ProjectJsonAdapter()).create();
+    private final Map<String, String> _header = Collections.singletonMap("Authorization",
+            "Bearer " + FakeGitLabServer.ACCESS_TOKEN);
+
+    private FakeGitLabServer _server;
+
+    @Before
+    public void init() throws IOException {
+        _server = new FakeGitLabServer(GROUPS_COUNT, PROJECTS_IN_GROUP).start();
+    }
+
+    @After
+    public void clear() {
+        _server.close();
+    }
+
+    @Test
+    public void getUserTest() {
+        HttpResponseHolder response = getConnector(RetryPolicy.NO_RETRIES).sendGet("/user", null, _header);
+
+        assertEquals(200, response.getResponseCode());
+        assertTrue(((String) response.getBody()).contains(FakeGitLabServer.USERNAME));
+    }
+
+    @Test
+    public void unauthorizedRequestTest() {
+        HttpResponseHolder response = getConnector(RetryPolicy.NO_RETRIES).sendGet("/user", null, null);
+
+        assertEquals(401, response.getResponseCode());
+    }
+
+    @Test
+    public void getProjectsForAllPagesTest() {
+        RESTConnector connector = getConnector(RetryPolicy.NO_RETRIES);
+        String request = "/groups/7/projects?simple=true&per_page=100";
+        List<Project> projects = new ArrayList<>();
+
+        HttpResponseHolder firstPage = connector.sendGet(request, null, _header, body -> readProjects(body, projects));
+        int countOfPages = Integer.parseInt(firstPage.getHeaderValue("X-Total-Pages"));
+        List<CompletableFuture<List<Project>>> nextPages = new ArrayList<>();
+        for (int page = 2; page <= countOfPages; page++) {
+            List<Project> pageProjects = new ArrayList<>();
+            nextPages.add(connector.sendGetAsync(request + "&page=" + page, null, _header,
+                    body -> readProjects(body, pageProjects)).thenApply(response -> pageProjects));
+        }
+        nextPages.forEach(page -> projects.addAll(page.join()));
+
+        assertEquals(3, countOfPages);
+        assertEquals(PROJECTS_IN_GROUP, projects.size());
+        assertEquals("group_7/project_" + (6 * PROJECTS_IN_GROUP + 1), projects.get(0).getPathWithNamespace());
+    }
+
+    @Test
+    public void retryTemporaryErrorsTest() {
+        _server.failNextRequests(2, 503);
+
+        HttpResponseHolder response = getConnector(new RetryPolicy(3, 10, 50)).sendGet("/user", null, _header);
+
+        assertEquals(200, response.getResponseCode());
+        assertEquals(3, _server.getRequestsCount());
+    }
+
+    @Test
+    public void postRequestsAreNotRepeatedTest() {
+        _server.failNextRequests(1, 502);
+
+        HttpResponseHolder response = getConnector(new RetryPolicy(3, 10, 50)).sendPost("/groups", null, _header);
+
+        assertEquals(502, response.getResponseCode());
+        assertEquals(1, _server.getRequestsCount());
+    }
+
+    @Test
+    public void circuitBreakerRejectsRequestsTest() {
+        RESTConnector connector = getConnector(RetryPolicy.NO_RETRIES);
+        _server.failNextRequests(Integer.MAX_VALUE, 503);
+
+        for (int i = 0; i < 10; i++) {
+            connector.sendGet("/user?attempt=" + i, null, _header);
+        }
+        HttpResponseHolder response = connector.sendGet("/user", null, _header);
+
+        assertEquals(0, response.getResponseCode());
+        assertEquals(5, _server.getRequestsCount());
+    }
+
+    @Test
+    public void interruptedRequestsDoNotOpenCircuitBreakerTest() {
+        RESTConnector connector = getConnector(RetryPolicy.NO_RETRIES);
+        // the next requests wait until the pause of requests is over
+        _server.failNextRequests(1, 429);
+        connector.sendGet("/user", null, _header);
+
+        Thread.currentThread().interrupt();
+        try {
+            for (int i = 0; i < 10; i++) {
+                connector.sendGet("/user?attempt=" + i, null, _header);
+            }
+            HttpResponseHolder response = connector.sendGet("/user", null, _header);
+
+            assertEquals(0, response.getResponseCode());
+            assertNotEquals("Server is unavailable", response.getResponseMessage());
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(1, _server.getRequestsCount());
+    }
+
+    @Test
+    public void metricsOfRequestsTest() {
+        RESTConnector connector = getConnector(new RetryPolicy(3, 10, 50));
+        _server.failNextRequests(1, 503);
+
+        connector.sendGet("/groups/3/projects?per_page=100", null, _header);
+        connector.sendGet("/groups/4/projects?per_page=100", null, _header);
+
+        RequestMetrics.EndpointMetrics endpoint = connector.getMetrics().getEndpoints().get(0);
+        assertEquals("GET /groups/{id}/projects", endpoint.getEndpoint());
+        assertEquals(3, endpoint.getCount());
+        assertEquals(1, endpoint.getErrorsCount());
+        assertEquals(1, endpoint.getRetriesCount());
+        assertEquals(Long.valueOf(2), endpoint.getStatusCodes().get(200));
+        assertTrue(endpoint.getBytesIn() > 2 * 100 * 100);
+    }
+
+    @Test
+    public void parallelRequestsTest() {
+        RESTConnector connector = getConnector(RetryPolicy.NO_RETRIES);
+        // the server answers only when all requests are received
+        _server.holdUntilConcurrentRequests(4);
+
+        List<CompletableFuture<HttpResponseHolder>> responses = new ArrayList<>();
+        for (int groupId = 1; groupId <= 4; groupId++) {
+            responses.add(connector.sendGetAsync("/groups/" + groupId + "/projects", null, _header));
+        }
+        responses.forEach(response -> assertEquals(200, response.join().getResponseCode()));
+
+        // the requests are sent at the same time on the I/O threads
+        assertEquals(4, _server.getPeakInFlightRequestsCount());
+    }
+
+    private void readProjects(Reader body, List<Project> projects) throws IOException {
+        JsonReader reader = new JsonReader(body);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            projects.add(_gson.fromJson(reader, Project.class));
+        }
+        reader.endArray();
+    }
+
+    private RESTConnector getConnector(RetryPolicy retryPolicy) {
+        return new RESTConnectorImpl(_server.getUrlMainPart(), retryPolicy);
+    }
+}
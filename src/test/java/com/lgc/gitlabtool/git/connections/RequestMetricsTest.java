@@ -0,0 +1,74 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lgc.gitlabtool.git.connections.RequestMetrics.EndpointMetrics;
+
+/**
+ * Tests for the RequestMetrics class.
+ */
+public class RequestMetricsTest {
+
+    @Test
+    public void getEndpointTemplateTest() {
+        assertEquals("/groups/{id}/projects", RequestMetrics.getEndpointTemplate("/groups/7/projects?page=2"));
+        assertEquals("/projects/{path}/repository/branches",
+                RequestMetrics.getEndpointTemplate("/projects/group%2Fproject/repository/branches"));
+        assertEquals("/user", RequestMetrics.getEndpointTemplate("/user"));
+        assertEquals("/", RequestMetrics.getEndpointTemplate("?page=1"));
+        assertEquals("", RequestMetrics.getEndpointTemplate(null));
+    }
+
+    @Test
+    public void recordRequestsTest() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordRequest("GET", "/groups/1/projects?page=1", 200, 40, 1000, 0);
+        metrics.recordRequest("GET", "/groups/2/projects?page=2", 200, 200, 3000, 0);
+        metrics.recordRequest("GET", "/groups/3/projects", 503, 20_000, 0, 0);
+        metrics.recordRetry("GET", "/groups/3/projects");
+        metrics.recordRequest("POST", "/projects", 201, 300, 500, 100);
+
+        List<EndpointMetrics> endpoints = metrics.getEndpoints();
+
+        assertEquals(2, endpoints.size());
+        EndpointMetrics projectsOfGroup = endpoints.get(0);
+        assertEquals("GET /groups/{id}/projects", projectsOfGroup.getEndpoint());
+        assertEquals(3, projectsOfGroup.getCount());
+        assertEquals(1, projectsOfGroup.getErrorsCount());
+        assertEquals(1, projectsOfGroup.getRetriesCount());
+        assertEquals(4000, projectsOfGroup.getBytesIn());
+        assertEquals(20_000, projectsOfGroup.getMaxLatency());
+        assertEquals(250, projectsOfGroup.getLatencyPercentile(0.5));
+        assertEquals(20_000, projectsOfGroup.getLatencyPercentile(0.95));
+        assertEquals(Long.valueOf(2), projectsOfGroup.getStatusCodes().get(200));
+        assertEquals(Long.valueOf(1), projectsOfGroup.getStatusCodes().get(503));
+        assertEquals(100, endpoints.get(1).getBytesOut());
+    }
+
+    @Test
+    public void toCsvTest() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordRequest("GET", "/user", 200, 10, 100, 0);
+
+        String[] lines = metrics.toCsv().split(System.lineSeparator());
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("endpoint,count"));
+        assertEquals("\"GET /user\",1,0,0,10,10,10,10,100,0,200:1", lines[1]);
+    }
+
+    @Test
+    public void resetTest() {
+        RequestMetrics metrics = new RequestMetrics();
+        metrics.recordRequest("GET", "/user", 200, 10, 100, 0);
+
+        metrics.reset();
+
+        assertTrue(metrics.getEndpoints().isEmpty());
+    }
+}
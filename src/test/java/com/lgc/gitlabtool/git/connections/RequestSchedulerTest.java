@@ -0,0 +1,110 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the RequestScheduler class.
+ */
+public class RequestSchedulerTest {
+
+    private static final long START_TIME = 1_000_000_000L;
+
+    private AtomicLong _clock;
+    private RequestScheduler _scheduler;
+
+    @Before
+    public void init() {
+        _clock = new AtomicLong(START_TIME);
+        _scheduler = new RequestScheduler(4, _clock::get);
+    }
+
+    @Test
+    public void emptyBucketTest() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+        }
+        assertTrue(_scheduler.tryAcquire(RequestPriority.INTERACTIVE) > 0);
+
+        _clock.addAndGet(100); // default rate is 10 requests per second
+        assertEquals(0, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void backgroundRequestsKeepReserveTest() {
+        // a quarter of the bucket (one request) is kept for interactive requests
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, _scheduler.tryAcquire(RequestPriority.BACKGROUND));
+        }
+        assertTrue(_scheduler.tryAcquire(RequestPriority.BACKGROUND) > 0);
+        assertEquals(0, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void retryAfterTest() {
+        _scheduler.onResponse(RequestScheduler.TOO_MANY_REQUESTS_CODE,
+                getHeaders(RequestScheduler.RETRY_AFTER_HEADER, "3"));
+
+        assertEquals(3000, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+        _clock.addAndGet(3000);
+        assertEquals(0, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void tooManyRequestsWithoutHeadersTest() {
+        _scheduler.onResponse(RequestScheduler.TOO_MANY_REQUESTS_CODE, Collections.emptyMap());
+
+        assertTrue(_scheduler.tryAcquire(RequestPriority.INTERACTIVE) > 0);
+    }
+
+    @Test
+    public void rateLimitExhaustedTest() {
+        Map<String, List<String>> headers = getHeaders(RequestScheduler.RATE_LIMIT_REMAINING_HEADER, "0");
+        headers.put(RequestScheduler.RATE_LIMIT_RESET_HEADER, Arrays.asList(String.valueOf(START_TIME / 1000 + 5)));
+        _scheduler.onResponse(200, headers);
+
+        assertEquals(5000, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void rateLimitRemainingTest() {
+        Map<String, List<String>> headers = getHeaders("ratelimit-remaining", "1");
+        headers.put(RequestScheduler.RATE_LIMIT_RESET_HEADER, Arrays.asList(String.valueOf(START_TIME / 1000 + 10)));
+        _scheduler.onResponse(200, headers);
+
+        assertEquals(0, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+        // one request is allowed in 10 seconds
+        assertEquals(10000, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void incorrectHeadersTest() {
+        _scheduler.onResponse(200, null);
+        _scheduler.onResponse(200, getHeaders(RequestScheduler.RETRY_AFTER_HEADER, "Wed, 21 Oct 2015 07:28:00 GMT"));
+
+        assertEquals(0, _scheduler.tryAcquire(RequestPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void priorityOfThreadTest() {
+        assertEquals(RequestPriority.INTERACTIVE, RequestPriority.current());
+        RequestPriority.BACKGROUND.runAs(() -> assertEquals(RequestPriority.BACKGROUND, RequestPriority.current()));
+        assertEquals(RequestPriority.INTERACTIVE, RequestPriority.current());
+    }
+
+    private Map<String, List<String>> getHeaders(String name, String value) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(name, Arrays.asList(value));
+        return headers;
+    }
+}
@@ -0,0 +1,45 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests for the RetryPolicy class.
+ */
+public class RetryPolicyTest {
+
+    @Test
+    public void shouldRetryTest() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1000);
+
+        assertTrue(policy.shouldRetry(1, 0));
+        assertTrue(policy.shouldRetry(1, 429));
+        assertTrue(policy.shouldRetry(2, 503));
+        assertFalse(policy.shouldRetry(3, 503));
+        assertFalse(policy.shouldRetry(1, 200));
+        assertFalse(policy.shouldRetry(1, 404));
+        assertFalse(policy.shouldRetry(1, 500));
+        assertFalse(RetryPolicy.NO_RETRIES.shouldRetry(1, 503));
+    }
+
+    @Test
+    public void delayTest() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.getDelay(1) <= 100);
+            assertTrue(policy.getDelay(3) <= 400);
+            assertTrue(policy.getDelay(50) <= 1000);
+            assertTrue(policy.getDelay(1) >= 0);
+        }
+        assertEquals(0, RetryPolicy.NO_RETRIES.getDelay(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void incorrectPolicyTest() {
+        new RetryPolicy(0, 100, 1000);
+    }
+}
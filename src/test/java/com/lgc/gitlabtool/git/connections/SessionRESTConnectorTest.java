@@ -0,0 +1,123 @@
+package com.lgc.gitlabtool.git.connections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for connectors of server sessions.
+ */
+public class SessionRESTConnectorTest {
+
+    private final Map<String, String> _header = Collections.singletonMap("Authorization",
+            "Bearer " + FakeGitLabServer.ACCESS_TOKEN);
+    private final Map<String, RESTConnector> _sessions = new ConcurrentHashMap<>();
+
+    private FakeGitLabServer _firstServer;
+    private FakeGitLabServer _secondServer;
+    private SessionRESTConnector _connector;
+
+    @Before
+    public void init() throws IOException {
+        _firstServer = new FakeGitLabServer(1, 10).start();
+        _secondServer = new FakeGitLabServer(1, 10).start();
+        // URLs of the local servers have ports, so sessions are created without validation
+        _connector = new SessionRESTConnector(url -> _sessions.computeIfAbsent(url, RESTConnectorImpl::new));
+    }
+
+    @After
+    public void clear() {
+        _firstServer.close();
+        _secondServer.close();
+    }
+
+    @Test
+    public void requestsWithoutSessionFailTest() {
+        HttpResponseHolder response = _connector.sendGet("/user", null, _header);
+
+        assertNull(_connector.getUrlMainPart());
+        assertEquals(0, response.getResponseCode());
+        assertEquals(0, _connector.sendGetAsync("/user", null, _header).join().getResponseCode());
+        assertTrue(_connector.getMetrics().getEndpoints().isEmpty());
+        assertEquals(0, _firstServer.getRequestsCount());
+    }
+
+    @Test
+    public void requestsAreSentToCurrentSessionTest() {
+        _connector.setUrlMainPart(_firstServer.getUrlMainPart());
+        _connector.sendGet("/user", null, _header);
+        _connector.setUrlMainPart(_secondServer.getUrlMainPart());
+        _connector.sendGet("/user", null, _header);
+        _connector.sendGet("/user", null, _header);
+
+        assertEquals(_secondServer.getUrlMainPart(), _connector.getUrlMainPart());
+        assertEquals(1, _firstServer.getRequestsCount());
+        assertEquals(2, _secondServer.getRequestsCount());
+        assertEquals(2, _connector.getMetrics().getEndpoints().get(0).getCount());
+    }
+
+    @Test
+    public void switchingSessionDoesNotAffectStartedRequestsTest() {
+        _firstServer.setLatency(300);
+        _connector.setUrlMainPart(_firstServer.getUrlMainPart());
+        CompletableFuture<HttpResponseHolder> request = _connector.sendGetAsync("/user", null, _header);
+
+        _connector.setUrlMainPart(_secondServer.getUrlMainPart());
+
+        assertEquals(200, request.join().getResponseCode());
+        assertEquals(1, _firstServer.getRequestsCount());
+        assertEquals(0, _secondServer.getRequestsCount());
+    }
+
+    @Test
+    public void sessionsAreNotSharedBetweenServersTest() {
+        _connector.setUrlMainPart(_firstServer.getUrlMainPart());
+        _connector.setUrlMainPart(_secondServer.getUrlMainPart());
+        _connector.setUrlMainPart(_firstServer.getUrlMainPart());
+
+        assertEquals(2, _sessions.size());
+        assertNotSame(_sessions.get(_firstServer.getUrlMainPart()), _sessions.get(_secondServer.getUrlMainPart()));
+    }
+
+    @Test
+    public void factorySessionsTest() {
+        RESTConnectorFactory factory = RESTConnectorFactory.getInstance();
+        String url = "https://gitlab.example.com/api/v4";
+
+        assertSame(factory.getRESTConnector(url), factory.getRESTConnector(url));
+        assertEquals(url, factory.getRESTConnector(url).getUrlMainPart());
+        assertNull(factory.getRESTConnector("not a url"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void serverOfSessionIsFixedTest() {
+        RESTConnector session = RESTConnectorFactory.getInstance().getRESTConnector("https://gitlab.example.com/api/v4");
+
+        session.setUrlMainPart("https://other.example.com/api/v4");
+    }
+
+    @Test
+    public void unusedSessionsAreReleasedTest() {
+        RESTConnectorFactory factory = RESTConnectorFactory.getInstance();
+        String url = "https://first.example.com/api/v4";
+        RESTConnector session = factory.getRESTConnector(url);
+
+        for (int i = 0; i < 4; i++) {
+            factory.getRESTConnector("https://gitlab" + i + ".example.com/api/v4");
+        }
+
+        assertNotSame(session, factory.getRESTConnector(url));
+    }
+}
@@ -0,0 +1,148 @@
+package com.lgc.gitlabtool.git.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests for the ProjectListSnapshot class.
+ */
+public class ProjectListSnapshotTest {
+
+    private final Group _group = new Gson().fromJson("{\"id\":1,\"name\":\"group\"}", Group.class);
+
+    @Test
+    public void emptySnapshotTest() {
+        ProjectListSnapshot snapshot = ProjectListSnapshot.EMPTY;
+
+        assertEquals(0, snapshot.getVersion());
+        assertNull(snapshot.getGroup());
+        assertNull(snapshot.getProjects());
+        assertNull(snapshot.getProjectById(1));
+        assertFalse(snapshot.isLoadedFromCache());
+    }
+
+    @Test
+    public void nextSnapshotKeepsCopyOfProjectsTest() {
+        Project first = getProject(1);
+        List<Project> projects = new ArrayList<>(Arrays.asList(first, getProject(2)));
+
+        ProjectListSnapshot snapshot = ProjectListSnapshot.EMPTY.next(_group, projects, true);
+        projects.add(getProject(3));
+
+        assertEquals(1, snapshot.getVersion());
+        assertSame(_group, snapshot.getGroup());
+        assertEquals(2, snapshot.getProjects().size());
+        assertSame(first, snapshot.getProjectById(1));
+        assertNull(snapshot.getProjectById(3));
+        assertTrue(snapshot.isLoadedFromCache());
+        assertEquals(2, snapshot.next(_group, null, false).getVersion());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void projectsOfSnapshotAreUnmodifiableTest() {
+        ProjectListSnapshot snapshot = ProjectListSnapshot.EMPTY.next(_group, Arrays.asList(getProject(1)), false);
+
+        snapshot.getProjects().add(getProject(2));
+    }
+
+    @Test
+    public void publishNextTest() {
+        AtomicReference<ProjectListSnapshot> current = new AtomicReference<>(ProjectListSnapshot.EMPTY);
+
+        ProjectListSnapshot published = ProjectListSnapshot.publishNext(current, ProjectListSnapshot.EMPTY, _group,
+                Arrays.asList(getProject(1)), false);
+
+        assertSame(published, current.get());
+        assertEquals(1, published.getVersion());
+        assertSame(_group, published.getGroup());
+    }
+
+    @Test
+    public void resultIsSkippedAfterResetTest() {
+        AtomicReference<ProjectListSnapshot> current = new AtomicReference<>(ProjectListSnapshot.EMPTY);
+        // a load and a refresh are started from the snapshot of the group
+        ProjectListSnapshot groupSnapshot = ProjectListSnapshot.publishNext(current, ProjectListSnapshot.EMPTY,
+                _group, null, false);
+
+        ProjectListSnapshot resetSnapshot = ProjectListSnapshot.publishEmpty(current);
+
+        assertNull(ProjectListSnapshot.publishNext(current, groupSnapshot, _group,
+                Arrays.asList(getProject(1)), false));
+        assertNull(ProjectListSnapshot.publishNext(current, groupSnapshot, _group, null, false));
+        assertSame(resetSnapshot, current.get());
+        assertNull(current.get().getGroup());
+        assertNull(current.get().getProjects());
+        assertTrue(resetSnapshot.getVersion() > groupSnapshot.getVersion());
+    }
+
+    @Test
+    public void concurrentPublishAndResetTest() throws InterruptedException {
+        int threadsCount = 4;
+        int operationsCount = 10_000;
+        AtomicReference<ProjectListSnapshot> current = new AtomicReference<>(ProjectListSnapshot.EMPTY);
+        Set<Long> publishedVersions = ConcurrentHashMap.newKeySet();
+        AtomicInteger publishedCount = new AtomicInteger();
+        AtomicInteger errorsCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadsCount);
+        List<Project> projects = Arrays.asList(getProject(1));
+
+        for (int thread = 0; thread < threadsCount; thread++) {
+            boolean isResetting = thread % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    long lastVersion = -1;
+                    for (int i = 0; i < operationsCount; i++) {
+                        ProjectListSnapshot published = isResetting
+                                ? ProjectListSnapshot.publishEmpty(current)
+                                : ProjectListSnapshot.publishNext(current, current.get(), _group, projects, false);
+                        if (published != null) {
+                            publishedCount.incrementAndGet();
+                            publishedVersions.add(published.getVersion());
+                        }
+                        // the versions which are seen by a thread never decrease
+                        long version = current.get().getVersion();
+                        if (version < lastVersion) {
+                            errorsCount.incrementAndGet();
+                        }
+                        lastVersion = version;
+                    }
+                } catch (InterruptedException e) {
+                    errorsCount.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(0, errorsCount.get());
+        assertEquals(publishedCount.get(), publishedVersions.size());
+        assertEquals(publishedCount.get(), current.get().getVersion());
+    }
+
+    private Project getProject(int id) {
+        return new Project(id, "project" + id, "http://localhost/group/project" + id + ".git",
+                "group/project" + id);
+    }
+}
@@ -0,0 +1,97 @@
+package com.lgc.gitlabtool.git.entities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.lgc.gitlabtool.git.jgit.ChangedFileStatus;
+
+/**
+ * Tests for the ProjectStatusFiles class.
+ */
+public class ProjectStatusFilesTest {
+
+    @Test
+    public void emptyFilesTest() {
+        ProjectStatusFiles files = new ProjectStatusFiles.Builder().add(ChangedFileStatus.ADDED, null).build();
+
+        assertEquals(0, files.size());
+        assertEquals(0, files.getCount(ChangedFileStatus.ADDED));
+        assertTrue(files.getPaths(ChangedFileStatus.ADDED).isEmpty());
+    }
+
+    @Test
+    public void pathsAreSortedAndDecodedByStatusesTest() {
+        ProjectStatusFiles files = new ProjectStatusFiles.Builder()
+                .add(ChangedFileStatus.MODIFIED, Arrays.asList("src/main/java/B.java", "src/main/java/A.java", "pom.xml"))
+                .add(ChangedFileStatus.CHANGED, Arrays.asList("src/main/java/A.java"))
+                .add(ChangedFileStatus.UNTRACKED, Arrays.asList("src/main/resources/a.txt", "src"))
+                .build();
+
+        // a path with several statuses is kept once
+        assertEquals(5, files.size());
+        assertEquals(3, files.getCount(ChangedFileStatus.MODIFIED));
+        assertEquals(1, files.getCount(ChangedFileStatus.CHANGED));
+        assertEquals(0, files.getCount(ChangedFileStatus.CONFLICTING));
+        assertEquals(Arrays.asList("pom.xml", "src/main/java/A.java", "src/main/java/B.java"),
+                new ArrayList<>(files.getPaths(ChangedFileStatus.MODIFIED)));
+        assertEquals(new HashSet<>(Arrays.asList("src", "src/main/resources/a.txt")),
+                files.getPaths(ChangedFileStatus.UNTRACKED));
+
+        List<String> allPaths = new ArrayList<>();
+        files.forEach((path, statuses) -> allPaths.add(path));
+        assertEquals(Arrays.asList("pom.xml", "src", "src/main/java/A.java", "src/main/java/B.java",
+                "src/main/resources/a.txt"), allPaths);
+    }
+
+    @Test
+    public void decodedPathsOfDifferentListsShareInstancesTest() {
+        ProjectStatusFiles firstFiles = new ProjectStatusFiles.Builder()
+                .add(ChangedFileStatus.MODIFIED, Arrays.asList(new String("plugins/pom.xml".toCharArray())))
+                .build();
+        ProjectStatusFiles secondFiles = new ProjectStatusFiles.Builder()
+                .add(ChangedFileStatus.MODIFIED, Arrays.asList(new String("plugins/pom.xml".toCharArray())))
+                .build();
+
+        assertSame(firstFiles.getPaths(ChangedFileStatus.MODIFIED).iterator().next(),
+                secondFiles.getPaths(ChangedFileStatus.MODIFIED).iterator().next());
+    }
+
+    @Test
+    public void statusWithFilesTest() {
+        ProjectStatus status = new ProjectStatus(true, 0, 0, "master", null, new HashSet<>(Arrays.asList("a")),
+                new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(),
+                new HashSet<>(Arrays.asList("a", "b")));
+
+        assertTrue(status.hasConflicts());
+        assertFalse(status.hasNewUntrackedFiles());
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), status.getModifiedFiles());
+        assertEquals(new HashSet<>(Arrays.asList("a")), status.getConflictedFiles());
+        assertTrue(status.getAddedFiles().isEmpty());
+    }
+
+    @Test
+    public void statusIsRestoredFromJsonTest() {
+        Gson gson = new Gson();
+        ProjectStatus status = new ProjectStatus(true, 0, 0, "master", null, new HashSet<>(),
+                new HashSet<>(Arrays.asList("dir/first", "dir/second")), new HashSet<>(), new HashSet<>(),
+                new HashSet<>(), new HashSet<>(), new HashSet<>());
+
+        ProjectStatus restoredStatus = gson.fromJson(gson.toJson(status), ProjectStatus.class);
+        ProjectStatus statusWithoutFiles = gson.fromJson("{\"_hasChanges\":true}", ProjectStatus.class);
+
+        assertEquals(status.getUntrackedFiles(), restoredStatus.getUntrackedFiles());
+        assertTrue(restoredStatus.hasNewUntrackedFiles());
+        assertFalse(statusWithoutFiles.hasConflicts());
+        assertTrue(statusWithoutFiles.getModifiedFiles().isEmpty());
+    }
+}
@@ -0,0 +1,55 @@
+package com.lgc.gitlabtool.git.entities;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for the ProjectsIdIndex class.
+ */
+public class ProjectsIdIndexTest {
+
+    @Test
+    public void emptyIndexTest() {
+        assertNull(ProjectsIdIndex.empty().get(0));
+        assertNull(new ProjectsIdIndex(null).get(1));
+        assertNull(new ProjectsIdIndex(new ArrayList<>()).get(-1));
+    }
+
+    @Test
+    public void getProjectsByIdsTest() {
+        List<Project> projects = new ArrayList<>();
+        // ids with the same low bits collide in the table
+        for (int id = 0; id < 1000; id++) {
+            projects.add(getProject(id * 1024));
+        }
+        projects.add(getProject(-7));
+        projects.add(null);
+
+        ProjectsIdIndex index = new ProjectsIdIndex(projects);
+
+        for (int id = 0; id < 1000; id++) {
+            assertSame(projects.get(id), index.get(id * 1024));
+        }
+        assertSame(projects.get(1000), index.get(-7));
+        assertNull(index.get(1));
+        assertNull(index.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void firstProjectWithTheSameIdIsIndexedTest() {
+        Project first = getProject(5);
+        ProjectsIdIndex index = new ProjectsIdIndex(Arrays.asList(first, getProject(5)));
+
+        assertSame(first, index.get(5));
+    }
+
+    private Project getProject(int id) {
+        return new Project(id, "project" + id, "http://localhost/group/project" + id + ".git", "group/project" + id);
+    }
+}
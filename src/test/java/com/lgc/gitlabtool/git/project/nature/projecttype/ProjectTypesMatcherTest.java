@@ -0,0 +1,91 @@
+package com.lgc.gitlabtool.git.project.nature.projecttype;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the ProjectTypesMatcher class.
+ */
+public class ProjectTypesMatcherTest {
+
+    private static final String PROJECT_PATH = "project";
+
+    private final Set<Path> _existingPaths = new HashSet<>();
+    private final List<String> _checkedPaths = new ArrayList<>();
+
+    @Test
+    public void matchFirstCorrespondingTypeTest() {
+        ProjectType pluginsType = getType("plugins", "pom.xml", "plugins/pom.xml");
+        ProjectType gradleType = getType("gradle", "pom.xml", "build.gradle");
+        ProjectType sourcesType = getType("sources", "src/main");
+        ProjectType otherGradleType = getType("other_gradle", "build.gradle");
+        ProjectTypesMatcher matcher = new ProjectTypesMatcher(
+                Arrays.asList(pluginsType, gradleType, sourcesType, otherGradleType));
+        addExistingPaths("pom.xml", "build.gradle");
+
+        Assert.assertSame(gradleType, matcher.match(PROJECT_PATH));
+        Assert.assertNull(matcher.match(null));
+    }
+
+    @Test
+    public void matchDoesNotCheckPathsOfFailedTypesTest() {
+        ProjectType docsType = getType("docs", "docs/first", "docs/second");
+        ProjectTypesMatcher matcher = new ProjectTypesMatcher(Arrays.asList(docsType));
+
+        Assert.assertNull(matcher.match(PROJECT_PATH));
+        Assert.assertEquals(Arrays.asList("docs/first"), _checkedPaths);
+    }
+
+    @Test
+    public void sharedPathsAreIndexedOnceTest() {
+        ProjectTypesMatcher matcher = new ProjectTypesMatcher(Arrays.asList(getType("first", "pom.xml"),
+                getType("second", "pom.xml", "plugins/pom.xml")));
+        addExistingPaths("pom.xml", "plugins/pom.xml");
+
+        Assert.assertEquals("first", matcher.match(PROJECT_PATH).getId());
+        // the path is visited once and checked by both types
+        Assert.assertEquals(Arrays.asList("pom.xml", "pom.xml", "plugins/pom.xml"), _checkedPaths);
+    }
+
+    @Test
+    public void getTypeByIdTest() {
+        ProjectType firstType = getType("first", "pom.xml");
+        ProjectTypesMatcher matcher = new ProjectTypesMatcher(Arrays.asList(firstType, new UnknownProjectType()));
+
+        Assert.assertSame(firstType, matcher.getTypeById("first"));
+        Assert.assertNotNull(matcher.getTypeById("unknown"));
+        Assert.assertNull(matcher.getTypeById("second"));
+        Assert.assertNull(matcher.getTypeById(null));
+    }
+
+    private void addExistingPaths(String... structures) {
+        for (String structure : structures) {
+            _existingPaths.add(Paths.get(PROJECT_PATH, structure));
+        }
+    }
+
+    private ProjectType getType(String id, String... structures) {
+        return new ProjectTypeImpl() {
+            {
+                setId(id);
+                for (String structure : structures) {
+                    addStructure(structure);
+                }
+            }
+
+            @Override
+            protected boolean isPathCorrespondsToType(Path path) {
+                _checkedPaths.add(Paths.get(PROJECT_PATH).relativize(path).toString().replace('\\', '/'));
+                return _existingPaths.contains(path);
+            }
+        };
+    }
+}
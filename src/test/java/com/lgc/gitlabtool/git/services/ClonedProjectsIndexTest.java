@@ -0,0 +1,117 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Tests for the ClonedProjectsIndex class.
+ */
+public class ClonedProjectsIndexTest {
+
+    private static final Gson _gson = new Gson();
+
+    private Path _groupPath;
+
+    @Before
+    public void init() throws IOException {
+        _groupPath = Files.createTempDirectory("group");
+    }
+
+    @After
+    public void clear() throws IOException {
+        try (Stream<Path> paths = Files.walk(_groupPath)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void clonedProjectsOfGroupAndSubgroupsTest() throws IOException {
+        Files.createDirectories(_groupPath.resolve("first"));
+        Files.createDirectories(_groupPath.resolve("sub").resolve("second"));
+        Files.createFile(_groupPath.resolve("file"));
+        Project first = getProject(1, "first", "parent/group/first");
+        Project second = getProject(2, "second", "parent/group/sub/second");
+        Project shadow = getProject(3, "shadow", "parent/group/sub/shadow");
+        Project file = getProject(4, "file", "parent/group/file");
+        Project notClonedSubgroup = getProject(5, "third", "parent/group/other/third");
+        List<Project> projects = Arrays.asList(first, second, shadow, file, notClonedSubgroup);
+
+        ClonedProjectsIndex index = new ClonedProjectsIndex(getGroup("parent/group"), projects);
+
+        assertTrue(index.isCloned(first));
+        assertEquals(_groupPath.resolve("first").toString(), index.getLocalPath(first));
+        assertEquals(_groupPath.resolve("sub").resolve("second").toString(), index.getLocalPath(second));
+        assertFalse(index.isCloned(shadow));
+        assertFalse(index.isCloned(file));
+        assertFalse(index.isCloned(notClonedSubgroup));
+        assertNull(index.getLocalPath(shadow));
+    }
+
+    @Test
+    public void clonedProjectsByNameTest() throws IOException {
+        Files.createDirectories(_groupPath.resolve("sub").resolve("second"));
+        // the name of the project includes the subgroup
+        Project second = getProject(2, "second", "group/sub/second");
+        Group group = _gson.fromJson("{\"id\":1,\"name\":\"group\"}", Group.class);
+        group.setPath(_groupPath.toString());
+
+        ClonedProjectsIndex index = new ClonedProjectsIndex(group, Arrays.asList(second));
+
+        assertEquals(_groupPath.resolve("sub").resolve("second").toString(), index.getLocalPath(second));
+    }
+
+    @Test
+    public void clonedProjectsByLinksTest() throws IOException {
+        Path target = Files.createTempDirectory("linked");
+        try {
+            Files.createSymbolicLink(_groupPath.resolve("linked"), target);
+            Files.createSymbolicLink(_groupPath.resolve("broken"), target.resolve("missing"));
+            Project linked = getProject(1, "linked", "group/linked");
+            Project broken = getProject(2, "broken", "group/broken");
+
+            ClonedProjectsIndex index = new ClonedProjectsIndex(getGroup("group"), Arrays.asList(linked, broken));
+
+            assertEquals(_groupPath.resolve("linked").toString(), index.getLocalPath(linked));
+            assertFalse(index.isCloned(broken));
+        } finally {
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    public void notClonedGroupTest() {
+        Group group = _gson.fromJson("{\"id\":1,\"name\":\"group\",\"full_path\":\"group\"}", Group.class);
+
+        ClonedProjectsIndex index = new ClonedProjectsIndex(group, Arrays.asList(getProject(1, "first", "group/first")));
+
+        assertFalse(index.isCloned(getProject(1, "first", "group/first")));
+    }
+
+    private Group getGroup(String fullPath) {
+        Group group = _gson.fromJson("{\"id\":1,\"name\":\"group\",\"full_path\":\"" + fullPath + "\"}", Group.class);
+        group.setPath(_groupPath.toString());
+        return group;
+    }
+
+    private Project getProject(int id, String name, String pathWithNamespace) {
+        return new Project(id, name, "http://localhost/" + pathWithNamespace + ".git", pathWithNamespace);
+    }
+}
@@ -0,0 +1,147 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lgc.gitlabtool.git.connections.FakeGitLabServer;
+import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
+import com.lgc.gitlabtool.git.connections.RESTConnector;
+import com.lgc.gitlabtool.git.connections.RetryPolicy;
+import com.lgc.gitlabtool.git.connections.token.CurrentUser;
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.entities.User;
+import com.lgc.gitlabtool.git.jgit.JGit;
+import com.lgc.gitlabtool.git.ui.javafx.dto.DialogDTO;
+
+/**
+ * Benchmark of the LoginServiceImpl, GroupServiceImpl and ProjectServiceImpl classes with the local GitLab stand-in
+ * which has 10,000 groups and 50,000 projects.
+ *
+ * The services log in, load the first page of groups, build the tree of all groups and load projects
+ * of every main group with all its subgroups (a request for every group and page).
+ * The groups service loads only the first page of groups from the GitLab, so the tree of all groups
+ * is loaded from the cache which has all groups of the server.
+ *
+ * It isn't run with unit tests, run it by <code>mvn test -Dtest=GitLabServicesBenchmark</code>.
+ */
+public class GitLabServicesBenchmark {
+
+    private static final int GROUPS_COUNT = 10_000;
+    private static final int PROJECTS_IN_GROUP = 5;
+    private static final int RATE_LIMIT = 1_000_000;
+    private static final int GROUPS_PER_PAGE = 100;
+
+    private final JSONParserService _jsonParserService = new JSONParserServiceImpl();
+
+    private FakeGitLabServer _server;
+    private RESTConnector _connector;
+    private StorageService _storageService;
+
+    @Before
+    public void init() throws IOException {
+        _server = new FakeGitLabServer(GROUPS_COUNT, PROJECTS_IN_GROUP).start();
+        _server.setRateLimit(RATE_LIMIT);
+        _connector = _server.createConnector(RetryPolicy.DEFAULT);
+        _storageService = mock(StorageService.class);
+    }
+
+    @After
+    public void clear() {
+        _server.close();
+    }
+
+    @Test
+    public void loadGroupsAndProjectsTest() {
+        long startTime = System.currentTimeMillis();
+        User user = login();
+        long loginTime = System.currentTimeMillis();
+
+        GroupService groupService = new GroupServiceImpl(_connector, mock(ClonedGroupsService.class),
+                mock(ProjectService.class), mock(StateService.class), mock(ConsoleService.class),
+                _jsonParserService, _storageService, mock(JGit.class));
+        Collection<Group> firstPageGroups = groupService.getGroups(user);
+        assertNotNull(firstPageGroups);
+        verify(_storageService).updateGroupsCache(anyString(), anyString(), anyCollection());
+        long groupsTime = System.currentTimeMillis();
+
+        when(_storageService.loadGroupsCache(anyString(), anyString())).thenReturn(getAllGroups());
+        List<Group> allGroups = new ArrayList<>(groupService.getCachedGroups(user));
+        List<Group> mainGroups = groupService.getOnlyMainGroups(allGroups);
+        assertEquals(GROUPS_COUNT, allGroups.size());
+        long treeTime = System.currentTimeMillis();
+
+        ProjectService projectService = new ProjectServiceImpl(_connector, mock(ProjectTypeService.class),
+                mock(StateService.class), mock(ConsoleService.class), mock(GitService.class), _jsonParserService,
+                CurrentUser.getInstance(), _storageService, mock(JGit.class));
+        int projectsCount = 0;
+        for (Group mainGroup : mainGroups) {
+            Collection<Project> projects = projectService.getProjects(mainGroup);
+            assertNotNull(projects);
+            projectsCount += projects.size();
+        }
+        long projectsTime = System.currentTimeMillis();
+
+        System.out.println(String.format("Login %d ms, first page of groups %d ms, tree of %d groups %d ms, "
+                + "%d projects of %d main groups %d ms, %d requests",
+                loginTime - startTime, groupsTime - loginTime, allGroups.size(), treeTime - groupsTime,
+                projectsCount, mainGroups.size(), projectsTime - treeTime, _server.getRequestsCount()));
+        assertEquals(GROUPS_COUNT * PROJECTS_IN_GROUP, projectsCount);
+        assertTrue(_server.getRequestsCount() >= GROUPS_COUNT);
+    }
+
+    private User login() {
+        BackgroundService backgroundService = mock(BackgroundService.class);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(backgroundService).runInBackgroundThread(any(Runnable.class));
+        LoginService loginService = new LoginServiceImpl(_connector, backgroundService, _jsonParserService);
+        AtomicReference<HttpResponseHolder> tokenResponse = new AtomicReference<>();
+
+        // the URL of the stand-in has a port, so the service sends requests by the connector of the stand-in
+        loginService.login(new DialogDTO(FakeGitLabServer.USERNAME, "password", _server.getUrlMainPart(),
+                _server.getUrlMainPart()), tokenResponse::set);
+
+        assertEquals(200, tokenResponse.get().getResponseCode());
+        User user = loginService.getCurrentUser();
+        assertEquals(FakeGitLabServer.USERNAME, user.getUsername());
+        return user;
+    }
+
+    /** All groups of the server as they are kept in the cache */
+    private List<Group> getAllGroups() {
+        Map<String, String> header = Collections.singletonMap(CurrentUser.getInstance().getPrivateTokenKey(),
+                CurrentUser.getInstance().getOAuth2TokenValue());
+        List<Group> groups = new ArrayList<>();
+        AtomicInteger countOfPages = new AtomicInteger(1);
+        for (int page = 1; page <= countOfPages.get(); page++) {
+            HttpResponseHolder response = _connector.sendGet("/groups?per_page=" + GROUPS_PER_PAGE + "&page=" + page,
+                    null, header, body -> _jsonParserService.parseToObjects(body, Group.class, groups::add));
+            assertEquals(200, response.getResponseCode());
+            countOfPages.set(Integer.parseInt(response.getHeaderValue("X-Total-Pages")));
+        }
+        return groups;
+    }
+}
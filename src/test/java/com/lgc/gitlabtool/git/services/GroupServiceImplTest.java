@@ -0,0 +1,247 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import com.google.gson.Gson;
+import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
+import com.lgc.gitlabtool.git.connections.RESTConnector;
+import com.lgc.gitlabtool.git.connections.ResponseBodyHandler;
+import com.lgc.gitlabtool.git.connections.token.CurrentUser;
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.User;
+import com.lgc.gitlabtool.git.jgit.JGit;
+
+public class GroupServiceImplTest {
+
+    private static final String GROUPS_JSON = "[{\"id\":1,\"name\":\"main\",\"full_path\":\"main\"},"
+            + "{\"id\":2,\"name\":\"sub\",\"full_path\":\"main/sub\",\"parent_id\":1}]";
+
+    private static final String FIRST_SERVER = "https://first.example.com/api/v4";
+    private static final String SECOND_SERVER = "https://second.example.com/api/v4";
+
+    private GroupService _groupService;
+
+    private RESTConnector _connector;
+    private ClonedGroupsService _clonedGroupsService;
+    private StorageService _storageService;
+    private User _previousUser;
+    private Path _groupPath;
+
+    @Before
+    public void init() throws IOException {
+        _connector = mock(RESTConnector.class);
+        _clonedGroupsService = mock(ClonedGroupsService.class);
+        _storageService = mock(StorageService.class);
+        _groupService = new GroupServiceImpl(_connector, _clonedGroupsService, mock(ProjectService.class),
+                mock(StateService.class), mock(ConsoleService.class), new JSONParserServiceImpl(),
+                _storageService, mock(JGit.class));
+        _groupService.invalidateGroups();
+
+        _previousUser = CurrentUser.getInstance().getCurrentUser();
+        User user = new User("user", "user@example.com");
+        user.setOAuth2token("token");
+        CurrentUser.getInstance().setCurrentUser(user);
+        _groupPath = Files.createTempDirectory("main");
+    }
+
+    @After
+    public void clear() throws IOException {
+        _groupService.invalidateGroups();
+        CurrentUser.getInstance().setCurrentUser(_previousUser);
+        Files.deleteIfExists(_groupPath);
+    }
+
+    @Test
+    public void reloadGroupReturnsCopyOfLoadedGroupTest() {
+        mockGroupsResponse(GROUPS_JSON);
+        Group indexedGroup = _groupService.getGroups(CurrentUser.getInstance().getCurrentUser()).iterator().next();
+        Group clonedGroup = new Group(indexedGroup);
+        clonedGroup.setPath(_groupPath.toString());
+
+        Group reloadedGroup = _groupService.reloadGroup(clonedGroup);
+
+        assertNotSame(indexedGroup, reloadedGroup);
+        assertEquals(1, reloadedGroup.getId());
+        assertEquals(_groupPath.toString(), reloadedGroup.getPath());
+        assertTrue(reloadedGroup.isCloned());
+        assertSame(indexedGroup.getSubGroups().get(0), reloadedGroup.getSubGroups().get(0));
+        // the group of the index isn't changed
+        assertNull(indexedGroup.getPath());
+        assertFalse(indexedGroup.isCloned());
+        assertNotSame(indexedGroup, _groupService.reloadGroup(clonedGroup));
+    }
+
+    @Test
+    public void truncatedGroupsAreNotIndexedTest() {
+        when(_connector.getUrlMainPart()).thenReturn(FIRST_SERVER);
+        mockGroupsResponse(GROUPS_JSON);
+        User user = CurrentUser.getInstance().getCurrentUser();
+        assertEquals(2, _groupService.getGroups(user).size());
+
+        // the stream is broken after the first group
+        mockGroupsResponse("[{\"id\":1,\"name\":\"main\",\"full_path\":\"main\"},{\"id\":");
+        _groupService.invalidateGroups();
+
+        assertTrue(_groupService.getGroups(user).isEmpty());
+        verify(_storageService, times(1)).updateGroupsCache(any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void failedParsingKeepsPreviousIndexTest() {
+        JSONParserService jsonParserService = mock(JSONParserService.class);
+        GroupService groupService = new GroupServiceImpl(_connector, _clonedGroupsService, mock(ProjectService.class),
+                mock(StateService.class), mock(ConsoleService.class), jsonParserService, _storageService,
+                mock(JGit.class));
+        mockGroupsResponse(GROUPS_JSON);
+        // the first parsing gives all groups, the next one fails after the first group
+        AtomicInteger countParsing = new AtomicInteger();
+        when(jsonParserService.parseToObjects(any(Reader.class), eq(Group.class), any(Consumer.class)))
+                .thenAnswer((InvocationOnMock invocation) -> {
+                    Consumer<Group> consumer = invocation.getArgument(2);
+                    consumer.accept(getGroup(1, null));
+                    if (countParsing.incrementAndGet() > 1) {
+                        return false;
+                    }
+                    consumer.accept(getGroup(2, 1));
+                    return true;
+                });
+        User user = CurrentUser.getInstance().getCurrentUser();
+        Group group = getGroup(2, 1);
+        group.setPath(_groupPath.toString());
+
+        assertEquals(2, groupService.getGroups(user).size());
+        assertTrue(groupService.getGroups(user).isEmpty());
+
+        // the group which wasn't got by the failed request is found in the previous index
+        Group reloadedGroup = groupService.reloadGroup(group);
+        assertTrue(reloadedGroup.isCloned());
+        assertEquals(2, countParsing.get());
+    }
+
+    @Test
+    public void groupsAreIndexedBySessionTest() {
+        Map<String, String> groupsByServer = new HashMap<>();
+        groupsByServer.put(FIRST_SERVER, "[{\"id\":1,\"name\":\"first\",\"full_path\":\"first\"}]");
+        groupsByServer.put(SECOND_SERVER, "[{\"id\":1,\"name\":\"second\",\"full_path\":\"second\"}]");
+        AtomicReference<String> currentServer = new AtomicReference<>(FIRST_SERVER);
+        when(_connector.getUrlMainPart()).thenAnswer(invocation -> currentServer.get());
+        mockGroupsResponse(groupsByServer::get, currentServer::get);
+        Group group = new Gson().fromJson("{\"id\":1,\"name\":\"group\"}", Group.class);
+        group.setPath(_groupPath.toString());
+
+        assertEquals("first", _groupService.reloadGroup(group).getName());
+        currentServer.set(SECOND_SERVER);
+        assertEquals("second", _groupService.reloadGroup(group).getName());
+        currentServer.set(FIRST_SERVER);
+        assertEquals("first", _groupService.reloadGroup(group).getName());
+
+        // every session loaded its groups only once
+        verify(_connector, times(2)).sendGet(eq("/groups"), eq(null), anyMap(), any(ResponseBodyHandler.class));
+    }
+
+    @Test
+    public void cachedGroupsAreBuiltIntoTreeTest() {
+        // subgroups are listed before their parents, the parent of the last group isn't in the list
+        List<Group> cachedGroups = Arrays.asList(getGroup(5, 4), getGroup(3, 1), getGroup(4, 2), getGroup(2, 1),
+                getGroup(1, null), getGroup(6, 99));
+        when(_connector.getUrlMainPart()).thenReturn(FIRST_SERVER);
+        when(_storageService.loadGroupsCache(any(), any())).thenReturn(cachedGroups);
+
+        List<Group> groups = new ArrayList<>(_groupService.getCachedGroups(CurrentUser.getInstance().getCurrentUser()));
+        List<Group> mainGroups = _groupService.getOnlyMainGroups(groups);
+
+        assertEquals(6, groups.size());
+        assertEquals(1, mainGroups.size());
+        Group mainGroup = mainGroups.get(0);
+        assertEquals(Arrays.asList(3, 2), getIds(mainGroup.getSubGroups()));
+        Group secondLevelGroup = mainGroup.getSubGroups().get(1);
+        assertEquals(Arrays.asList(4), getIds(secondLevelGroup.getSubGroups()));
+        assertEquals(Arrays.asList(5), getIds(secondLevelGroup.getSubGroups().get(0).getSubGroups()));
+        assertTrue(mainGroup.getSubGroups().get(0).getSubGroups().isEmpty());
+        // the group with an unknown parent isn't added to any group
+        Group orphanGroup = groups.get(5);
+        assertTrue(orphanGroup.getSubGroups().isEmpty());
+        assertFalse(mainGroups.contains(orphanGroup));
+        assertTrue(groups.stream().noneMatch(group -> group.getSubGroups().contains(orphanGroup)));
+    }
+
+    @Test
+    public void deepTreeOfCachedGroupsTest() {
+        int depth = 10_000;
+        List<Group> cachedGroups = new ArrayList<>();
+        cachedGroups.add(getGroup(1, null));
+        for (int id = 2; id <= depth; id++) {
+            cachedGroups.add(getGroup(id, id - 1));
+        }
+        when(_connector.getUrlMainPart()).thenReturn(FIRST_SERVER);
+        when(_storageService.loadGroupsCache(any(), any())).thenReturn(cachedGroups);
+
+        _groupService.getCachedGroups(CurrentUser.getInstance().getCurrentUser());
+
+        Group group = cachedGroups.get(0);
+        for (int id = 2; id <= depth; id++) {
+            assertEquals(1, group.getSubGroups().size());
+            group = group.getSubGroups().get(0);
+            assertEquals(id, group.getId());
+        }
+        assertTrue(group.getSubGroups().isEmpty());
+    }
+
+    private Group getGroup(int id, Integer parentId) {
+        String json = "{\"id\":" + id + ",\"name\":\"group" + id + "\",\"parent_id\":" + parentId + "}";
+        return new Gson().fromJson(json, Group.class);
+    }
+
+    private List<Integer> getIds(List<Group> groups) {
+        return groups.stream().map(Group::getId).collect(Collectors.toList());
+    }
+
+    private void mockGroupsResponse(String json) {
+        mockGroupsResponse(server -> json, () -> null);
+    }
+
+    private void mockGroupsResponse(Function<String, String> jsonByServer, Supplier<String> server) {
+        when(_connector.sendGet(eq("/groups"), eq(null), anyMap(), any(ResponseBodyHandler.class)))
+                .thenAnswer((InvocationOnMock invocation) -> {
+                    ResponseBodyHandler handler = invocation.getArgument(3);
+                    handler.handle(new StringReader(jsonByServer.apply(server.get())));
+                    return new HttpResponseHolder(Collections.emptyMap(), null, 200);
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.lgc.gitlabtool.git.entities.Group;
+
+/**
+ * Tests for the GroupsIndex class.
+ */
+public class GroupsIndexTest {
+
+    private static final Gson _gson = new Gson();
+
+    @Test
+    public void emptyIndexTest() {
+        GroupsIndex index = new GroupsIndex(null);
+
+        assertTrue(index.isEmpty());
+        assertFalse(index.getById(1).isPresent());
+        assertFalse(index.getByName(null).isPresent());
+        assertFalse(index.getByFullPath(null).isPresent());
+    }
+
+    @Test
+    public void findGroupsTest() {
+        GroupsIndex index = new GroupsIndex(getGroups());
+
+        assertFalse(index.isEmpty());
+        assertEquals(2, index.getById(2).get().getId());
+        assertEquals(3, index.getByFullPath("main/sub").get().getId());
+        assertFalse(index.getById(5).isPresent());
+        assertFalse(index.getByFullPath("main/other").isPresent());
+    }
+
+    @Test
+    public void findFirstGroupByNameTest() {
+        GroupsIndex index = new GroupsIndex(getGroups());
+
+        assertEquals(2, index.getByName("sub").get().getId());
+        assertEquals(1, index.getByName("main").get().getId());
+    }
+
+    @Test
+    public void expiredIndexTest() {
+        GroupsIndex index = new GroupsIndex(getGroups());
+
+        assertFalse(index.isExpired(60 * 1000));
+        assertTrue(index.isExpired(-1));
+    }
+
+    private List<Group> getGroups() {
+        return Arrays.asList(getGroup(1, "main", "main"),
+                             getGroup(2, "sub", "sub"),
+                             getGroup(3, "sub", "main/sub"));
+    }
+
+    private Group getGroup(int id, String name, String fullPath) {
+        String json = "{\"id\":" + id + ",\"name\":\"" + name + "\",\"full_path\":\"" + fullPath + "\"}";
+        return _gson.fromJson(json, Group.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.lgc.gitlabtool.git.services;
 
+import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -142,6 +143,30 @@ public class JSONParserServerImplTest {
         Assert.assertEquals(getJSONParserServer().parseToCollectionObjects("{}", typeListGroups), emptyList);
     }
 
+    @Test
+    public void parseToObjectsFromStreamCorrectDataTest() {
+        List<Group> groups = new ArrayList<>();
+
+        Assert.assertTrue(getJSONParserServer().parseToObjects(new StringReader(groupsJson), Group.class, groups::add));
+        Assert.assertEquals(2, groups.size());
+        Assert.assertEquals(1348279, groups.get(0).getId());
+
+        groups.clear();
+        Assert.assertTrue(getJSONParserServer().parseToObjects(new StringReader("[]"), Group.class, groups::add));
+        Assert.assertTrue(groups.isEmpty());
+    }
+
+    @Test
+    public void parseToObjectsFromStreamIncorrectDataTest() {
+        List<Group> groups = new ArrayList<>();
+
+        Assert.assertFalse(getJSONParserServer().parseToObjects(null, Group.class, groups::add));
+        Assert.assertFalse(getJSONParserServer().parseToObjects(new StringReader(groupsJson), (Class<Group>) null, groups::add));
+        Assert.assertFalse(getJSONParserServer().parseToObjects(new StringReader("{}"), Group.class, groups::add));
+        Assert.assertFalse(getJSONParserServer().parseToObjects(new StringReader("76437 jhj 31"), Group.class, groups::add));
+        Assert.assertFalse(getJSONParserServer().parseToObjects(new StringReader("[" + groupJson), Group.class, groups::add));
+    }
+
     private JSONParserService getJSONParserServer() {
         return new JSONParserServiceImpl();
     }
@@ -0,0 +1,108 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
+import com.lgc.gitlabtool.git.connections.RESTConnector;
+import com.lgc.gitlabtool.git.connections.token.CurrentUser;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.entities.ProjectStatus;
+
+public class MergeRequestServiceImplTest {
+
+    private RESTConnector _connector;
+    private CurrentUser _currentUser;
+    private MergeRequestService _mergeRequestService;
+
+    @Before
+    public void init() {
+        _connector = mock(RESTConnector.class);
+        _currentUser = mock(CurrentUser.class);
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        _mergeRequestService = new MergeRequestServiceImpl(_connector, mock(ConsoleService.class), _currentUser);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void createMergeRequestsWrongParameters() {
+        _mergeRequestService.createMergeRequests(Arrays.asList(getProject(1, "feature")), "master", null,
+                EmptyProgressListener.get());
+    }
+
+    @Test
+    public void createMergeRequestsSuccessfully() {
+        HttpResponseHolder created = getResponse(201);
+        HttpResponseHolder conflict = getResponse(409);
+        when(_connector.sendPost(eq("/projects/1/merge_requests"), anyMap(), anyMap())).thenReturn(created);
+        when(_connector.sendPost(eq("/projects/2/merge_requests"), anyMap(), anyMap())).thenReturn(conflict);
+        List<Project> projects = Arrays.asList(getProject(1, "feature"), getProject(2, "feature"),
+                getProject(3, "master"));
+
+        Map<Project, Boolean> results = _mergeRequestService.createMergeRequests(projects, "master", "Feature",
+                EmptyProgressListener.get());
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(projects.get(0)));
+        assertFalse(results.get(projects.get(1)));
+        // the current branch is the target branch
+        assertFalse(results.get(projects.get(2)));
+        verify(_connector, never()).sendPost(eq("/projects/3/merge_requests"), anyMap(), anyMap());
+    }
+
+    @Test
+    public void createMergeRequestsRepeatsRateLimitedRequests() {
+        HttpResponseHolder tooManyRequests = getResponse(429);
+        HttpResponseHolder created = getResponse(201);
+        when(_connector.sendPost(eq("/projects/1/merge_requests"), anyMap(), anyMap()))
+                .thenReturn(tooManyRequests, created);
+        List<Project> projects = Arrays.asList(getProject(1, "feature"));
+
+        Map<Project, Boolean> results = _mergeRequestService.createMergeRequests(projects, "master", "Feature",
+                EmptyProgressListener.get());
+
+        assertTrue(results.get(projects.get(0)));
+        verify(_connector, times(2)).sendPost(eq("/projects/1/merge_requests"), anyMap(), anyMap());
+    }
+
+    @Test
+    public void createMergeRequestsUnknownCurrentBranch() {
+        List<Project> projects = Arrays.asList(getProject(1, null));
+
+        Map<Project, Boolean> results = _mergeRequestService.createMergeRequests(projects, "master", "Feature",
+                EmptyProgressListener.get());
+
+        assertFalse(results.get(projects.get(0)));
+        verify(_connector, never()).sendPost(anyString(), anyMap(), anyMap());
+    }
+
+    private Project getProject(int id, String currentBranch) {
+        Project project = new Project(id, "project_" + id, "http://localhost/group/project_" + id + ".git",
+                "group/project_" + id);
+        project.setClonedStatus(true);
+        project.setProjectStatus(new ProjectStatus(currentBranch));
+        return project;
+    }
+
+    private HttpResponseHolder getResponse(int code) {
+        HttpResponseHolder response = mock(HttpResponseHolder.class);
+        when(response.getResponseCode()).thenReturn(code);
+        return response;
+    }
+}
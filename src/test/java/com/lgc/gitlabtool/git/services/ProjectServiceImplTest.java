@@ -3,35 +3,56 @@ package com.lgc.gitlabtool.git.services;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.lang.reflect.Field;
-import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
 
+import com.google.gson.Gson;
 import com.lgc.gitlabtool.git.connections.HttpResponseHolder;
 import com.lgc.gitlabtool.git.connections.RESTConnector;
+import com.lgc.gitlabtool.git.connections.ResponseBodyHandler;
 import com.lgc.gitlabtool.git.connections.token.CurrentUser;
 import com.lgc.gitlabtool.git.entities.Group;
 import com.lgc.gitlabtool.git.entities.Project;
 import com.lgc.gitlabtool.git.entities.ProjectStatus;
+import com.lgc.gitlabtool.git.entities.ProjectStatusSnapshot;
 import com.lgc.gitlabtool.git.jgit.JGit;
+import com.lgc.gitlabtool.git.project.nature.projecttype.ProjectType;
 
 public class ProjectServiceImplTest {
 
@@ -44,6 +65,7 @@ public class ProjectServiceImplTest {
     private GitService _gitService;
     private JSONParserService _jsonParserService;
     private CurrentUser _currentUser;
+    private StorageService _storageService;
     private JGit _jGit;
 
     @Before
@@ -56,9 +78,10 @@ public class ProjectServiceImplTest {
         _jGit = mock(JGit.class);
         _currentUser = mock(CurrentUser.class);
         _gitService = mock(GitService.class);
+        _storageService = mock(StorageService.class);
 
         _projectService = new ProjectServiceImpl(_connector, _projectTypeService,
-                _stateService, _consoleService, _gitService, _jsonParserService, _currentUser, _jGit);
+                _stateService, _consoleService, _gitService, _jsonParserService, _currentUser, _storageService, _jGit);
     }
 
     @After
@@ -70,6 +93,7 @@ public class ProjectServiceImplTest {
         _gitService = null;
         _jGit = null;
         _gitService = null;
+        _storageService = null;
         _projectService = null;
     }
 
@@ -112,6 +136,21 @@ public class ProjectServiceImplTest {
         assertNotEquals(result.size(), projects.size());
     }
 
+    @Test
+    public void requestCorrectProjectsSuccessfully() {
+        List<Project> projects = new ArrayList<>();
+        projects.add(new Project());
+        Project correctProject = getCorrectProject();
+        projects.add(correctProject);
+
+        CompletableFuture<List<Project>> result = _projectService.requestCorrectProjects(projects);
+        // the changed selection doesn't affect the requested projects
+        projects.clear();
+
+        assertEquals(Arrays.asList(correctProject), result.join());
+        assertTrue(_projectService.requestCorrectProjects(null).join().isEmpty());
+    }
+
     @Test
     public void projectIsClonedAndWithoutConflictsWrongParameter() {
         assertFalse(_projectService.projectIsClonedAndWithoutConflicts(null));
@@ -156,7 +195,7 @@ public class ProjectServiceImplTest {
         HttpResponseHolder httpResponseHolderMock = getHttpResponseHolder(false, "1");
         when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
         when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
-        when(_connector.sendGet(anyString(), eq(null), anyMap())).thenReturn(httpResponseHolderMock);
+        mockSendGetAsync(httpResponseHolderMock);
 
         Collection<Project> result = _projectService.getProjects(getGroupWithSubGroup(5));
 
@@ -171,10 +210,10 @@ public class ProjectServiceImplTest {
         HttpResponseHolder httpResponseHolderMock = getHttpResponseHolder(true, "1");
         when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
         when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
-        when(_connector.sendGet(anyString(), eq(null), anyMap())).thenReturn(httpResponseHolderMock);
+        mockSendGetAsync(httpResponseHolderMock);
         // mock of json parser
-        Collection<Object> groupProjects = Arrays.asList(new Project(), new Project()); //for each group (include subgroups)
-        when(_jsonParserService.parseToCollectionObjects(anyString(), Mockito.any(Type.class))).thenReturn(groupProjects);
+        Collection<Project> groupProjects = Arrays.asList(new Project(), new Project()); //for each group (include subgroups)
+        mockParseToObjects(groupProjects);
 
         Collection<Project> result = _projectService.getProjects(testedGroup);
 
@@ -190,10 +229,10 @@ public class ProjectServiceImplTest {
         HttpResponseHolder httpResponseHolderMock = getHttpResponseHolder(true, "" + countProjectPages);
         when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
         when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
-        when(_connector.sendGet(anyString(), eq(null), anyMap())).thenReturn(httpResponseHolderMock);
+        mockSendGetAsync(httpResponseHolderMock);
         // mock of json parser
-        Collection<Object> groupProjects = new ArrayList<>(Arrays.asList(new Project())); //for each group (include subgroups)
-        when(_jsonParserService.parseToCollectionObjects(anyString(), Mockito.any(Type.class))).thenReturn(groupProjects);
+        Collection<Project> groupProjects = new ArrayList<>(Arrays.asList(new Project())); //for each group (include subgroups)
+        mockParseToObjects(groupProjects);
 
         Collection<Project> result = _projectService.getProjects(testedGroup);
 
@@ -202,6 +241,236 @@ public class ProjectServiceImplTest {
         assertEquals(countGroupProjects * countGroups, result.size());
     }
 
+    @Test
+    public void getProjectsRequestsSubGroupsDepthFirst() {
+        Group mainGroup = getGroup(1);
+        Group firstSubGroup = getGroup(2);
+        Group secondSubGroup = getGroup(3);
+        Group nestedGroup = getGroup(5);
+        nestedGroup.addSubGroup(getGroup(6));
+        firstSubGroup.addSubGroup(getGroup(4));
+        firstSubGroup.addSubGroup(nestedGroup);
+        mainGroup.addSubGroup(firstSubGroup);
+        mainGroup.addSubGroup(secondSubGroup);
+        List<String> requests = new ArrayList<>();
+        HttpResponseHolder pageResponse = getHttpResponseHolder(true, "1");
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        mockSendGetAsync(request -> {
+            requests.add(request.substring(0, request.indexOf("/projects")));
+            return pageResponse;
+        });
+        mockParseToObjects(Arrays.asList(new Project()));
+
+        Collection<Project> result = _projectService.getProjects(mainGroup);
+
+        // parents are requested before their subgroups, subgroups are requested in their order
+        assertEquals(Arrays.asList("/groups/1", "/groups/2", "/groups/4", "/groups/5", "/groups/6", "/groups/3"),
+                requests);
+        assertEquals(6, result.size());
+    }
+
+    @Test
+    public void getProjectsFailedNextPage() {
+        Group testedGroup = getGroupWithSubGroup(0);
+        HttpResponseHolder pageResponse = getHttpResponseHolder(true, "3");
+        HttpResponseHolder failedPageResponse = getHttpResponseHolder(false, "3");
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        when(_connector.getUrlMainPart()).thenReturn("https://gitlab.com/api/v4");
+        mockSendGetAsync(request -> request.endsWith("&page=2") ? failedPageResponse : pageResponse);
+        mockParseToObjects(Arrays.asList(new Project()));
+
+        Collection<Project> result = _projectService.getProjects(testedGroup);
+
+        // the projects of other pages are not taken as the full list
+        assertNull(result);
+        verify(_storageService, never()).updateProjectsCache(any(), any(), any(), any());
+    }
+
+    @Test
+    public void refreshProjectsMergesProjectsByIds() throws IOException {
+        Path groupPath = Files.createTempDirectory("group");
+        Files.createDirectory(groupPath.resolve("second"));
+        Group group = new Group();
+        group.setPath(groupPath.toString());
+        Project notChangedProject = new Project(1, "first", "http://localhost/group/first.git", "group/first");
+        Project locallyClonedProject = new Project(2, "second", "http://localhost/group/second.git", "group/second");
+        Project renamedProject = new Project(3, "third", "http://localhost/group/third.git", "group/third");
+        Project removedProject = new Project(5, "fifth", "http://localhost/group/fifth.git", "group/fifth");
+        List<Project> projects = Arrays.asList(notChangedProject, locallyClonedProject, renamedProject, removedProject);
+        // the GitLab returns all projects of the group
+        List<Project> remoteProjects = Arrays.asList(
+                new Project(1, "first", "http://localhost/group/first.git", "group/first"),
+                new Project(2, "second", "http://localhost/group/second.git", "group/second"),
+                new Project(3, "third_renamed", "http://localhost/group/third_renamed.git", "group/third_renamed"),
+                new Project(4, "fourth", "http://localhost/group/fourth.git", "group/fourth"));
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        mockSendGetAsync(getHttpResponseHolder(true, "1"));
+        mockParseToObjects(remoteProjects);
+        ProjectType projectType = mock(ProjectType.class);
+        when(_projectTypeService.getProjectType(any(Project.class))).thenReturn(projectType);
+        when(_gitService.getProjectStatus(any(Project.class))).thenReturn(new ProjectStatus("master"));
+
+        try {
+            List<Project> result = new ArrayList<>(_projectService.refreshProjects(group, projects));
+
+            // the removed project is dropped
+            assertEquals(4, result.size());
+            assertSame(notChangedProject, result.get(0));
+            // the project was cloned after the last loading
+            assertNotSame(locallyClonedProject, result.get(1));
+            assertTrue(result.get(1).isCloned());
+            assertSame(projectType, result.get(1).getProjectType());
+            assertNotSame(renamedProject, result.get(2));
+            assertEquals("third_renamed", result.get(2).getOriginalName());
+            assertEquals(4, result.get(3).getId());
+            verify(_projectTypeService, times(1)).getProjectType(any(Project.class));
+        } finally {
+            Files.delete(groupPath.resolve("second"));
+            Files.delete(groupPath);
+        }
+    }
+
+    @Test
+    public void createProjectsChecksNamesWithOneRequest() {
+        Group group = new Group();
+        group.setPath(System.getProperty("java.io.tmpdir"));
+        group.setClonedStatus(true);
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        mockSendGetAsync(getHttpResponseHolder(true, "1"));
+        mockParseToObjects(Arrays.asList(new Project(1, "existing", "http://localhost/group/existing.git", null)));
+        HttpResponseHolder createdResponse = mock(HttpResponseHolder.class);
+        when(createdResponse.getResponseCode()).thenReturn(201);
+        when(createdResponse.getBody()).thenReturn("created_json");
+        when(_connector.sendPostAsync(anyString(), anyMap(), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(createdResponse));
+        when(_jsonParserService.parseToObject("created_json", Project.class))
+                .thenAnswer(invocation -> new Project(2, "new", "http://localhost/group/new.git", null));
+        when(_jGit.clone(any(Project.class), anyString())).thenReturn(true);
+        ProjectType projectType = mock(ProjectType.class);
+        when(projectType.getStructures()).thenReturn(Collections.emptySet());
+        ProgressListener progressListener = mock(ProgressListener.class);
+
+        _projectService.createProjects(group, Arrays.asList("existing", "first", "second", "first"), projectType,
+                progressListener);
+
+        verify(_connector, times(1)).sendGetAsync(anyString(), eq(null), anyMap(), any(ResponseBodyHandler.class));
+        verify(_connector, times(2)).sendPostAsync(anyString(), anyMap(), anyMap());
+        verify(_jGit, times(2)).clone(any(Project.class), anyString());
+        verify(progressListener).onError(eq("existing"), anyString());
+        verify(progressListener, times(2)).onSuccess(any(Project.class), anyString());
+        verify(progressListener, times(1)).onError(eq("first"), anyString());
+        verify(progressListener, never()).onError(eq("second"), anyString());
+        verify(progressListener).onFinish(anyMap(), eq("2 of 4 projects were successfully created"));
+    }
+
+    @Test
+    public void createProjectsFinishesWhenStageFails() {
+        Group group = new Group();
+        group.setPath(System.getProperty("java.io.tmpdir"));
+        group.setClonedStatus(true);
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        mockSendGetAsync(getHttpResponseHolder(true, "1"));
+        mockParseToObjects(Collections.emptyList());
+        HttpResponseHolder createdResponse = mock(HttpResponseHolder.class);
+        when(createdResponse.getResponseCode()).thenReturn(201);
+        when(createdResponse.getBody()).thenReturn("created_json");
+        when(_connector.sendPostAsync(anyString(), anyMap(), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(createdResponse));
+        when(_jsonParserService.parseToObject("created_json", Project.class))
+                .thenAnswer(invocation -> new Project(2, "new", "http://localhost/group/new.git", null));
+        when(_jGit.clone(any(Project.class), anyString())).thenThrow(new IllegalStateException("Clone failed"));
+        ProjectType projectType = mock(ProjectType.class);
+        ProgressListener progressListener = mock(ProgressListener.class);
+
+        _projectService.createProjects(group, Arrays.asList("first", "second"), projectType, progressListener);
+
+        verify(progressListener).onError(eq("first"), anyString());
+        verify(progressListener).onError(eq("second"), anyString());
+        verify(progressListener).onFinish(anyMap(), eq("0 of 2 projects were successfully created"));
+    }
+
+    @Test
+    public void loadProjectsComputesStatusesOfClonedProjects() throws IOException {
+        Path groupPath = Files.createTempDirectory("group");
+        Files.createDirectory(groupPath.resolve("cloned"));
+        Group group = new Group();
+        group.setPath(groupPath.toString());
+        Project clonedProject = new Project(1, "cloned", "http://localhost/group/cloned.git", "group/cloned");
+        Project shadowProject = new Project(2, "shadow", "http://localhost/group/shadow.git", "group/shadow");
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        mockSendGetAsync(getHttpResponseHolder(true, "1"));
+        mockParseToObjects(Arrays.asList(clonedProject, shadowProject));
+        ProjectType projectType = mock(ProjectType.class);
+        when(_projectTypeService.getProjectType(clonedProject)).thenReturn(projectType);
+        ProjectStatus projectStatus = new ProjectStatus("master");
+        when(_gitService.getProjectStatus(clonedProject)).thenReturn(projectStatus);
+        ProgressListener progressListener = mock(ProgressListener.class);
+
+        try {
+            Collection<Project> projects = _projectService.loadProjects(group, progressListener);
+
+            assertEquals(2, projects.size());
+            // the shadow project is known before statuses are computed
+            assertFalse(shadowProject.isCloned());
+            assertTrue(clonedProject.isCloned());
+            verify(progressListener, timeout(5000)).onFinish(eq(projects), anyString());
+            verify(progressListener).onSuccess(clonedProject);
+            verify(progressListener, never()).onSuccess(shadowProject);
+            assertSame(projectType, clonedProject.getProjectType());
+            assertSame(projectStatus, clonedProject.getProjectStatus());
+        } finally {
+            Files.delete(groupPath.resolve("cloned"));
+            Files.delete(groupPath);
+        }
+    }
+
+    @Test
+    public void loadProjectsReusesStatusSnapshotsOfUnchangedProjects() throws IOException {
+        String headId = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+        Path groupPath = Files.createTempDirectory("group");
+        Files.createDirectory(groupPath.resolve("unchanged"));
+        Files.createDirectory(groupPath.resolve("changed"));
+        Group group = new Group();
+        group.setPath(groupPath.toString());
+        Project unchangedProject = new Project(1, "unchanged", "http://localhost/group/unchanged.git", "group/unchanged");
+        Project changedProject = new Project(2, "changed", "http://localhost/group/changed.git", "group/changed");
+        when(_currentUser.getOAuth2TokenValue()).thenReturn("testTokenValue");
+        when(_currentUser.getPrivateTokenKey()).thenReturn("testTokenKey");
+        when(_connector.getUrlMainPart()).thenReturn("https://gitlab.com/api/v4");
+        mockSendGetAsync(getHttpResponseHolder(true, "1"));
+        mockParseToObjects(Arrays.asList(unchangedProject, changedProject));
+        ProjectType projectType = mock(ProjectType.class);
+        when(_projectTypeService.getProjectType(any(Project.class))).thenReturn(projectType);
+        ProjectStatus snapshotStatus = new ProjectStatus("master");
+        when(_storageService.loadStatusSnapshots(anyString(), any(), eq(group))).thenReturn(Arrays.asList(
+                new ProjectStatusSnapshot(1, 10, headId, snapshotStatus),
+                new ProjectStatusSnapshot(2, 10, headId, new ProjectStatus("master"))));
+        when(_gitService.getIndexModifiedTime(any(Project.class))).thenReturn(10L);
+        when(_gitService.getHeadId(unchangedProject)).thenReturn(headId);
+        when(_gitService.getHeadId(changedProject)).thenReturn("e69de29bb2d1d6434b8b29ae775ad8c2e48c5391");
+        ProjectStatus computedStatus = new ProjectStatus("develop");
+        when(_gitService.getProjectStatus(changedProject)).thenReturn(computedStatus);
+
+        try {
+            _projectService.loadProjects(group);
+
+            assertSame(snapshotStatus, unchangedProject.getProjectStatus());
+            assertSame(computedStatus, changedProject.getProjectStatus());
+            verify(_gitService, never()).getProjectStatus(unchangedProject);
+            verify(_storageService).updateStatusSnapshots(anyString(), any(), eq(group), anyCollection());
+        } finally {
+            Files.delete(groupPath.resolve("unchanged"));
+            Files.delete(groupPath.resolve("changed"));
+            Files.delete(groupPath);
+        }
+    }
+
     /*********************************************************************************************/
 
     private Project getCorrectProject() {
@@ -249,6 +518,10 @@ public class ProjectServiceImplTest {
         return mainGroup;
     }
 
+    private Group getGroup(int id) {
+        return new Gson().fromJson("{\"id\":" + id + ",\"name\":\"group" + id + "\"}", Group.class);
+    }
+
     private HttpResponseHolder getHttpResponseHolder(boolean isSuccess, String countPages) {
         HttpResponseHolder httpResponseHolderMock = mock(HttpResponseHolder.class);
         when(httpResponseHolderMock.getResponseCode()).thenReturn(isSuccess ? 200 : 101);
@@ -256,6 +529,34 @@ public class ProjectServiceImplTest {
         Map<String, List<String>> prefereces = new HashMap<>();
         prefereces.put("X-Total-Pages", Arrays.asList(countPages));
         when(httpResponseHolderMock.getHeaderLines()).thenReturn(prefereces);
+        when(httpResponseHolderMock.getHeaderValue("X-Total-Pages")).thenReturn(countPages);
         return httpResponseHolderMock;
     }
+
+    private void mockSendGetAsync(HttpResponseHolder httpResponseHolder) {
+        mockSendGetAsync(request -> httpResponseHolder);
+    }
+
+    // the connector passes the body of every response to the handler and returns the completed future
+    private void mockSendGetAsync(Function<String, HttpResponseHolder> responses) {
+        when(_connector.sendGetAsync(anyString(), eq(null), anyMap(), any(ResponseBodyHandler.class)))
+                .thenAnswer((InvocationOnMock invocation) -> {
+                    HttpResponseHolder httpResponseHolder = responses.apply(invocation.getArgument(0));
+                    ResponseBodyHandler handler = invocation.getArgument(3);
+                    if (httpResponseHolder.getResponseCode() == 200) {
+                        handler.handle(new StringReader("test_json"));
+                    }
+                    return CompletableFuture.completedFuture(httpResponseHolder);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockParseToObjects(Collection<Project> pageProjects) {
+        when(_jsonParserService.parseToObjects(any(Reader.class), eq(Project.class), any(Consumer.class)))
+                .thenAnswer((InvocationOnMock invocation) -> {
+                    Consumer<Project> consumer = invocation.getArgument(2);
+                    pageProjects.forEach(consumer);
+                    return true;
+                });
+    }
 }
@@ -0,0 +1,92 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Tests for the ProjectStatusScheduler class.
+ */
+public class ProjectStatusSchedulerTest {
+
+    @Test
+    public void requestedProjectsAreComputedFirstTest() throws InterruptedException {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch firstReleased = new CountDownLatch(1);
+        List<String> computed = Collections.synchronizedList(new ArrayList<>());
+        ProjectStatusScheduler scheduler = new ProjectStatusScheduler(project -> {
+            if (computed.isEmpty()) {
+                firstStarted.countDown();
+                awaitQuietly(firstReleased);
+            }
+            computed.add(project.getName());
+        }, 1);
+        List<Project> projects = Arrays.asList(getProject(1), getProject(2), getProject(3), getProject(4));
+
+        scheduler.invalidate(projects, EmptyProgressListener.get());
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        // the only thread is busy with the first project, the last project is requested (it is visible)
+        scheduler.request(Collections.singletonList(projects.get(3)));
+        firstReleased.countDown();
+        scheduler.request(projects).join();
+
+        assertEquals(Arrays.asList("project_1", "project_4", "project_2", "project_3"), computed);
+        assertFalse(scheduler.isOutdated(projects.get(2)));
+    }
+
+    @Test
+    public void requestDoesNotWaitForActualProjectsTest() {
+        ProjectStatusScheduler scheduler = new ProjectStatusScheduler(project -> {}, 1);
+
+        assertTrue(scheduler.request(Arrays.asList(getProject(1))).isDone());
+    }
+
+    @Test
+    public void markActualRemovesProjectFromQueueTest() throws InterruptedException {
+        CountDownLatch released = new CountDownLatch(1);
+        List<String> computed = Collections.synchronizedList(new ArrayList<>());
+        ProjectStatusScheduler scheduler = new ProjectStatusScheduler(project -> {
+            awaitQuietly(released);
+            computed.add(project.getName());
+        }, 1);
+        List<Project> projects = Arrays.asList(getProject(1), getProject(2));
+        List<Object> notified = Collections.synchronizedList(new ArrayList<>());
+        scheduler.invalidate(projects, new EmptyProgressListener() {
+            @Override
+            public void onSuccess(Object... t) {
+                notified.add(t[0]);
+            }
+        });
+
+        scheduler.markActual(projects.get(1));
+        released.countDown();
+        scheduler.request(projects).join();
+
+        assertEquals(Arrays.asList("project_1"), computed);
+        assertEquals(2, notified.size());
+    }
+
+    private Project getProject(int id) {
+        return new Project(id, "project_" + id, "http://localhost/group/project_" + id + ".git",
+                "group/project_" + id);
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.entities.ProjectStatus;
+import com.lgc.gitlabtool.git.entities.ProjectStatusSnapshot;
+
+/**
+ * Tests for the ProjectStatusSnapshots class.
+ */
+public class ProjectStatusSnapshotsTest {
+
+    private static final String HEAD_ID = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+
+    @Test
+    public void staleSnapshotIsTakenOnceTest() {
+        ProjectStatus status = new ProjectStatus("master");
+        ProjectStatusSnapshots snapshots = new ProjectStatusSnapshots();
+        snapshots.load(new Group(), Arrays.asList(new ProjectStatusSnapshot(1, 10, HEAD_ID, status)));
+        Project project = getProject(1);
+
+        assertSame(status, snapshots.getStatus(project));
+        assertSame(status, snapshots.takeStale(project).getStatus());
+        assertNull(snapshots.takeStale(project));
+        assertNull(snapshots.getStatus(getProject(2)));
+    }
+
+    @Test
+    public void actualSnapshotsReplaceStaleSnapshotsTest() {
+        ProjectStatus actualStatus = new ProjectStatus("develop");
+        ProjectStatusSnapshots snapshots = new ProjectStatusSnapshots();
+        snapshots.load(new Group(), Arrays.asList(new ProjectStatusSnapshot(1, 10, HEAD_ID, new ProjectStatus()),
+                new ProjectStatusSnapshot(2, 10, HEAD_ID, new ProjectStatus())));
+
+        snapshots.putActual(new ProjectStatusSnapshot(1, 20, HEAD_ID, actualStatus));
+
+        assertSame(actualStatus, snapshots.getStatus(getProject(1)));
+        assertNull(snapshots.takeStale(getProject(1)));
+        assertEquals(2, snapshots.getSnapshots().size());
+        assertTrue(snapshots.getSnapshots().stream().anyMatch(snapshot -> snapshot.getStatus() == actualStatus));
+    }
+
+    @Test
+    public void snapshotIsComputedFromIndexAndHeadTest() {
+        ProjectStatusSnapshot snapshot = new ProjectStatusSnapshot(1, 10, HEAD_ID, new ProjectStatus());
+
+        assertTrue(snapshot.isComputedFrom(10, HEAD_ID));
+        assertFalse(snapshot.isComputedFrom(11, HEAD_ID));
+        assertFalse(snapshot.isComputedFrom(10, null));
+        assertFalse(new ProjectStatusSnapshot(1, -1, HEAD_ID, new ProjectStatus()).isComputedFrom(-1, HEAD_ID));
+        assertFalse(new ProjectStatusSnapshot(1, 10, null, new ProjectStatus()).isComputedFrom(10, null));
+    }
+
+    @Test
+    public void snapshotOfPreviousFormatIsNotActualTest() {
+        Gson gson = new Gson();
+        // the status was saved with sets of files before the compact list of files
+        String previousFormatJson = "{\"_projectId\":1,\"_indexModifiedTime\":10,\"_headId\":\"" + HEAD_ID + "\","
+                + "\"_status\":{\"_hasChanges\":true,\"_currentBranch\":\"master\","
+                + "\"_modifiedFiles\":[\"pom.xml\"]}}";
+
+        ProjectStatusSnapshot previousSnapshot = gson.fromJson(previousFormatJson, ProjectStatusSnapshot.class);
+        ProjectStatusSnapshot savedSnapshot = gson.fromJson(
+                gson.toJson(new ProjectStatusSnapshot(1, 10, HEAD_ID, new ProjectStatus("master"))),
+                ProjectStatusSnapshot.class);
+
+        assertEquals("master", previousSnapshot.getStatus().getCurrentBranch());
+        assertFalse(previousSnapshot.isComputedFrom(10, HEAD_ID));
+        assertTrue(savedSnapshot.isComputedFrom(10, HEAD_ID));
+    }
+
+    private Project getProject(int id) {
+        return new Project(id, "project" + id, "http://localhost/group/project" + id + ".git", "group/project" + id);
+    }
+}
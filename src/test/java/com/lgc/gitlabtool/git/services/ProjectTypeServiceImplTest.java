@@ -1,6 +1,10 @@
 package com.lgc.gitlabtool.git.services;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -55,6 +59,77 @@ public class ProjectTypeServiceImplTest {
         Assert.assertTrue(type instanceof UnknownProjectType);
     }
 
+    @Test
+    public void getProjectTypeIsCachedUntilProjectIsModifiedTest() throws IOException {
+        AtomicInteger countChecks = new AtomicInteger();
+        DSGProjectType dsgType = new DSGProjectType() {
+            @Override
+            protected boolean isPathCorrespondsToType(Path path) {
+                countChecks.incrementAndGet();
+                return super.isPathCorrespondsToType(path);
+            }
+        };
+        ProjectTypeServiceImpl service = new ProjectTypeServiceImpl() {
+            @Override
+            protected void initProjectTypes() {
+                getSetProjectTypes().add(dsgType);
+            }
+        };
+        Path projectPath = Files.createTempDirectory("project");
+        Path pluginsPath = Files.createDirectory(projectPath.resolve("plugins"));
+        Files.createFile(projectPath.resolve(DSGProjectType.STRUCTURE_OF_POM_FILE));
+        Path pluginsPomPath = Files.createFile(pluginsPath.resolve("pom.xml"));
+        Project project = new Project();
+        project.setPath(projectPath.toString());
+
+        try {
+            Assert.assertSame(dsgType, service.getProjectType(project));
+            int countChecksOfDetection = countChecks.get();
+            Assert.assertSame(dsgType, service.getProjectType(project));
+            Assert.assertEquals(countChecksOfDetection, countChecks.get());
+
+            Files.delete(pluginsPomPath);
+            // the file system can keep modification times in seconds
+            Files.setLastModifiedTime(pluginsPath, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+            Assert.assertTrue(service.getProjectType(project) instanceof UnknownProjectType);
+        } finally {
+            Files.delete(projectPath.resolve(DSGProjectType.STRUCTURE_OF_POM_FILE));
+            Files.delete(pluginsPath);
+            Files.delete(projectPath);
+        }
+    }
+
+    @Test
+    public void registeredTypeIsMatchedTest() throws IOException {
+        DSGProjectType dsgType = new DSGProjectType();
+        ProjectTypeServiceImpl service = new ProjectTypeServiceImpl() {
+            @Override
+            protected void initProjectTypes() {}
+        };
+        Path projectPath = Files.createTempDirectory("project");
+        Path pluginsPath = Files.createDirectory(projectPath.resolve("plugins"));
+        Files.createFile(projectPath.resolve(DSGProjectType.STRUCTURE_OF_POM_FILE));
+        Path pluginsPomPath = Files.createFile(pluginsPath.resolve("pom.xml"));
+        Project project = new Project();
+        project.setPath(projectPath.toString());
+
+        try {
+            Assert.assertTrue(service.getProjectType(project) instanceof UnknownProjectType);
+            Assert.assertTrue(service.getTypeById(dsgType.getId()) instanceof UnknownProjectType);
+
+            service.registerProjectType(dsgType);
+
+            // the type which was detected before the registration isn't used
+            Assert.assertSame(dsgType, service.getProjectType(project));
+            Assert.assertSame(dsgType, service.getTypeById(dsgType.getId()));
+        } finally {
+            Files.delete(pluginsPomPath);
+            Files.delete(projectPath.resolve(DSGProjectType.STRUCTURE_OF_POM_FILE));
+            Files.delete(pluginsPath);
+            Files.delete(projectPath);
+        }
+    }
+
     @Test(expected=IllegalArgumentException.class)
     public void getProjectTypeProjectIsNullTest() {
         ProjectTypeServiceImpl service = new ProjectTypeServiceImpl();
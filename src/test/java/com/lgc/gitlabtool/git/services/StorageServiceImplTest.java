@@ -0,0 +1,136 @@
+package com.lgc.gitlabtool.git.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.lgc.gitlabtool.git.entities.Group;
+import com.lgc.gitlabtool.git.entities.Project;
+import com.lgc.gitlabtool.git.util.PathUtilities;
+
+/**
+ * Tests for the caches of the StorageServiceImpl class.
+ */
+public class StorageServiceImplTest {
+
+    private static final String SERVER = "gitlab.com";
+    private static final String USERNAME = "user";
+
+    private Path _workingDirectory;
+    private StorageServiceImpl _storageService;
+
+    @Before
+    public void init() throws IOException {
+        _workingDirectory = Files.createTempDirectory("storage");
+        _storageService = new StorageServiceImpl(_workingDirectory.toString());
+    }
+
+    @After
+    public void clear() {
+        PathUtilities.deletePath(_workingDirectory);
+    }
+
+    @Test
+    public void groupsCacheRoundTripTest() {
+        Group group = getGroup(1, null);
+        group.setPath("/local/path");
+        group.setClonedStatus(true);
+
+        assertTrue(_storageService.updateGroupsCache(SERVER, USERNAME, Arrays.asList(group, getGroup(2, 1))));
+        List<Group> groups = _storageService.loadGroupsCache(SERVER, USERNAME);
+
+        assertEquals(2, groups.size());
+        assertEquals(1, groups.get(0).getId());
+        assertEquals("group1", groups.get(0).getName());
+        assertNull(groups.get(0).getParentId());
+        assertEquals(Integer.valueOf(1), groups.get(1).getParentId());
+        assertEquals("group1/group2", groups.get(1).getFullPath());
+        // local data isn't cached
+        assertNull(groups.get(0).getPath());
+        assertFalse(groups.get(0).isCloned());
+    }
+
+    @Test
+    public void projectsCacheRoundTripTest() {
+        Group group = getGroup(1, null);
+        Project project = new Project(10, "project", "http://localhost/group1/project.git", "group1/project");
+        project.setPath("/local/path/project");
+
+        assertTrue(_storageService.updateProjectsCache(SERVER, USERNAME, group, Arrays.asList(project)));
+        List<Project> projects = _storageService.loadProjectsCache(SERVER, USERNAME, group);
+
+        assertEquals(1, projects.size());
+        assertEquals(10, projects.get(0).getId());
+        assertEquals("project", projects.get(0).getName());
+        assertEquals("http://localhost/group1/project.git", projects.get(0).getHttpUrlToRepo());
+        assertEquals("group1/project", projects.get(0).getPathWithNamespace());
+        assertNull(projects.get(0).getPath());
+        assertTrue(_storageService.loadProjectsCache(SERVER, USERNAME, getGroup(2, null)).isEmpty());
+    }
+
+    @Test
+    public void updatedCacheReplacesPreviousCacheTest() throws IOException {
+        _storageService.updateGroupsCache(SERVER, USERNAME, Arrays.asList(getGroup(1, null), getGroup(2, null)));
+
+        assertTrue(_storageService.updateGroupsCache(SERVER, USERNAME, Arrays.asList(getGroup(3, null))));
+
+        List<Group> groups = _storageService.loadGroupsCache(SERVER, USERNAME);
+        assertEquals(1, groups.size());
+        assertEquals(3, groups.get(0).getId());
+        // the temporary file is moved in place of the cache
+        assertEquals(1, Files.list(getCacheDirectory()).count());
+    }
+
+    @Test
+    public void failedUpdateKeepsPreviousCacheTest() throws IOException {
+        _storageService.updateGroupsCache(SERVER, USERNAME, Arrays.asList(getGroup(1, null)));
+        // the temporary file can't be written
+        Files.createDirectory(getCacheDirectory().resolve("groups.jsonl.tmp"));
+
+        assertFalse(_storageService.updateGroupsCache(SERVER, USERNAME, Arrays.asList(getGroup(2, null))));
+
+        List<Group> groups = _storageService.loadGroupsCache(SERVER, USERNAME);
+        assertEquals(1, groups.size());
+        assertEquals(1, groups.get(0).getId());
+    }
+
+    @Test
+    public void missingCacheTest() {
+        assertTrue(_storageService.loadGroupsCache(SERVER, USERNAME).isEmpty());
+        assertTrue(_storageService.loadProjectsCache(SERVER, USERNAME, getGroup(1, null)).isEmpty());
+        assertTrue(_storageService.loadGroupsCache(null, USERNAME).isEmpty());
+        assertFalse(_storageService.updateGroupsCache(SERVER, null, Collections.emptyList()));
+    }
+
+    @Test
+    public void corruptedCacheTest() throws IOException {
+        _storageService.updateGroupsCache(SERVER, USERNAME, Arrays.asList(getGroup(1, null)));
+        Files.write(getCacheDirectory().resolve("groups.jsonl"), "{\"id\":".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(_storageService.loadGroupsCache(SERVER, USERNAME).isEmpty());
+    }
+
+    private Path getCacheDirectory() {
+        return _workingDirectory.resolve(SERVER).resolve(USERNAME).resolve("cache");
+    }
+
+    private Group getGroup(int id, Integer parentId) {
+        String fullPath = parentId == null ? "group" + id : "group" + parentId + "/group" + id;
+        return new Gson().fromJson("{\"id\":" + id + ",\"name\":\"group" + id + "\",\"full_path\":\"" + fullPath
+                + "\",\"parent_id\":" + parentId + "}", Group.class);
+    }
+}
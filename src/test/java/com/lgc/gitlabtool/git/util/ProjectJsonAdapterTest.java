@@ -0,0 +1,64 @@
+package com.lgc.gitlabtool.git.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.lgc.gitlabtool.git.entities.Project;
+
+/**
+ * Tests for the ProjectJsonAdapter class.
+ */
+public class ProjectJsonAdapterTest {
+
+    private static final String PROJECT_JSON = "{\"id\":4,\"description\":null,\"default_branch\":\"master\","
+            + "\"tag_list\":[\"tag\"],\"ssh_url_to_repo\":\"git@example.com:group/sub/my-project.git\","
+            + "\"http_url_to_repo\":\"https://example.com/group/sub/my-project.git\",\"name\":\"My Project\","
+            + "\"namespace\":{\"id\":2,\"name\":\"sub\",\"full_path\":\"group/sub\"},"
+            + "\"path_with_namespace\":\"group/sub/my-project\",\"star_count\":0}";
+
+    private final Gson _gson = new GsonBuilder().registerTypeAdapter(Project.class, new ProjectJsonAdapter()).create();
+
+    @Test
+    public void readProjectTest() {
+        Project project = _gson.fromJson(PROJECT_JSON, Project.class);
+
+        assertEquals(4, project.getId());
+        assertEquals("My Project", project.getOriginalName());
+        assertEquals("sub/my-project", project.getName());
+        assertEquals("https://example.com/group/sub/my-project.git", project.getHttpUrlToRepo());
+        assertEquals("group/sub/my-project", project.getPathWithNamespace());
+        assertFalse(project.isCloned());
+    }
+
+    @Test
+    public void readProjectWithNullFieldsTest() {
+        Project project = _gson.fromJson("{\"id\":4,\"name\":null}", Project.class);
+
+        assertEquals(4, project.getId());
+        assertNull(project.getOriginalName());
+        assertNull(project.getPathWithNamespace());
+        assertNull(_gson.fromJson("null", Project.class));
+    }
+
+    @Test
+    public void writeProjectTest() {
+        Project project = _gson.fromJson(PROJECT_JSON, Project.class);
+        project.setClonedStatus(true);
+
+        String json = _gson.toJson(project);
+        assertTrue(json.contains("\"name\":\"My Project\""));
+        assertFalse(json.contains("_isCloned"));
+
+        Project readProject = _gson.fromJson(json, Project.class);
+        assertEquals(project.getId(), readProject.getId());
+        assertEquals(project.getOriginalName(), readProject.getOriginalName());
+        assertEquals(project.getHttpUrlToRepo(), readProject.getHttpUrlToRepo());
+        assertEquals(project.getPathWithNamespace(), readProject.getPathWithNamespace());
+    }
+}
@@ -0,0 +1,123 @@
+package com.lgc.gitlabtool.git.util;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.lgc.gitlabtool.git.entities.ProjectStatus;
+import com.lgc.gitlabtool.git.entities.ProjectStatusFiles;
+import com.lgc.gitlabtool.git.jgit.ChangedFileStatus;
+
+/**
+ * Heap benchmark of the StringPool class on a synthetic workspace of 2,000 projects.
+ *
+ * Every project has the same build files and sources, generated sources, a few files of its own,
+ * the same branches and a history of commits. The benchmark keeps the strings which the UI keeps for every
+ * project (paths of changed files, names of branches, project names of commits) once as separate instances
+ * and once through the pool, and compares the used heap.
+ *
+ * It isn't run with unit tests, run it by <code>mvn test -Dtest=StringPoolHeapBenchmark</code>.
+ */
+public class StringPoolHeapBenchmark {
+
+    private static final int PROJECTS_COUNT = 2000;
+    private static final int SOURCES_COUNT = 20;
+    private static final int GENERATED_SOURCES_COUNT = 30;
+    private static final int COMMITS_COUNT = 20;
+    private static final String[] BRANCHES = {"master", "develop", "release/1.0", "origin/master", "origin/develop"};
+
+    @Test
+    public void heapOfWorkspaceTest() {
+        long separateHeap = measure(false);
+        long pooledHeap = measure(true);
+
+        System.out.println(String.format("Strings of %d projects: separate %.1f MB, pooled %.1f MB",
+                PROJECTS_COUNT, toMegabytes(separateHeap), toMegabytes(pooledHeap)));
+        assertTrue(pooledHeap < separateHeap);
+    }
+
+    private long measure(boolean isPooled) {
+        long heapBefore = getUsedHeap();
+        List<Object> workspace = new ArrayList<>();
+        for (int project = 0; project < PROJECTS_COUNT; project++) {
+            if (isPooled) {
+                addPooledProject(workspace, project);
+            } else {
+                addSeparateProject(workspace, project);
+            }
+        }
+        long heap = getUsedHeap() - heapBefore;
+        // the workspace must be alive while the heap is measured
+        assertTrue(workspace.size() > PROJECTS_COUNT);
+        return heap;
+    }
+
+    /** Strings of a project as they were kept without the pool: a new instance for every project and commit */
+    private void addSeparateProject(List<Object> workspace, int project) {
+        getPaths(project).forEach(workspace::add);
+        for (String branch : BRANCHES) {
+            workspace.add(copy(branch));
+        }
+        for (int commit = 0; commit < COMMITS_COUNT; commit++) {
+            workspace.add(getProjectName(project));
+        }
+    }
+
+    /** Strings of a project which are got through the status, branch and history builders with the pool */
+    private void addPooledProject(List<Object> workspace, int project) {
+        ProjectStatusFiles files = new ProjectStatusFiles.Builder()
+                .add(ChangedFileStatus.MODIFIED, getPaths(project))
+                .build();
+        workspace.add(new ProjectStatus(true, 0, 0, copy("master"), copy("origin/master"), files));
+        files.forEach((path, statuses) -> workspace.add(path));
+        for (String branch : BRANCHES) {
+            workspace.add(StringPool.intern(copy(branch)));
+        }
+        String projectName = StringPool.intern(getProjectName(project));
+        for (int commit = 0; commit < COMMITS_COUNT; commit++) {
+            workspace.add(projectName);
+        }
+    }
+
+    private List<String> getPaths(int project) {
+        List<String> paths = new ArrayList<>();
+        paths.add(copy("pom.xml"));
+        paths.add(copy("plugins/pom.xml"));
+        for (int index = 0; index < SOURCES_COUNT; index++) {
+            paths.add("src/main/java/com/lgc/gitlabtool/module/Service" + index + ".java");
+        }
+        for (int index = 0; index < GENERATED_SOURCES_COUNT; index++) {
+            paths.add("target/generated-sources/annotations/com/lgc/gitlabtool/Generated" + index + ".java");
+        }
+        paths.add("src/main/resources/project" + project + ".properties");
+        return paths;
+    }
+
+    private String getProjectName(int project) {
+        return "project-" + project;
+    }
+
+    private String copy(String value) {
+        return new String(value.toCharArray());
+    }
+
+    private long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int index = 0; index < 3; index++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private double toMegabytes(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
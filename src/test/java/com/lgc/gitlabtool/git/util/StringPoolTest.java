@@ -0,0 +1,31 @@
+package com.lgc.gitlabtool.git.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Tests for the StringPool class.
+ */
+public class StringPoolTest {
+
+    @Test
+    public void equalStringsShareInstanceTest() {
+        String first = new String("plugins/pom.xml".toCharArray());
+        String second = new String("plugins/pom.xml".toCharArray());
+        assertNotSame(first, second);
+
+        String pooledFirst = StringPool.intern(first);
+
+        assertSame(pooledFirst, StringPool.intern(second));
+        assertEquals("plugins/pom.xml", pooledFirst);
+    }
+
+    @Test
+    public void nullIsNotPooledTest() {
+        assertNull(StringPool.intern(null));
+    }
+}